@@ -52,7 +52,7 @@ public class SpringinMWayApplication {
 
             // 4. Test API client
             System.out.println("\n4. API CLIENT:");
-            System.out.println("   " + apiClientWithProperties.callApi("/users"));
+            System.out.println("   " + apiClientWithProperties.describe("/users"));
 
             // 5. Show application info
             System.out.println("\n5. APPLICATION INFO:");
@@ -100,7 +100,7 @@ public class SpringinMWayApplication {
 
             // Check encrypted fields
             System.out.println("\nEncrypted Fields:");
-            System.out.println("API Key: " + userService.getApiKey());
+            System.out.println("API Key (decrypted on access): " + userService.getApiKey());
             System.out.println("Password: " + userService.getPassword());
             System.out.println("Public Data: " + userService.getPublicData());
 
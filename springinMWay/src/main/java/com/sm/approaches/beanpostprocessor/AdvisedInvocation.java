@@ -0,0 +1,44 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.cglib.proxy.MethodProxy;
+
+import java.lang.reflect.Method;
+
+/**
+ * A call travelling through a fused advice chain
+ *
+ * proceed() hands the call to the next advice; after the last advice
+ * the target method runs through MethodProxy (generated code, no reflection).
+ */
+public class AdvisedInvocation {
+
+    private final Object target;
+    private final String beanName;
+    private final Method method;
+    private final Object[] args;
+    private final MethodProxy methodProxy;
+    private final MethodAdvice[] chain;
+    private int position;
+
+    AdvisedInvocation(Object target, String beanName, Method method, Object[] args,
+                      MethodProxy methodProxy, MethodAdvice[] chain) {
+        this.target = target;
+        this.beanName = beanName;
+        this.method = method;
+        this.args = args;
+        this.methodProxy = methodProxy;
+        this.chain = chain;
+    }
+
+    public Object proceed() throws Throwable {
+        if (position < chain.length) {
+            return chain[position++].invoke(this);
+        }
+        return methodProxy.invoke(target, args);
+    }
+
+    public Object getTarget() { return target; }
+    public String getBeanName() { return beanName; }
+    public Method getMethod() { return method; }
+    public Object[] getArguments() { return args; }
+}
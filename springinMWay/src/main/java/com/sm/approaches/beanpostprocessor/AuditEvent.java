@@ -0,0 +1,108 @@
+package com.sm.approaches.beanpostprocessor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * One audited method call, captured on the caller's thread
+ *
+ * Arguments, result and failure are rendered to strings HERE, when the
+ * call returns - so an argument mutated after the call, or a result the
+ * caller changes later, is audited as it was at the time of the call, and
+ * the event keeps no reference to live objects. Only the timestamp
+ * formatting and the output itself are left to the audit drain thread.
+ */
+public class AuditEvent {
+
+    private final long timestampMillis;
+    private final String beanName;
+    private final String methodName;
+    private final String args;
+    private final String result;
+    private final String failure;
+    private final long durationNanos;
+
+    public AuditEvent(long timestampMillis, String beanName, String methodName,
+                      Object[] args, Object result, Throwable failure,
+                      long durationNanos) {
+        this.timestampMillis = timestampMillis;
+        this.beanName = beanName;
+        this.methodName = methodName;
+        this.args = render(args);
+        this.result = failure == null ? String.valueOf(result) : null;
+        this.failure = failure != null ? failure.toString() : null;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Multi-line, human readable form (same layout the audit proxy used to print)
+     */
+    public void appendPretty(StringBuilder out) {
+        out.append("\n   [AUDIT] ").append(getTimestamp()).append('\n');
+        out.append("   [AUDIT] Bean: ").append(beanName).append('\n');
+        out.append("   [AUDIT] Method: ").append(methodName).append('\n');
+
+        if (args != null) {
+            out.append("   [AUDIT] Arguments: ").append(args).append('\n');
+        }
+
+        out.append("   [AUDIT] Execution time: ")
+                .append(durationNanos / 1_000_000).append("ms\n");
+
+        if (failure != null) {
+            out.append("   [AUDIT] Failed: ").append(failure).append('\n');
+        } else {
+            out.append("   [AUDIT] Result: ").append(result).append('\n');
+        }
+    }
+
+    /**
+     * Single-line form used by file based sinks
+     */
+    public void appendLine(StringBuilder out) {
+        out.append(getTimestamp())
+                .append(" bean=").append(beanName)
+                .append(" method=").append(methodName)
+                .append(" durationMicros=").append(durationNanos / 1_000);
+
+        if (args != null) {
+            out.append(" args=[").append(args).append(']');
+        }
+
+        if (failure != null) {
+            out.append(" failure=").append(failure);
+        } else {
+            out.append(" result=").append(result);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * @return "a, b, c", or null for a call without arguments
+     */
+    private static String render(Object[] args) {
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            out.append(args[i]);
+            if (i < args.length - 1) out.append(", ");
+        }
+        return out.toString();
+    }
+
+    public LocalDateTime getTimestamp() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis),
+                ZoneId.systemDefault());
+    }
+
+    public long getTimestampMillis() { return timestampMillis; }
+    public String getBeanName() { return beanName; }
+    public String getMethodName() { return methodName; }
+    public String getArgs() { return args; }
+    public String getResult() { return result; }
+    public String getFailure() { return failure; }
+    public long getDurationNanos() { return durationNanos; }
+}
@@ -0,0 +1,187 @@
+package com.sm.approaches.beanpostprocessor;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ASYNCHRONOUS AUDIT DISPATCHER
+ *
+ * Decouples audited calls from audit output:
+ * - The calling thread builds an AuditEvent and puts it in a lock-free
+ *   ring buffer. Building it renders the arguments and result with
+ *   toString() - the one real cost left on the caller; no I/O, no stdout
+ *   lock. Under DROP, admit() lets the caller skip that when the buffer
+ *   is full.
+ * - One background thread drains the buffer in batches into the AuditSink
+ *
+ * When the buffer is full the configured AuditOverflowPolicy decides
+ * whether the event is dropped (and counted) or the caller waits.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class AuditEventDispatcher {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AuditSink sink;
+    private final AuditEventRingBuffer buffer;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final int batchSize;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private volatile long written;
+    private volatile long sinkErrors;
+
+    private volatile boolean running;
+    private Thread drainThread;
+    long stopGraceMillis = TimeUnit.SECONDS.toMillis(5);
+
+    public AuditEventDispatcher(
+            AuditSink sink,
+            @Value("${app.audit.buffer-size:8192}") int bufferSize,
+            @Value("${app.audit.batch-size:256}") int batchSize,
+            @Value("${app.audit.overflow-policy:DROP}") AuditOverflowPolicy overflowPolicy) {
+        this.sink = sink;
+        this.buffer = new AuditEventRingBuffer(bufferSize);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainThread = new Thread(this::drainLoop, "audit-drain");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+    /**
+     * Cheap check before the audited thread builds an event
+     *
+     * @return false if publish() would drop it right now (DROP policy,
+     *         buffer full) - the drop is counted here, so the caller can
+     *         skip rendering an event that would be thrown away
+     */
+    public boolean admit() {
+        if (overflowPolicy == AuditOverflowPolicy.DROP && buffer.isFull()) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hands an event to the drain thread - called on the audited thread
+     *
+     * @return false if the event was dropped because the buffer was full
+     */
+    public boolean publish(AuditEvent event) {
+        if (buffer.offer(event)) {
+            published.increment();
+            return true;
+        }
+
+        if (overflowPolicy == AuditOverflowPolicy.BLOCK && running) {
+            blocked.increment();
+            while (running) {
+                LockSupport.unpark(drainThread);
+                Thread.onSpinWait();
+                if (buffer.offer(event)) {
+                    published.increment();
+                    return true;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+            }
+        }
+
+        dropped.increment();
+        return false;
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (drainBatch(batch) == 0) {
+                flushSink();
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drainBatch(List<AuditEvent> batch) {
+        int count = buffer.drainTo(batch, batchSize);
+        if (count > 0) {
+            try {
+                sink.write(batch);
+                written += count;
+            } catch (Exception e) {
+                // Audit output must never take down the drain thread
+                sinkErrors++;
+            } finally {
+                batch.clear();
+            }
+        }
+        return count;
+    }
+
+    private void flushSink() {
+        try {
+            sink.flush();
+        } catch (Exception e) {
+            sinkErrors++;
+        }
+    }
+
+    /**
+     * Stops the drain thread and writes whatever is still buffered
+     *
+     * The buffer allows ONE consumer, so the final drain only starts once
+     * the drain thread has exited. It gets 5s to finish its batch; a sink
+     * stuck longer than that is interrupted, and then waited for.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (drainThread != null) {
+            LockSupport.unpark(drainThread);
+            drainThread.join(stopGraceMillis);
+            if (drainThread.isAlive()) {
+                drainThread.interrupt();
+                drainThread.join();
+            }
+        }
+
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (drainBatch(batch) > 0) {
+            // keep draining until empty
+        }
+        flushSink();
+        try {
+            sink.close();
+        } catch (Exception e) {
+            sinkErrors++;
+        }
+    }
+
+    // Counters for monitoring the audit pipeline
+    public long getPublishedCount() { return published.sum(); }
+    public long getDroppedCount() { return dropped.sum(); }
+    public long getBlockedCount() { return blocked.sum(); }
+    public long getWrittenCount() { return written; }
+    public long getSinkErrorCount() { return sinkErrors; }
+    public int getPendingCount() { return buffer.size(); }
+    public int getCapacity() { return buffer.capacity(); }
+    public AuditOverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+}
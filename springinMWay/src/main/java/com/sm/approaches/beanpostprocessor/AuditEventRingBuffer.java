@@ -0,0 +1,103 @@
+package com.sm.approaches.beanpostprocessor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free ring buffer for audit events
+ *
+ * Many producers (the audited request threads), ONE consumer (the drain thread).
+ * Every slot carries a sequence number telling whose turn it is:
+ * - sequence == position      -> slot is free for the producer claiming position
+ * - sequence == position + 1  -> slot holds the event published at position
+ *
+ * Producers claim a position with a single CAS and never block;
+ * offer() simply returns false when the buffer is full.
+ */
+class AuditEventRingBuffer {
+
+    private final AuditEvent[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only touched by the consumer thread
+    private long head;
+
+    AuditEventRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.events = new AuditEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publishes an event, returns false if the buffer is full
+     */
+    boolean offer(AuditEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[index] = event;
+                    // Volatile write publishes the event to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // Consumer has not freed this slot yet - full
+            } else {
+                position = tail.get(); // Another producer won, retry
+            }
+        }
+    }
+
+    /**
+     * Moves up to max events into the given list (consumer thread only)
+     *
+     * @return number of events drained
+     */
+    int drainTo(List<AuditEvent> target, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break; // Nothing published at this position yet
+            }
+            target.add(events[index]);
+            events[index] = null;
+            // Hand the slot back to producers for the next lap
+            sequences.set(index, head + events.length);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return true if offer() would fail right now - approximate under
+     *         concurrent producers, exact when they stop
+     */
+    boolean isFull() {
+        long position = tail.get();
+        return sequences.get((int) (position & mask)) - position < 0;
+    }
+
+    int capacity() {
+        return events.length;
+    }
+
+    // Approximate when called off the consumer thread
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,18 @@
+package com.sm.approaches.beanpostprocessor;
+
+/**
+ * What an audited call does when the audit buffer is full
+ */
+public enum AuditOverflowPolicy {
+
+    /**
+     * Discard the event and count it - the caller never waits
+     */
+    DROP,
+
+    /**
+     * Wait until the drain thread frees a slot - no event is ever lost,
+     * but a slow sink can slow down audited calls
+     */
+    BLOCK
+}
@@ -0,0 +1,32 @@
+package com.sm.approaches.beanpostprocessor;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for audit events
+ *
+ * Sinks are only ever called from the single audit drain thread,
+ * so implementations do not need to be thread-safe.
+ * Register a bean of this type to replace the default sink
+ * (mark it ROLE_INFRASTRUCTURE - it is created while processors are registered).
+ */
+public interface AuditSink {
+
+    /**
+     * Writes one batch of events, in the order they were published
+     */
+    void write(List<AuditEvent> batch) throws IOException;
+
+    /**
+     * Called when the queue has been drained and the sink may flush buffers
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Called once on shutdown, after the last batch was written
+     */
+    default void close() throws IOException {
+    }
+}
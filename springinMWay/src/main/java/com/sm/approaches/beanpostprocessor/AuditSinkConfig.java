@@ -0,0 +1,45 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import java.nio.file.Path;
+
+/**
+ * Chooses the AuditSink used by AuditEventDispatcher
+ *
+ * app.audit.sink=console (default) - batched stdout output
+ * app.audit.sink=file              - rolling log file under app.audit.file.path
+ */
+@Configuration
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class AuditSinkConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(
+            name = "app.audit.sink",
+            havingValue = "console",
+            matchIfMissing = true
+    )
+    public AuditSink consoleAuditSink() {
+        return new ConsoleAuditSink();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(
+            name = "app.audit.sink",
+            havingValue = "file"
+    )
+    public AuditSink fileAuditSink(
+            @Value("${app.audit.file.path:logs/audit.log}") String path,
+            @Value("${app.audit.file.max-bytes:10485760}") long maxBytes,
+            @Value("${app.audit.file.max-files:5}") int maxFiles) {
+        return new RollingFileAuditSink(Path.of(path), maxBytes, maxFiles);
+    }
+}
@@ -0,0 +1,115 @@
+package com.sm.approaches.beanpostprocessor;
+
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Modifier;
+
+/**
+ * PROXY CREATION advisor
+ *
+ * Wraps beans annotated with @Auditable in an audit proxy
+ * Logs all method calls with timestamp and arguments
+ *
+ * This is a common pattern for:
+ * - Auditing
+ * - Transaction management
+ * - Security checks
+ * - Performance monitoring
+ *
+ * The proxy itself is generated by CompositeProxyBeanPostProcessor, which
+ * fuses this advice with the other advisors into a single proxy per bean.
+ * Audit runs outside log and perf, so it sees their cost too. Only
+ * SecureFieldAccessAdvisor runs further out, so audit never records the
+ * plaintext of a @SecureField.
+ *
+ * Audit records are not printed on the calling thread - they are handed
+ * to AuditEventDispatcher, which writes them asynchronously in batches.
+ * Set app.audit.enabled=false to skip auditing entirely.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class AuditableAdvisor implements ProxyAdvisor {
+
+    private final AuditEventDispatcher dispatcher;
+    private final AnnotationIndex annotationIndex;
+    private final boolean enabled;
+
+    public AuditableAdvisor(AuditEventDispatcher dispatcher,
+                            AnnotationIndex annotationIndex,
+                            @Value("${app.audit.enabled:true}") boolean enabled) {
+        this.dispatcher = dispatcher;
+        this.annotationIndex = annotationIndex;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public BeanAdvice adviceFor(Object bean, String beanName) {
+
+        Class<?> beanClass = ClassUtils.getUserClass(bean);
+
+        // Check if bean class has @Auditable annotation
+        if (enabled && annotationIndex.mayHave(beanClass, Auditable.class) &&
+                beanClass.isAnnotationPresent(Auditable.class)) {
+
+            Auditable annotation = beanClass.getAnnotation(Auditable.class);
+            String description = annotation.value();
+
+            System.out.println("   [AUDIT] Creating audit proxy for: " + beanName +
+                    " (" + description + ")");
+
+            // Every public method of the bean is audited
+            MethodAdvice auditAdvice = this::audit;
+            return method -> Modifier.isPublic(method.getModifiers())
+                    ? auditAdvice : null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Records an audit event for one method call
+     *
+     * Runs on the caller: a clock read before and after the call, then one
+     * AuditEvent, which renders the arguments and result with toString()
+     * so they are audited as they were. Output (and the timestamp
+     * formatting) is done later by the dispatcher's drain thread. When the
+     * dispatcher would drop the event anyway, nothing is rendered.
+     */
+    private Object audit(AdvisedInvocation invocation) throws Throwable {
+
+        long timestamp = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+
+        // Execute actual method (and any inner advice)
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable failure) {
+            if (dispatcher.admit()) {
+                dispatcher.publish(new AuditEvent(timestamp, invocation.getBeanName(),
+                        invocation.getMethod().getName(), invocation.getArguments(),
+                        null, failure, System.nanoTime() - startTime));
+            }
+            throw failure;
+        }
+
+        if (dispatcher.admit()) {
+            dispatcher.publish(new AuditEvent(timestamp, invocation.getBeanName(),
+                    invocation.getMethod().getName(), invocation.getArguments(),
+                    result, null, System.nanoTime() - startTime));
+        }
+
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        return 100; // Outermost but for SecureFieldAccessAdvisor
+    }
+}
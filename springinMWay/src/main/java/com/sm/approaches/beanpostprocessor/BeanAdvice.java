@@ -0,0 +1,17 @@
+package com.sm.approaches.beanpostprocessor;
+
+import java.lang.reflect.Method;
+
+/**
+ * Advice a ProxyAdvisor contributes to one particular bean
+ *
+ * Asked once per method while the proxy is built - never per call.
+ */
+@FunctionalInterface
+public interface BeanAdvice {
+
+    /**
+     * @return the advice for this method, or null to leave the method alone
+     */
+    MethodAdvice forMethod(Method method);
+}
@@ -0,0 +1,256 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.objenesis.ObjenesisException;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * COMPOSITE PROXY BeanPostProcessor
+ *
+ * Instead of every processor wrapping the bean in its own proxy
+ * (proxy -> proxy -> proxy -> bean), all ProxyAdvisors contribute advice
+ * and ONE CGLIB proxy is generated per bean:
+ *
+ *   caller -> proxy -> [secure -> audit -> log -> perf] -> bean
+ *
+ * The plan is computed once, when the proxy is created:
+ * - Methods without advice are bound to a Dispatcher (direct call on the bean)
+ * - Each advised method gets its own interceptor holding a pre-built,
+ *   Ordered advice chain - no lookups happen at call time
+ *
+ * PROXY CLASS CACHE:
+ * Generating a class is the expensive part (bytecode + metaspace).
+ * Proxy classes are cached per (bean class, advice plan) and shared by
+ * every bean - in every application context of this class loader - with
+ * the same plan. A new bean only costs an instance created without
+ * running its constructor (Objenesis) plus its own callbacks.
+ */
+@Component
+public class CompositeProxyBeanPostProcessor implements BeanPostProcessor {
+
+    private static final int DIRECT = 0;
+
+    // Soft references: an entry - and through its proxy class and Method keys
+    // the bean's class loader - stays reachable until the GC clears it under
+    // memory pressure. A discarded class loader is unloaded late, not never.
+    private static final Map<ProxyClassKey, Class<?>> PROXY_CLASS_CACHE =
+            new ConcurrentReferenceHashMap<>();
+
+    private static final SpringObjenesis OBJENESIS = new SpringObjenesis();
+
+    private final List<ProxyAdvisor> advisors;
+
+    public CompositeProxyBeanPostProcessor(List<ProxyAdvisor> advisors) {
+        List<ProxyAdvisor> sorted = new ArrayList<>(advisors);
+        AnnotationAwareOrderComparator.sort(sorted);
+        this.advisors = sorted;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName)
+            throws BeansException {
+
+        if (Proxy.isProxyClass(bean.getClass())) {
+            return bean;
+        }
+
+        // Ask every advisor once for this bean
+        List<BeanAdvice> beanAdvice = new ArrayList<>();
+        for (ProxyAdvisor advisor : advisors) {
+            BeanAdvice advice = advisor.adviceFor(bean, beanName);
+            if (advice != null) {
+                beanAdvice.add(advice);
+            }
+        }
+
+        if (beanAdvice.isEmpty()) {
+            return bean;
+        }
+
+        if (Modifier.isFinal(bean.getClass().getModifiers())) {
+            System.out.println("   [PROXY] Cannot proxy final class of: " + beanName);
+            return bean;
+        }
+
+        return createCompositeProxy(bean, beanName, beanAdvice);
+    }
+
+    private Object createCompositeProxy(Object target, String beanName,
+                                        List<BeanAdvice> beanAdvice) {
+
+        Map<Method, Integer> callbackIndexes = new HashMap<>();
+        List<Callback> callbacks = new ArrayList<>();
+        callbacks.add((Dispatcher) () -> target);
+
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(
+                target.getClass(), ReflectionUtils.USER_DECLARED_METHODS)) {
+
+            int modifiers = method.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) ||
+                    Modifier.isPrivate(modifiers)) {
+                continue; // CGLIB cannot override these
+            }
+
+            List<MethodAdvice> chain = new ArrayList<>();
+            for (BeanAdvice advice : beanAdvice) {
+                MethodAdvice methodAdvice = advice.forMethod(method);
+                if (methodAdvice != null) {
+                    chain.add(methodAdvice);
+                }
+            }
+
+            if (!chain.isEmpty()) {
+                callbackIndexes.put(method, callbacks.size());
+                callbacks.add(new AdvisedMethodInterceptor(target, beanName,
+                        chain.toArray(new MethodAdvice[0])));
+            }
+        }
+
+        System.out.println("   [PROXY] Creating composite proxy for: " + beanName +
+                " (" + callbackIndexes.size() + " advised methods)");
+
+        Class<?> proxyClass = PROXY_CLASS_CACHE.computeIfAbsent(
+                new ProxyClassKey(target.getClass(), callbackIndexes),
+                key -> generateProxyClass(key, callbacks.size()));
+
+        Factory proxy = (Factory) instantiate(proxyClass);
+        proxy.setCallbacks(callbacks.toArray(new Callback[0]));
+        return proxy;
+    }
+
+    private static Class<?> generateProxyClass(ProxyClassKey key, int callbackCount) {
+        Class<?>[] callbackTypes = new Class<?>[callbackCount];
+        callbackTypes[DIRECT] = Dispatcher.class;
+        for (int i = 1; i < callbackCount; i++) {
+            callbackTypes[i] = MethodInterceptor.class;
+        }
+
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(key.targetClass);
+        enhancer.setCallbackFilter(new PlanCallbackFilter(key.callbackIndexes));
+        enhancer.setCallbackTypes(callbackTypes);
+        return enhancer.createClass();
+    }
+
+    /**
+     * Creates the proxy instance WITHOUT calling the bean's constructor again
+     * (falls back to the no-arg constructor where Objenesis is unavailable)
+     */
+    private static Object instantiate(Class<?> proxyClass) {
+        if (OBJENESIS.isWorthTrying()) {
+            try {
+                return OBJENESIS.newInstance(proxyClass, true);
+            } catch (ObjenesisException e) {
+                // fall through to the constructor
+            }
+        }
+        try {
+            return ReflectionUtils.accessibleConstructor(proxyClass).newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate proxy class " +
+                    proxyClass.getName(), e);
+        }
+    }
+
+    /**
+     * Cache key: same bean class + same advised methods => same proxy class
+     */
+    private static class ProxyClassKey {
+
+        private final Class<?> targetClass;
+        private final Map<Method, Integer> callbackIndexes;
+
+        ProxyClassKey(Class<?> targetClass, Map<Method, Integer> callbackIndexes) {
+            this.targetClass = targetClass;
+            this.callbackIndexes = callbackIndexes;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ProxyClassKey)) {
+                return false;
+            }
+            ProxyClassKey that = (ProxyClassKey) other;
+            return targetClass == that.targetClass &&
+                    callbackIndexes.equals(that.callbackIndexes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(targetClass, callbackIndexes);
+        }
+    }
+
+    /**
+     * Routes each method to its callback slot (DIRECT when not advised)
+     * Equal plans produce equal filters, so CGLIB can reuse generated classes
+     */
+    private static class PlanCallbackFilter implements CallbackFilter {
+
+        private final Map<Method, Integer> callbackIndexes;
+
+        PlanCallbackFilter(Map<Method, Integer> callbackIndexes) {
+            this.callbackIndexes = callbackIndexes;
+        }
+
+        @Override
+        public int accept(Method method) {
+            return callbackIndexes.getOrDefault(method, DIRECT);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof PlanCallbackFilter &&
+                    callbackIndexes.equals(((PlanCallbackFilter) other).callbackIndexes);
+        }
+
+        @Override
+        public int hashCode() {
+            return callbackIndexes.hashCode();
+        }
+    }
+
+    /**
+     * Runs the fused advice chain of one method
+     */
+    private static class AdvisedMethodInterceptor implements MethodInterceptor {
+
+        private final Object target;
+        private final String beanName;
+        private final MethodAdvice[] chain;
+
+        AdvisedMethodInterceptor(Object target, String beanName, MethodAdvice[] chain) {
+            this.target = target;
+            this.beanName = beanName;
+            this.chain = chain;
+        }
+
+        @Override
+        public Object intercept(Object obj, Method method, Object[] args,
+                                MethodProxy proxy) throws Throwable {
+            return new AdvisedInvocation(target, beanName, method, args, proxy, chain)
+                    .proceed();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sm.approaches.beanpostprocessor;
+
+import java.util.List;
+
+/**
+ * Default AuditSink - prints events to stdout
+ *
+ * A whole batch is rendered into one buffer and printed with a single call,
+ * so the stdout lock is taken once per batch instead of several times per event.
+ */
+public class ConsoleAuditSink implements AuditSink {
+
+    private final StringBuilder buffer = new StringBuilder(1024);
+
+    @Override
+    public void write(List<AuditEvent> batch) {
+        buffer.setLength(0);
+        for (AuditEvent event : batch) {
+            event.appendPretty(buffer);
+        }
+        System.out.print(buffer);
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+}
@@ -0,0 +1,220 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * FIELD PROTECTION engine (AES-256-GCM)
+ *
+ * Authenticated encryption for @SecureField values and any other runtime data:
+ * tampering with a ciphertext - or moving it to another field - makes
+ * decryption fail instead of returning garbage.
+ *
+ * Cost is paid where it is cheapest:
+ * - The AES key is derived ONCE at startup (PBKDF2-HMAC-SHA256) from
+ *   app.secure.encryption-key; nothing is derived per call
+ * - Every thread keeps its own Cipher and SecureRandom, so calls never
+ *   look up providers again and never contend with each other
+ * - Batch APIs reuse the thread's Cipher for a whole list
+ *
+ * Protected strings look like: {aes-gcm}Base64(iv | ciphertext | tag)
+ * The optional context (e.g. the field name) is authenticated but not stored.
+ *
+ * The key is only as secret as app.secure.encryption-key and app.secure.salt.
+ * The values in application.properties are committed demo values; any real
+ * deployment must override both (environment, vault) - with the committed
+ * ones, every protected value can be decrypted by anyone with the source.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class FieldProtection {
+
+    static final String PREFIX = "{aes-gcm}";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int KEY_BITS = 256;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final SecretKey key;
+
+    private final ThreadLocal<CipherHolder> ciphers =
+            ThreadLocal.withInitial(CipherHolder::new);
+
+    public FieldProtection(@Value("${app.secure.encryption-key}") String password,
+                           @Value("${app.secure.salt:spring-in-m-way}") String salt,
+                           @Value("${app.secure.kdf-iterations:210000}") int iterations) {
+        this.key = deriveKey(password, salt, iterations);
+    }
+
+    private static SecretKey deriveKey(String password, String salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(),
+                salt.getBytes(StandardCharsets.UTF_8), iterations, KEY_BITS);
+        try {
+            byte[] encoded = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+                    .generateSecret(spec).getEncoded();
+            return new SecretKeySpec(encoded, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive field protection key", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    // ---- Strings ----
+
+    public String encrypt(String plainText) {
+        return encrypt(plainText, null);
+    }
+
+    public String encrypt(String plainText, String context) {
+        if (plainText == null) {
+            return null;
+        }
+        return seal(ciphers.get(), plainText, context);
+    }
+
+    public String decrypt(String protectedText) {
+        return decrypt(protectedText, null);
+    }
+
+    public String decrypt(String protectedText, String context) {
+        if (protectedText == null) {
+            return null;
+        }
+        return open(ciphers.get(), protectedText, context);
+    }
+
+    public boolean isProtected(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    // ---- Batches ----
+
+    public List<String> encryptAll(List<String> plainTexts) {
+        CipherHolder holder = ciphers.get();
+        List<String> result = new ArrayList<>(plainTexts.size());
+        for (String plainText : plainTexts) {
+            result.add(plainText == null ? null : seal(holder, plainText, null));
+        }
+        return result;
+    }
+
+    public List<String> decryptAll(List<String> protectedTexts) {
+        CipherHolder holder = ciphers.get();
+        List<String> result = new ArrayList<>(protectedTexts.size());
+        for (String protectedText : protectedTexts) {
+            result.add(protectedText == null ? null : open(holder, protectedText, null));
+        }
+        return result;
+    }
+
+    // ---- Raw bytes ----
+
+    /**
+     * @return iv | ciphertext | tag
+     */
+    public byte[] encrypt(byte[] plain, byte[] associatedData) {
+        return seal(ciphers.get(), plain, associatedData);
+    }
+
+    public byte[] decrypt(byte[] sealed, byte[] associatedData) {
+        return open(ciphers.get(), sealed, associatedData);
+    }
+
+    private String seal(CipherHolder holder, String plainText, String context) {
+        byte[] sealed = seal(holder, plainText.getBytes(StandardCharsets.UTF_8),
+                associatedData(context));
+        return PREFIX + ENCODER.encodeToString(sealed);
+    }
+
+    private String open(CipherHolder holder, String protectedText, String context) {
+        if (!isProtected(protectedText)) {
+            throw new IllegalArgumentException("Value is not protected by " + PREFIX);
+        }
+        byte[] sealed = DECODER.decode(protectedText.substring(PREFIX.length()));
+        return new String(open(holder, sealed, associatedData(context)),
+                StandardCharsets.UTF_8);
+    }
+
+    private byte[] seal(CipherHolder holder, byte[] plain, byte[] associatedData) {
+        // A fresh random IV per message - GCM must never reuse one with the same key
+        byte[] iv = new byte[IV_BYTES];
+        holder.random.nextBytes(iv);
+        try {
+            Cipher cipher = holder.cipher;
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            if (associatedData != null) {
+                cipher.updateAAD(associatedData);
+            }
+            byte[] sealed = new byte[IV_BYTES + cipher.getOutputSize(plain.length)];
+            System.arraycopy(iv, 0, sealed, 0, IV_BYTES);
+            int written = cipher.doFinal(plain, 0, plain.length, sealed, IV_BYTES);
+            return written == sealed.length - IV_BYTES
+                    ? sealed : Arrays.copyOf(sealed, IV_BYTES + written);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Encryption failed", e);
+        }
+    }
+
+    private byte[] open(CipherHolder holder, byte[] sealed, byte[] associatedData) {
+        if (sealed.length < IV_BYTES + TAG_BITS / 8) {
+            throw new IllegalArgumentException("Protected value is too short");
+        }
+        try {
+            Cipher cipher = holder.cipher;
+            cipher.init(Cipher.DECRYPT_MODE, key,
+                    new GCMParameterSpec(TAG_BITS, sealed, 0, IV_BYTES));
+            if (associatedData != null) {
+                cipher.updateAAD(associatedData);
+            }
+            return cipher.doFinal(sealed, IV_BYTES, sealed.length - IV_BYTES);
+        } catch (AEADBadTagException e) {
+            throw new IllegalArgumentException("Protected value was tampered with " +
+                    "or belongs to another context", e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Decryption failed", e);
+        }
+    }
+
+    private static byte[] associatedData(String context) {
+        return context == null ? null : context.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Per-thread crypto state; Cipher objects are not thread-safe
+     */
+    private static final class CipherHolder {
+
+        private final Cipher cipher;
+        private final SecureRandom random = new SecureRandom();
+
+        CipherHolder() {
+            try {
+                this.cipher = Cipher.getInstance(TRANSFORMATION);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(TRANSFORMATION + " is not available", e);
+            }
+        }
+    }
+}
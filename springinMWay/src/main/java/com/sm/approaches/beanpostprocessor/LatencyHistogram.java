@@ -0,0 +1,139 @@
+package com.sm.approaches.beanpostprocessor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * High-dynamic-range latency histogram with striped, allocation-free recording
+ *
+ * BUCKETS (log-linear, same idea as HdrHistogram):
+ * - Every power-of-two range [2^k, 2^(k+1)) is split into 64 equal sub-buckets
+ * - Values below 128ns get one bucket per nanosecond
+ * - Relative error is therefore below 1/64 (~1.6%) across the whole range,
+ *   from nanoseconds up to ~73 minutes (larger values are clamped)
+ *
+ * STRIPES:
+ * - Each recording thread is mapped to one of a few stripes by thread id,
+ *   so concurrent callers rarely increment the same cache line
+ * - Readers merge all stripes into one snapshot
+ *
+ * RESET / INTERVALS:
+ * - Counts only ever grow, so reset and interval snapshots are implemented
+ *   as baselines that are subtracted on read. Recording never has to
+ *   coordinate with readers and no sample is lost at an interval boundary.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 42;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    // Two extra slots per stripe after the buckets
+    private static final int COUNT_SLOT = BUCKET_COUNT;
+    private static final int SUM_SLOT = BUCKET_COUNT + 1;
+
+    private static final int STRIPE_COUNT =
+            Integer.highestOneBit(Math.min(8, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    private final String name;
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPE_COUNT];
+
+    // Guarded by this - only touched by readers
+    private long[] resetBaseline = new long[BUCKET_COUNT + 2];
+    private long[] intervalBaseline = new long[BUCKET_COUNT + 2];
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT + 2);
+        }
+    }
+
+    /**
+     * Records one latency sample - no locks, no allocation
+     */
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, MAX_VALUE);
+        AtomicLongArray stripe =
+                stripes[(int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)];
+        stripe.incrementAndGet(bucketIndex(value));
+        stripe.incrementAndGet(COUNT_SLOT);
+        stripe.addAndGet(SUM_SLOT, value);
+    }
+
+    /**
+     * Everything recorded since creation or the last reset()
+     */
+    public synchronized LatencySnapshot snapshot() {
+        return LatencySnapshot.of(name, subtract(merge(), resetBaseline));
+    }
+
+    /**
+     * Everything recorded since the previous call of this method (or reset())
+     */
+    public synchronized LatencySnapshot intervalSnapshot() {
+        long[] current = merge();
+        LatencySnapshot snapshot = LatencySnapshot.of(name, subtract(current, intervalBaseline));
+        intervalBaseline = current;
+        return snapshot;
+    }
+
+    public synchronized void reset() {
+        long[] current = merge();
+        resetBaseline = current;
+        intervalBaseline = current.clone();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private long[] merge() {
+        long[] merged = new long[BUCKET_COUNT + 2];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += stripe.get(i);
+            }
+        }
+        return merged;
+    }
+
+    private static long[] subtract(long[] current, long[] baseline) {
+        long[] delta = new long[current.length];
+        for (int i = 0; i < current.length; i++) {
+            delta[i] = current[i] - baseline[i];
+        }
+        return delta;
+    }
+
+    // ========================================================================
+    // BUCKET MATH
+    // ========================================================================
+
+    static int bucketIndex(long value) {
+        int shift = Math.max(0, (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Representative value (bucket midpoint) for a bucket index
+     */
+    static long bucketValue(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowerBound = (long) ((index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT) << shift;
+        return lowerBound + ((1L << shift) >>> 1);
+    }
+
+    static int countSlot() {
+        return COUNT_SLOT;
+    }
+
+    static int sumSlot() {
+        return SUM_SLOT;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Optional HTTP view of LatencyMetricsRegistry
+ * Enabled with app.performance.endpoint-enabled=true
+ *
+ * curl http://localhost:8089/metrics/latency
+ * curl http://localhost:8089/metrics/latency?interval=true
+ * curl http://localhost:8089/metrics/latency/userServiceBP.getUserById
+ * curl -X POST http://localhost:8089/metrics/latency/reset
+ */
+@RestController
+@RequestMapping("/metrics/latency")
+@ConditionalOnProperty(
+        name = "app.performance.endpoint-enabled",
+        havingValue = "true"
+)
+public class LatencyMetricsController {
+
+    private final LatencyMetricsRegistry registry;
+
+    public LatencyMetricsController(LatencyMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping
+    public List<LatencySnapshot> getAll(
+            @RequestParam(defaultValue = "false") boolean interval) {
+        return interval ? registry.intervalSnapshotAll() : registry.snapshotAll();
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<LatencySnapshot> get(@PathVariable String name) {
+        LatencySnapshot snapshot = registry.snapshot(name);
+        return snapshot == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(snapshot);
+    }
+
+    @PostMapping("/reset")
+    public void reset() {
+        registry.resetAll();
+    }
+}
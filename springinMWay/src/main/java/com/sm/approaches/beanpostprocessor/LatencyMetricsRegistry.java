@@ -0,0 +1,64 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of latency histograms for @PerformanceMonitored methods
+ *
+ * Histograms are created once, when the performance proxy is built,
+ * and are named "beanName.methodName" (overloads share one histogram).
+ * Inject this bean to query percentiles, take interval snapshots or reset.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class LatencyMetricsRegistry {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Cumulative snapshot (since start or last reset), null if unknown
+     */
+    public LatencySnapshot snapshot(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram == null ? null : histogram.snapshot();
+    }
+
+    public List<LatencySnapshot> snapshotAll() {
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        for (LatencyHistogram histogram : sorted()) {
+            snapshots.add(histogram.snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Per-histogram snapshot of what was recorded since the previous interval
+     */
+    public List<LatencySnapshot> intervalSnapshotAll() {
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        for (LatencyHistogram histogram : sorted()) {
+            snapshots.add(histogram.intervalSnapshot());
+        }
+        return snapshots;
+    }
+
+    public void resetAll() {
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    private Iterable<LatencyHistogram> sorted() {
+        return new TreeMap<>(histograms).values();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sm.approaches.beanpostprocessor;
+
+/**
+ * Immutable, merged view of a LatencyHistogram
+ * All latencies are reported in microseconds
+ */
+public class LatencySnapshot {
+
+    private final String name;
+    private final long count;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p90Micros;
+    private final double p99Micros;
+    private final double p999Micros;
+    private final double maxMicros;
+
+    private LatencySnapshot(String name, long count, double meanMicros,
+                            double p50Micros, double p90Micros, double p99Micros,
+                            double p999Micros, double maxMicros) {
+        this.name = name;
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    static LatencySnapshot of(String name, long[] counts) {
+        // Not the count slot: record() bumps it after the bucket, so a merge
+        // racing with recording can see more count than buckets - and the
+        // percentile walk would then never reach its rank
+        long count = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            count += counts[i];
+        }
+        if (count == 0) {
+            return new LatencySnapshot(name, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        double mean = (double) counts[LatencyHistogram.sumSlot()] / count;
+        long max = 0;
+        for (int i = LatencyHistogram.BUCKET_COUNT - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                max = LatencyHistogram.bucketValue(i);
+                break;
+            }
+        }
+
+        return new LatencySnapshot(name, count,
+                toMicros(mean),
+                toMicros(percentile(counts, count, 0.50)),
+                toMicros(percentile(counts, count, 0.90)),
+                toMicros(percentile(counts, count, 0.99)),
+                toMicros(percentile(counts, count, 0.999)),
+                toMicros(max));
+    }
+
+    private static long percentile(long[] counts, long total, double quantile) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return LatencyHistogram.bucketValue(i);
+            }
+        }
+        return 0;
+    }
+
+    private static double toMicros(double nanos) {
+        return nanos / 1_000.0;
+    }
+
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public double getMeanMicros() { return meanMicros; }
+    public double getP50Micros() { return p50Micros; }
+    public double getP90Micros() { return p90Micros; }
+    public double getP99Micros() { return p99Micros; }
+    public double getP999Micros() { return p999Micros; }
+    public double getMaxMicros() { return maxMicros; }
+
+    @Override
+    public String toString() {
+        return String.format("%s count=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                name, count, meanMicros, p50Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
@@ -4,6 +4,9 @@ import java.lang.annotation.*;
 
 /**
  * Marks beans whose method executions should be logged
+ *
+ * On hot paths, limit the volume with sampleRate, maxPerSecond and
+ * slowerThanMicros. Calls that are not logged skip all formatting.
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
@@ -11,5 +14,13 @@ import java.lang.annotation.*;
 public @interface LogExecution {
     boolean logArgs() default true;
     boolean logResult() default true;
-}
 
+    // Fraction of calls considered for logging (1.0 = every call)
+    double sampleRate() default 1.0;
+
+    // Max log entries per second, per method (0 = unlimited)
+    int maxPerSecond() default 0;
+
+    // Only log calls slower than this (0 = log regardless of duration)
+    long slowerThanMicros() default 0;
+}
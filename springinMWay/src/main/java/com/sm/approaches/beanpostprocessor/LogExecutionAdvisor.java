@@ -0,0 +1,158 @@
+package com.sm.approaches.beanpostprocessor;
+
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * CONDITIONAL LOGGING advisor
+ *
+ * Logs method executions based on annotation configuration
+ * Demonstrates reading annotation attributes
+ *
+ * For hot methods the annotation can sample (sampleRate), rate-limit
+ * (maxPerSecond) or only report slow calls (slowerThanMicros).
+ * Arguments are only formatted for calls that are actually logged.
+ *
+ * Contributes its advice to the single proxy generated by
+ * CompositeProxyBeanPostProcessor (runs inside audit, outside perf).
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class LogExecutionAdvisor implements ProxyAdvisor {
+
+    private final AnnotationIndex annotationIndex;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LogExecutionAdvisor(AnnotationIndex annotationIndex) {
+        this(annotationIndex, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock times calls and refills rate limits - System::nanoTime
+     *                  outside tests
+     */
+    LogExecutionAdvisor(AnnotationIndex annotationIndex, LongSupplier nanoClock) {
+        this.annotationIndex = annotationIndex;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public BeanAdvice adviceFor(Object bean, String beanName) {
+
+        Class<?> beanClass = ClassUtils.getUserClass(bean);
+
+        if (annotationIndex.mayHave(beanClass, LogExecution.class) &&
+                beanClass.isAnnotationPresent(LogExecution.class)) {
+
+            LogExecution annotation = beanClass.getAnnotation(LogExecution.class);
+
+            System.out.println("   [LOG] Creating logging proxy for: " + beanName);
+            System.out.println("   [LOG] Log args: " + annotation.logArgs());
+            System.out.println("   [LOG] Log result: " + annotation.logResult());
+
+            if (annotation.sampleRate() < 1.0 || annotation.maxPerSecond() > 0 ||
+                    annotation.slowerThanMicros() > 0) {
+                System.out.println("   [LOG] Sample rate: " + annotation.sampleRate() +
+                        ", max/s: " + annotation.maxPerSecond() +
+                        ", slower than: " + annotation.slowerThanMicros() + "us");
+            }
+
+            // Each method gets its own sampler, so rate limits are per method
+            return method -> Modifier.isPublic(method.getModifiers())
+                    ? createLoggingAdvice(annotation) : null;
+        }
+
+        return null;
+    }
+
+    private MethodAdvice createLoggingAdvice(LogExecution config) {
+
+        LogExecutionSampler sampler =
+                new LogExecutionSampler(config.sampleRate(), config.maxPerSecond(), nanoClock);
+
+        if (config.slowerThanMicros() > 0) {
+            return createSlowCallAdvice(config, sampler,
+                    TimeUnit.MICROSECONDS.toNanos(config.slowerThanMicros()));
+        }
+
+        return invocation -> {
+
+            // Not sampled: no formatting, no printing
+            if (!sampler.sample() || !sampler.tryAcquire()) {
+                return invocation.proceed();
+            }
+
+            Object[] args = invocation.getArguments();
+
+            System.out.println("\n   [LOG] Executing: " + invocation.getMethod().getName());
+
+            if (config.logArgs() && args != null && args.length > 0) {
+                System.out.println("   [LOG] Arguments: " +
+                        Arrays.toString(args));
+            }
+
+            Object result = invocation.proceed();
+
+            if (config.logResult() && result != null) {
+                System.out.println("   [LOG] Result: " + result);
+            }
+
+            return result;
+        };
+    }
+
+    /**
+     * Logs only calls that took longer than the threshold
+     * Everything is printed after the call, once its duration is known
+     */
+    private MethodAdvice createSlowCallAdvice(LogExecution config,
+                                              LogExecutionSampler sampler,
+                                              long thresholdNanos) {
+
+        return invocation -> {
+
+            if (!sampler.sample()) {
+                return invocation.proceed();
+            }
+
+            long startTime = nanoClock.getAsLong();
+            Object result = invocation.proceed();
+            long duration = nanoClock.getAsLong() - startTime;
+
+            if (duration >= thresholdNanos && sampler.tryAcquire()) {
+                Object[] args = invocation.getArguments();
+
+                System.out.println("\n   [LOG] Slow execution: " +
+                        invocation.getMethod().getName() + " took " +
+                        TimeUnit.NANOSECONDS.toMicros(duration) + "us");
+
+                if (config.logArgs() && args != null && args.length > 0) {
+                    System.out.println("   [LOG] Arguments: " +
+                            Arrays.toString(args));
+                }
+
+                if (config.logResult() && result != null) {
+                    System.out.println("   [LOG] Result: " + result);
+                }
+            }
+
+            return result;
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return 200;
+    }
+}
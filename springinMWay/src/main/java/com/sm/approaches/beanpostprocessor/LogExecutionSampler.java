@@ -0,0 +1,77 @@
+package com.sm.approaches.beanpostprocessor;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which calls of ONE method get logged by @LogExecution
+ *
+ * - Sampling: a call is considered with probability sampleRate
+ * - Rate limit: token bucket allowing maxPerSecond entries per second
+ *   (bursts up to one second's worth), implemented lock-free as a
+ *   "theoretical arrival time" updated with a single CAS
+ *
+ * Both checks are cheap and allocation-free, so unlogged calls cost
+ * little more than the bare method call.
+ */
+class LogExecutionSampler {
+
+    private final double sampleRate;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+
+    // Earliest time the bucket is completely refilled
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    LogExecutionSampler(double sampleRate, int maxPerSecond) {
+        this(sampleRate, maxPerSecond, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock time source for the rate limit - System::nanoTime
+     *                  outside tests
+     */
+    LogExecutionSampler(double sampleRate, int maxPerSecond, LongSupplier nanoClock) {
+        this.sampleRate = sampleRate;
+        this.nanoClock = nanoClock;
+        if (maxPerSecond > 0) {
+            this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / maxPerSecond;
+            this.burstToleranceNanos = TimeUnit.SECONDS.toNanos(1) - emissionIntervalNanos;
+        } else {
+            this.emissionIntervalNanos = 0;
+            this.burstToleranceNanos = 0;
+        }
+    }
+
+    /**
+     * Probabilistic part - decided before the call
+     */
+    boolean sample() {
+        return sampleRate >= 1.0 ||
+                (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Rate-limit part - takes one token if available
+     */
+    boolean tryAcquire() {
+        if (emissionIntervalNanos == 0) {
+            return true;
+        }
+
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = arrival == Long.MIN_VALUE ? now : Math.max(arrival, now);
+            if (base - now > burstToleranceNanos) {
+                return false; // Bucket empty
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.sm.approaches.beanpostprocessor;
+
+/**
+ * One piece of behaviour wrapped around a proxied method
+ *
+ * Implementations call invocation.proceed() to continue with the next
+ * advice in the chain (and finally the target method).
+ */
+@FunctionalInterface
+public interface MethodAdvice {
+    Object invoke(AdvisedInvocation invocation) throws Throwable;
+}
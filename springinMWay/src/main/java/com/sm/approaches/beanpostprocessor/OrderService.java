@@ -4,7 +4,7 @@ package com.sm.approaches.beanpostprocessor;
 import org.springframework.stereotype.Service;
 
 @Service
-@LogExecution(logArgs = true, logResult = false)
+@LogExecution(logArgs = true, logResult = false, maxPerSecond = 20)
 public class OrderService {
 
     public OrderService() {
@@ -0,0 +1,110 @@
+package com.sm.approaches.beanpostprocessor;
+
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * METHOD-LEVEL ANNOTATION advisor
+ *
+ * Monitors performance of methods marked with @PerformanceMonitored
+ * The CGLIB proxy (classes, not just interfaces) is generated by
+ * CompositeProxyBeanPostProcessor; this advisor runs innermost so
+ * it measures the method itself, not the other advice.
+ *
+ * Only annotated methods receive advice - every other method of the
+ * bean is dispatched straight to the target, with no reflection per call.
+ *
+ * Every call is recorded into the method's LatencyHistogram in
+ * LatencyMetricsRegistry (p50/p99/p999 on demand). Printing a line per call
+ * is optional (app.performance.log-calls) because recording is allocation-free
+ * and printing is not.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class PerformanceMonitoringAdvisor implements ProxyAdvisor {
+
+    private final LatencyMetricsRegistry registry;
+    private final AnnotationIndex annotationIndex;
+    private final boolean enabled;
+    private final boolean logCalls;
+
+    public PerformanceMonitoringAdvisor(
+            LatencyMetricsRegistry registry,
+            AnnotationIndex annotationIndex,
+            @Value("${app.performance.monitoring:true}") boolean enabled,
+            @Value("${app.performance.log-calls:false}") boolean logCalls) {
+        this.registry = registry;
+        this.annotationIndex = annotationIndex;
+        this.enabled = enabled;
+        this.logCalls = logCalls;
+    }
+
+    @Override
+    public BeanAdvice adviceFor(Object bean, String beanName) {
+
+        Class<?> beanClass = ClassUtils.getUserClass(bean);
+
+        // The index rules out almost every bean without touching reflection
+        if (!enabled || !annotationIndex.mayHave(beanClass, PerformanceMonitored.class)) {
+            return null;
+        }
+
+        // Check if any method has @PerformanceMonitored
+        Method[] methods = beanClass.getDeclaredMethods();
+        boolean hasMonitoredMethods = false;
+
+        for (Method method : methods) {
+            if (method.isAnnotationPresent(PerformanceMonitored.class)) {
+                hasMonitoredMethods = true;
+                break;
+            }
+        }
+
+        if (hasMonitoredMethods) {
+            System.out.println("   [PERF] Creating performance proxy for: " +
+                    beanName);
+
+            // One histogram per monitored method, resolved now rather than per call
+            return method -> method.isAnnotationPresent(PerformanceMonitored.class)
+                    ? createPerformanceAdvice(
+                            registry.histogram(beanName + "." + method.getName()))
+                    : null;
+        }
+
+        return null;
+    }
+
+    private MethodAdvice createPerformanceAdvice(LatencyHistogram histogram) {
+
+        return invocation -> {
+
+            // Monitor performance
+            long startTime = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                long duration = System.nanoTime() - startTime;
+                histogram.record(duration);
+
+                if (logCalls) {
+                    System.out.println("\n   [PERF] Method: " +
+                            invocation.getMethod().getName());
+                    System.out.println("   [PERF] Duration: " +
+                            String.format("%.2f", duration / 1_000_000.0) + "ms");
+                }
+            }
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return 300; // Innermost
+    }
+}
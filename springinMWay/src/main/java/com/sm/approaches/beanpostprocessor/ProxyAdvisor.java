@@ -0,0 +1,20 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Contributes advice to the single proxy built by CompositeProxyBeanPostProcessor
+ *
+ * Advisors with a LOWER order run FIRST (outermost) around a call,
+ * the same convention BeanPostProcessors use.
+ */
+public interface ProxyAdvisor extends Ordered {
+
+    /**
+     * Called once per bean after initialization
+     *
+     * @return advice for the bean's methods, or null if this advisor
+     *         does not apply to the bean
+     */
+    BeanAdvice adviceFor(Object bean, String beanName);
+}
@@ -0,0 +1,101 @@
+package com.sm.approaches.beanpostprocessor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * AuditSink writing one line per event to a size-capped, rolling log file
+ *
+ * audit.log is the active file; when it would grow beyond maxBytes it is
+ * renamed to audit.log.1 (older files shift to .2, .3 ...) and a new file
+ * is started. At most maxFiles rolled files are kept.
+ */
+public class RollingFileAuditSink implements AuditSink {
+
+    private final Path path;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final StringBuilder buffer = new StringBuilder(8192);
+
+    private FileChannel channel;
+    private long size;
+
+    public RollingFileAuditSink(Path path, long maxBytes, int maxFiles) {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) throws IOException {
+        buffer.setLength(0);
+        for (AuditEvent event : batch) {
+            event.appendLine(buffer);
+        }
+
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+
+        if (channel == null || !channel.isOpen()) {
+            // An interrupted write closes the channel - reopen and carry on
+            open();
+        } else if (size > 0 && size + bytes.length > maxBytes) {
+            roll();
+        }
+
+        ByteBuffer data = ByteBuffer.wrap(bytes);
+        while (data.hasRemaining()) {
+            size += channel.write(data);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+            channel = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    private void roll() throws IOException {
+        close();
+
+        Files.deleteIfExists(rolledPath(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = rolledPath(i);
+            if (Files.exists(source)) {
+                Files.move(source, rolledPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(path, rolledPath(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(path);
+        }
+
+        open();
+    }
+
+    private Path rolledPath(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+}
@@ -4,9 +4,18 @@ import java.lang.annotation.*;
 
 /**
  * Marks fields that should be encrypted/secured
+ *
+ * The field always holds the AES-GCM protected value. With decryptOnAccess
+ * the bean's getter returns the plaintext - decrypted on every read, never
+ * stored - and its setter encrypts the new value before it reaches the field.
  */
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface SecureField {
-}
\ No newline at end of file
+
+    /**
+     * Decrypt lazily in the getter instead of exposing the ciphertext
+     */
+    boolean decryptOnAccess() default false;
+}
@@ -0,0 +1,119 @@
+package com.sm.approaches.beanpostprocessor;
+
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LAZY DECRYPTION advisor
+ *
+ * For fields marked @SecureField(decryptOnAccess = true):
+ * - getApiKey() returns the plaintext, decrypted on each call -
+ *   the bean itself only ever holds the ciphertext
+ * - setApiKey(value) encrypts the value before the field sees it
+ *
+ * Getters and setters are matched to fields once, when the proxy is built.
+ *
+ * Runs OUTERMOST: the plaintext only exists between the caller and this
+ * advice. Audit and log advice run inside it, so they see the setter's
+ * argument already encrypted and the getter's result still encrypted.
+ * A setter always encrypts what it is given - a value that merely looks
+ * like a ciphertext is encrypted too, so callers cannot plant one.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class SecureFieldAccessAdvisor implements ProxyAdvisor {
+
+    private final AnnotationIndex annotationIndex;
+    private final FieldProtection fieldProtection;
+
+    public SecureFieldAccessAdvisor(AnnotationIndex annotationIndex,
+                                    FieldProtection fieldProtection) {
+        this.annotationIndex = annotationIndex;
+        this.fieldProtection = fieldProtection;
+    }
+
+    @Override
+    public BeanAdvice adviceFor(Object bean, String beanName) {
+
+        Class<?> beanClass = ClassUtils.getUserClass(bean);
+
+        if (!annotationIndex.mayHave(beanClass, SecureField.class)) {
+            return null;
+        }
+
+        // Property name -> field name, for every lazily decrypted String field
+        Map<String, String> lazyFields = new HashMap<>();
+        for (Field field : beanClass.getDeclaredFields()) {
+            SecureField annotation = field.getAnnotation(SecureField.class);
+            if (annotation != null && annotation.decryptOnAccess() &&
+                    field.getType() == String.class) {
+                lazyFields.put(StringUtils.capitalize(field.getName()), field.getName());
+            }
+        }
+
+        if (lazyFields.isEmpty()) {
+            return null;
+        }
+
+        System.out.println("   [SECURE] Decrypting on access in " + beanName +
+                ": " + lazyFields.values());
+
+        return method -> {
+            String fieldName = lazyFields.get(propertyName(method));
+            if (fieldName == null || !isAccessor(method)) {
+                return null;
+            }
+            return method.getParameterCount() == 0
+                    ? decryptingGetter(fieldName)
+                    : encryptingSetter(fieldName);
+        };
+    }
+
+    private MethodAdvice decryptingGetter(String fieldName) {
+        return invocation -> {
+            Object value = invocation.proceed();
+            return value instanceof String && fieldProtection.isProtected((String) value)
+                    ? fieldProtection.decrypt((String) value, fieldName)
+                    : value;
+        };
+    }
+
+    private MethodAdvice encryptingSetter(String fieldName) {
+        return invocation -> {
+            Object[] args = invocation.getArguments();
+            if (args[0] instanceof String) {
+                args[0] = fieldProtection.encrypt((String) args[0], fieldName);
+            }
+            return invocation.proceed();
+        };
+    }
+
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        return name.length() > 3 && (name.startsWith("get") || name.startsWith("set"))
+                ? name.substring(3) : null;
+    }
+
+    private static boolean isAccessor(Method method) {
+        if (method.getName().startsWith("get")) {
+            return method.getParameterCount() == 0 && method.getReturnType() == String.class;
+        }
+        return method.getParameterCount() == 1 &&
+                method.getParameterTypes()[0] == String.class;
+    }
+
+    @Override
+    public int getOrder() {
+        return 50; // Outermost, before audit (100) and log (200) see any value
+    }
+}
@@ -1,31 +1,46 @@
 package com.sm.approaches.beanpostprocessor;
 
 
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
 import org.springframework.beans.BeansException;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Field;
-import java.util.Base64;
 
 /**
  * FIELD MODIFICATION BeanPostProcessor
  *
  * Automatically encrypts fields marked with @SecureField
  * Demonstrates modifying bean state during initialization
+ *
+ * Values are sealed with AES-GCM by FieldProtection, bound to the field
+ * name, so a ciphertext copied into another field will not decrypt.
+ * Getters of @SecureField(decryptOnAccess = true) fields are handled by
+ * SecureFieldAccessAdvisor.
  */
 @Component
 public class SecureFieldBeanPostProcessor implements BeanPostProcessor {
 
-    @Value("${app.secure.encryption-key}")
-    private String encryptionKey;
+    private final AnnotationIndex annotationIndex;
+    private final FieldProtection fieldProtection;
+
+    public SecureFieldBeanPostProcessor(AnnotationIndex annotationIndex,
+                                        FieldProtection fieldProtection) {
+        this.annotationIndex = annotationIndex;
+        this.fieldProtection = fieldProtection;
+    }
 
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName)
             throws BeansException {
 
+        // Most beans have no @SecureField at all - skip the field scan for them
+        if (!annotationIndex.mayHave(bean.getClass(), SecureField.class)) {
+            return bean;
+        }
+
         // Scan all fields in the bean
         Field[] fields = bean.getClass().getDeclaredFields();
 
@@ -40,11 +55,13 @@ public class SecureFieldBeanPostProcessor implements BeanPostProcessor {
                     // Get current value
                     Object value = field.get(bean);
 
-                    if (value instanceof String) {
+                    if (value instanceof String &&
+                            !fieldProtection.isProtected((String) value)) {
                         String plainText = (String) value;
 
-                        // Simple encryption (Base64 + key for demo)
-                        String encrypted = encrypt(plainText);
+                        // Field name is authenticated along with the value
+                        String encrypted = fieldProtection.encrypt(plainText,
+                                field.getName());
 
                         // Set encrypted value back
                         field.set(bean, encrypted);
@@ -64,10 +81,4 @@ public class SecureFieldBeanPostProcessor implements BeanPostProcessor {
 
         return bean;
     }
-
-    // Simple encryption for demonstration (NOT production-grade!)
-    private String encrypt(String plainText) {
-        String combined = plainText + ":" + encryptionKey;
-        return Base64.getEncoder().encodeToString(combined.getBytes());
-    }
 }
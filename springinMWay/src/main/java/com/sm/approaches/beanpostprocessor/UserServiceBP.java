@@ -14,7 +14,7 @@ import jakarta.annotation.PreDestroy;
 @LogExecution(logArgs = true, logResult = true)
 public class UserServiceBP {
     private String serviceName = "UserService";
-    @SecureField
+    @SecureField(decryptOnAccess = true)
     private String apiKey = "plain-text-api-key";
     @SecureField
     private String password = "admin123";
@@ -0,0 +1,93 @@
+package com.sm.approaches.beanpostprocessor.index;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Startup view of the build-time annotation index
+ *
+ * Loaded once from every META-INF/sm-annotation.index on the classpath
+ * (written by AnnotationIndexProcessor). Answers, with one hash lookup,
+ * whether a class can carry one of the bean post-processing annotations.
+ *
+ * Classes that are not in the index (other jars, classes compiled without
+ * the processor) - or a missing index altogether - fall back to "maybe",
+ * so callers then do their usual reflective check.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class AnnotationIndex {
+
+    private final Map<String, Set<String>> annotationsByClass;
+
+    public AnnotationIndex() {
+        this(ClassUtils.getDefaultClassLoader());
+    }
+
+    public AnnotationIndex(ClassLoader classLoader) {
+        this.annotationsByClass = load(classLoader);
+        System.out.println("   [INDEX] Annotation index " + (isAvailable()
+                ? "loaded: " + annotationsByClass.size() + " classes"
+                : "not found, using reflection"));
+    }
+
+    /**
+     * @return false only if the index proves that the class declares the
+     *         annotation nowhere (class, methods or fields)
+     */
+    public boolean mayHave(Class<?> type, Class<? extends Annotation> annotation) {
+        Set<String> declared = annotationsByClass.get(ClassUtils.getUserClass(type).getName());
+        return declared == null || declared.contains(annotation.getName());
+    }
+
+    public boolean isAvailable() {
+        return !annotationsByClass.isEmpty();
+    }
+
+    private static Map<String, Set<String>> load(ClassLoader classLoader) {
+        Map<String, Set<String>> index = new HashMap<>();
+        try {
+            Enumeration<URL> resources =
+                    classLoader.getResources(AnnotationIndexProcessor.INDEX_LOCATION);
+            while (resources.hasMoreElements()) {
+                read(resources.nextElement(), index);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read annotation index", e);
+        }
+        return index;
+    }
+
+    private static void read(URL resource, Map<String, Set<String>> index) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('=');
+                if (separator <= 0) {
+                    continue;
+                }
+                String annotations = line.substring(separator + 1);
+                index.put(line.substring(0, separator), annotations.isEmpty()
+                        ? Set.of()
+                        : new HashSet<>(Arrays.asList(annotations.split(","))));
+            }
+        }
+    }
+}
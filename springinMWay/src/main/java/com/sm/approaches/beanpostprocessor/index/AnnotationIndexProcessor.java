@@ -0,0 +1,119 @@
+package com.sm.approaches.beanpostprocessor.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * BUILD-TIME annotation index generator
+ *
+ * Runs inside javac (see the maven-compiler-plugin setup in pom.xml) and writes
+ * META-INF/sm-annotation.index: one line per compiled class, listing which of
+ * the bean post-processing annotations it declares - on the class itself,
+ * on its methods or on its fields:
+ *
+ *   com.sm.approaches.beanpostprocessor.UserServiceBP=...Auditable,...SecureField
+ *   com.sm.approaches.componentscanning.model.User=
+ *
+ * AnnotationIndex reads the file at startup so the advisors and
+ * SecureFieldBeanPostProcessor can skip reflection for every class the
+ * index proves unannotated.
+ *
+ * Must only depend on the JDK: it is compiled on its own, before the rest.
+ */
+@SupportedAnnotationTypes("*")
+public class AnnotationIndexProcessor extends AbstractProcessor {
+
+    static final String INDEX_LOCATION = "META-INF/sm-annotation.index";
+
+    static final Set<String> INDEXED_ANNOTATIONS = Set.of(
+            "com.sm.approaches.beanpostprocessor.Auditable",
+            "com.sm.approaches.beanpostprocessor.LogExecution",
+            "com.sm.approaches.beanpostprocessor.PerformanceMonitored",
+            "com.sm.approaches.beanpostprocessor.SecureField"
+    );
+
+    // Sorted, so the generated file is stable between builds
+    private final TreeMap<String, Set<String>> index = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                indexType(type);
+            }
+        }
+        return false; // Never claim annotations - other processors may need them
+    }
+
+    private void indexType(TypeElement type) {
+        Set<String> found = new TreeSet<>();
+        collect(type, found);
+
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.METHOD ||
+                    member.getKind() == ElementKind.FIELD) {
+                collect(member, found);
+            }
+        }
+
+        index.put(processingEnv.getElementUtils().getBinaryName(type).toString(), found);
+
+        // Nested classes can be beans too
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            indexType(nested);
+        }
+    }
+
+    private static void collect(Element element, Set<String> found) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            String name = ((TypeElement) mirror.getAnnotationType().asElement())
+                    .getQualifiedName().toString();
+            if (INDEXED_ANNOTATIONS.contains(name)) {
+                found.add(name);
+            }
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(
+                    file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (var entry : index.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('=');
+                    writer.write(String.join(",", entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+}
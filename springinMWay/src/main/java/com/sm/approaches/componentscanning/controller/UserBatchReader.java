@@ -0,0 +1,89 @@
+package com.sm.approaches.componentscanning.controller;
+
+import com.sm.approaches.componentscanning.model.User;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams users out of a request body without reading it into memory
+ *
+ * Accepts both shapes with the same token-level parser:
+ *   JSON array: [{"id":1,"name":"a"},{"id":2,"name":"b"}]
+ *   NDJSON:     {"id":1,"name":"a"}\n{"id":2,"name":"b"}
+ *
+ * Users are handed over in chunks of chunkSize, so memory stays flat no
+ * matter how large the upload is.
+ */
+class UserBatchReader {
+
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    UserBatchReader(ObjectMapper objectMapper, int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return number of users read
+     */
+    long read(InputStream body, Consumer<List<User>> chunkConsumer) {
+        long total = 0;
+        List<User> chunk = new ArrayList<>(chunkSize);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                chunk.add(readUser(parser, token));
+                total++;
+                if (chunk.size() == chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+                token = parser.nextToken();
+            }
+            if (array && token == null) {
+                throw new IllegalArgumentException("Unterminated JSON array");
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+        }
+        return total;
+    }
+
+    private static User readUser(JsonParser parser, JsonToken token) {
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Expected a user object but found " + token);
+        }
+        Long id = null;
+        String name = null;
+        String field;
+        while ((field = parser.nextName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    id = value == JsonToken.VALUE_NULL ? null : parser.getLongValue();
+                    break;
+                case "name":
+                    name = value == JsonToken.VALUE_NULL ? null : parser.getString();
+                    break;
+                default:
+                    parser.skipChildren(); // Unknown fields are ignored
+            }
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("User without id");
+        }
+        return new User(id, name);
+    }
+}
@@ -1,17 +1,48 @@
 package com.sm.approaches.componentscanning.controller;
 
 import com.sm.approaches.componentscanning.model.User;
+import com.sm.approaches.componentscanning.repo.UserSearchResult;
+import com.sm.approaches.componentscanning.repo.UserStoreStats;
+import com.sm.approaches.componentscanning.service.UserCacheStats;
 import com.sm.approaches.componentscanning.service.UserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/users")
+@ConditionalOnProperty(
+        name = "app.users.api",
+        havingValue = "servlet",
+        matchIfMissing = true
+)
 public class UserController {
 
+    // Users per saveAll call while streaming a batch upload
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    private static final int MAX_BULK_IDS = 1000;
+    // Users held in memory at a time while exporting
+    private static final int EXPORT_CHUNK_SIZE = 256;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final UserService userService;
+    private final UserBatchReader batchReader;
+    private final UserNdjsonExporter exporter;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.batchReader = new UserBatchReader(objectMapper, BATCH_CHUNK_SIZE);
+        this.exporter = new UserNdjsonExporter(objectMapper, EXPORT_CHUNK_SIZE);
         System.out.println("UserController bean created");
     }
 
@@ -21,6 +52,84 @@ public class UserController {
         return userService.createUser(id, name);
     }
 
+    /**
+     * Bulk import - a JSON array or NDJSON, parsed as it streams in
+     *
+     * curl -X POST -H 'Content-Type: application/x-ndjson' --data-binary @users.ndjson \
+     *      http://localhost:8089/users/batch
+     *
+     * Chunks are saved as they are read: if the body turns out to be malformed
+     * half way, the users before the bad record are already stored.
+     */
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Map<String, Long> createUsers(InputStream body) {
+        try {
+            return Map.of("saved", batchReader.read(body, userService::createUsers));
+        } catch (IllegalArgumentException | JacksonException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bulk fetch: GET /users?ids=1,2,3 - missing ids are left out
+     */
+    @GetMapping(params = "ids")
+    public List<User> getUsers(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BULK_IDS + " ids per request");
+        }
+        return userService.getUsers(ids);
+    }
+
+    /**
+     * Dumps every user as NDJSON, streamed straight from the store
+     *
+     * curl http://localhost:8089/users/export > users.ndjson
+     *
+     * Runs as an async request bounded by spring.mvc.async.request-timeout
+     * (30m in application.properties, not the container's 30s default).
+     * An export still running at the timeout is cut off mid-stream, so
+     * clients should check that the body ends with a complete line.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> exporter.export(userService.scanUsers(), out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Name prefix search with cursor pagination
+     *
+     * curl 'http://localhost:8089/users/search?prefix=an&limit=20'
+     * curl 'http://localhost:8089/users/search?prefix=an&limit=20&after=<next>'
+     */
+    @GetMapping("/search")
+    public UserSearchResult searchUsers(@RequestParam String prefix,
+                                        @RequestParam(defaultValue = "20") int limit,
+                                        @RequestParam(required = false) String after) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        try {
+            return userService.searchUsers(prefix, limit, after);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/stats")
+    public UserStoreStats getStoreStats() {
+        return userService.getStoreStats();
+    }
+
+    @GetMapping("/cache/stats")
+    public UserCacheStats getCacheStats() {
+        return userService.getCacheStats();
+    }
+
     @GetMapping("/{id}")
     public User getUser(@PathVariable Long id) {
         return userService.getUser(id);
@@ -0,0 +1,143 @@
+package com.sm.approaches.componentscanning.controller;
+
+import com.sm.approaches.componentscanning.model.User;
+import com.sm.approaches.componentscanning.service.ReactiveUserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handler functions behind UserRouterConfig - the WebFlux counterpart of
+ * UserController, with the same paths, limits and status codes
+ *
+ * Handlers only assemble Mono/Flux pipelines; they return before any user
+ * is read or written, and the event loop moves on to the next request.
+ */
+@Component
+@ConditionalOnProperty(
+        name = "app.users.api",
+        havingValue = "reactive"
+)
+public class UserHandler {
+
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    private static final int MAX_BULK_IDS = 1000;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private final ReactiveUserService userService;
+
+    public UserHandler(ReactiveUserService userService) {
+        this.userService = userService;
+        System.out.println("UserHandler bean created");
+    }
+
+    public Mono<ServerResponse> createUser(ServerRequest request) {
+        long id = longPathVariable(request, "id");
+        return ServerResponse.ok().body(
+                userService.createUser(id, request.pathVariable("name")), User.class);
+    }
+
+    /**
+     * JSON array or NDJSON; the codec emits users as the body streams in
+     */
+    public Mono<ServerResponse> createUsers(ServerRequest request) {
+        Mono<Long> saved = userService.createUsers(request.bodyToFlux(User.class)
+                .map(UserHandler::requireId), BATCH_CHUNK_SIZE);
+        return saved.flatMap(count -> ServerResponse.ok().bodyValue(Map.of("saved", count)));
+    }
+
+    public Mono<ServerResponse> getUser(ServerRequest request) {
+        long id = longPathVariable(request, "id");
+        // Same as UserController: 200 with an empty body for an unknown id
+        return userService.getUser(id)
+                .flatMap(user -> ServerResponse.ok().bodyValue(user))
+                .switchIfEmpty(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> getUsers(ServerRequest request) {
+        List<Long> ids = parseIds(request.queryParams().get("ids"));
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BULK_IDS + " ids per request");
+        }
+        return ServerResponse.ok().body(userService.getUsers(ids), User.class);
+    }
+
+    /**
+     * NDJSON, pulled from the store only as fast as the client reads it
+     */
+    public Mono<ServerResponse> exportUsers(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService.exportUsers(), User.class);
+    }
+
+    public Mono<ServerResponse> searchUsers(ServerRequest request) {
+        String prefix = request.queryParam("prefix").orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, "prefix is required"));
+        int limit;
+        try {
+            limit = Integer.parseInt(request.queryParam("limit").orElse("20"));
+        } catch (NumberFormatException e) {
+            limit = -1;
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return userService.searchUsers(prefix, limit, request.queryParam("after").orElse(null))
+                .onErrorMap(IllegalArgumentException.class, e ->
+                        new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e))
+                .flatMap(result -> ServerResponse.ok().bodyValue(result));
+    }
+
+    public Mono<ServerResponse> getStoreStats(ServerRequest request) {
+        return userService.getStoreStats().flatMap(stats -> ServerResponse.ok().bodyValue(stats));
+    }
+
+    public Mono<ServerResponse> getCacheStats(ServerRequest request) {
+        return userService.getCacheStats().flatMap(stats -> ServerResponse.ok().bodyValue(stats));
+    }
+
+    private static User requireId(User user) {
+        if (user.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User without id");
+        }
+        return user;
+    }
+
+    private static long longPathVariable(ServerRequest request, String name) {
+        try {
+            return Long.parseLong(request.pathVariable(name));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a number", e);
+        }
+    }
+
+    /**
+     * Accepts ?ids=1,2,3 as well as ?ids=1&ids=2
+     */
+    private static List<Long> parseIds(List<String> values) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String value : values) {
+                for (String id : value.split(",")) {
+                    if (!id.isBlank()) {
+                        ids.add(Long.parseLong(id.trim()));
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must be numbers", e);
+        }
+        return ids;
+    }
+}
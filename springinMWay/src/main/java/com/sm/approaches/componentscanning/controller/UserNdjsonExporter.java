@@ -0,0 +1,58 @@
+package com.sm.approaches.componentscanning.controller;
+
+import com.sm.approaches.componentscanning.model.User;
+import com.sm.approaches.componentscanning.repo.UserCursor;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes every user as one NDJSON line: {"id":1,"name":"ann"}\n
+ *
+ * Memory stays constant whatever the store size:
+ * - users are pulled from a UserCursor one chunk at a time
+ * - the generator encodes into Jackson's recycled buffers and the chunk
+ *   is flushed to the response before the next one is read
+ * - a slow client blocks the flush, which pauses the scan (backpressure)
+ */
+class UserNdjsonExporter {
+
+    private final ObjectWriter writer;
+    private final int chunkSize;
+
+    UserNdjsonExporter(ObjectMapper objectMapper, int chunkSize) {
+        // Lines end in '\n' written by us; the response stream is closed by the container
+        this.writer = objectMapper.writer()
+                .withRootValueSeparator("")
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return number of users written
+     */
+    long export(UserCursor cursor, OutputStream out) {
+        long exported = 0;
+        User[] chunk = new User[chunkSize];
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            int count;
+            while ((count = cursor.next(chunk)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    generator.writeStartObject();
+                    generator.writeNumberProperty("id", chunk[i].getId());
+                    generator.writeStringProperty("name", chunk[i].getName());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                Arrays.fill(chunk, 0, count, null); // Let the chunk's users go
+                exported += count;
+            }
+        }
+        return exported;
+    }
+}
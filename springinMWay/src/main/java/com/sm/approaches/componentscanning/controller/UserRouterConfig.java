@@ -0,0 +1,47 @@
+package com.sm.approaches.componentscanning.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Functional WebFlux routes for /users
+ *
+ * app.users.api=servlet (default) - UserController on Spring MVC
+ * app.users.api=reactive          - these routes on WebFlux (Netty event loop)
+ *
+ * The reactive API also needs the reactive server:
+ *   --spring.main.web-application-type=reactive --app.users.api=reactive
+ *
+ * Routes are matched in order, so the fixed paths come before /{id}.
+ */
+@Configuration
+@ConditionalOnProperty(
+        name = "app.users.api",
+        havingValue = "reactive"
+)
+public class UserRouterConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> userRoutes(UserHandler handler) {
+        return route()
+                .path("/users", users -> users
+                        .GET("/export", handler::exportUsers)
+                        .GET("/search", handler::searchUsers)
+                        .GET("/stats", handler::getStoreStats)
+                        .GET("/cache/stats", handler::getCacheStats)
+                        .GET("", queryParam("ids", ids -> true), handler::getUsers)
+                        .GET("/{id}", handler::getUser)
+                        .POST("/batch", contentType(MediaType.APPLICATION_JSON,
+                                MediaType.APPLICATION_NDJSON), handler::createUsers)
+                        .POST("/{id}/{name}", handler::createUser))
+                .build();
+    }
+}
@@ -0,0 +1,429 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * OFF-HEAP user store on a memory-mapped file
+ *
+ * Users are fixed-size records in a file that is mapped into memory, so they
+ * survive restarts and never become heap objects the GC has to trace:
+ *
+ *   [header 64B][record 0][record 1][record 2] ...
+ *   record = id (8B) | name length (2B) | UTF-8 name (nameBytes, zero padded)
+ *
+ * The file is mapped in segments of RECORDS_PER_SEGMENT records; a new
+ * segment is mapped (and the file extended) when the last one is full.
+ *
+ * id -> record lookups go through an open-addressing index in a direct
+ * (off-heap) ByteBuffer. On startup the file is simply remapped and the
+ * index rebuilt from the id column - names are not read.
+ *
+ * get() returns a flyweight MappedUser that decodes the name from the
+ * mapped record only when getName() is called.
+ */
+public class MappedUserStore implements UserStore, Closeable {
+
+    static final int RECORDS_PER_SEGMENT = 1 << 16;
+
+    private static final int MAGIC = 0x55535231; // "USR1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int COUNT_OFFSET = 16;
+
+    private static final int ID_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 8;
+    private static final int NAME_OFFSET = 10;
+
+    // Index slot: id (8B) | record number + 1 (8B, 0 = free)
+    private static final int SLOT_BYTES = 16;
+    private static final int MIN_INDEX_SLOTS = 1024;
+
+    private final Path path;
+    private final int nameBytes;
+    private final int recordSize;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ByteBuffer index;
+    private int indexMask;
+    private int count;
+
+    public MappedUserStore(Path path, int nameBytes) {
+        if (nameBytes <= 0 || nameBytes > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("nameBytes out of range: " + nameBytes);
+        }
+        this.path = path;
+        this.nameBytes = nameBytes;
+        this.recordSize = NAME_OFFSET + nameBytes;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean existing = channel.size() >= HEADER_BYTES;
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (existing) {
+                this.count = readHeader();
+            } else {
+                writeHeader();
+            }
+            for (int segment = 0; segment * (long) RECORDS_PER_SEGMENT < count; segment++) {
+                mapSegment(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open user store " + path, e);
+        }
+        rebuildIndex();
+        System.out.println("MappedUserStore opened " + path + " with " + count + " users");
+    }
+
+    @Override
+    public User get(long id) {
+        lock.readLock().lock();
+        try {
+            int record = findRecord(id);
+            return record < 0 ? null : new MappedUser(this, id, record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void validate(User user) {
+        encodeName(user.getName());
+    }
+
+    @Override
+    public User put(long id, User user) {
+        byte[] name = encodeName(user.getName());
+        lock.writeLock().lock();
+        try {
+            int record = findRecord(id);
+            User previous = record < 0 ? null : new User(id, decodeName(record));
+            upsert(id, name, record);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public User[] putAll(List<User> users) {
+        User[] previous = new User[users.size()];
+        byte[][] names = new byte[users.size()][];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = encodeName(users.get(i).getName());
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < names.length; i++) {
+                long id = users.get(i).getId();
+                int record = findRecord(id);
+                if (record >= 0) {
+                    previous[i] = new User(id, decodeName(record));
+                }
+                upsert(id, names[i], record);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return previous;
+    }
+
+    @Override
+    public User[] getAll(long[] ids) {
+        User[] users = new User[ids.length];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                int record = findRecord(ids[i]);
+                users[i] = record < 0 ? null : new MappedUser(this, ids[i], record);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return users;
+    }
+
+    /**
+     * Records are append-only, so a scan is a walk over record numbers;
+     * users come back as MappedUser flyweights
+     */
+    @Override
+    public UserCursor cursor() {
+        return new UserCursor() {
+            private int record;
+
+            @Override
+            public int next(User[] batch) {
+                lock.readLock().lock();
+                try {
+                    int filled = 0;
+                    while (filled < batch.length && record < count) {
+                        batch[filled++] = new MappedUser(MappedUserStore.this,
+                                readId(record), record);
+                        record++;
+                    }
+                    return filled;
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public UserStoreStats stats() {
+        lock.readLock().lock();
+        try {
+            long mappedBytes = HEADER_BYTES +
+                    (long) segments.size() * RECORDS_PER_SEGMENT * recordSize;
+            return new UserStoreStats("mapped", count, segments.size(),
+                    indexMask + 1L, 0, 0, mappedBytes + index.capacity());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes dirty pages to disk; the OS writes them back anyway,
+     * this just makes it happen now
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            header.force();
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // ---- Records ----
+
+    /**
+     * Overwrites the record in place, or appends a new one (record < 0)
+     */
+    private void upsert(long id, byte[] name, int record) {
+        boolean added = record < 0;
+        if (added) {
+            record = count;
+            if (record % RECORDS_PER_SEGMENT == 0) {
+                mapSegment(record / RECORDS_PER_SEGMENT);
+            }
+        }
+        writeRecord(record, id, name);
+        if (added) {
+            // The record is complete before it becomes visible in the count
+            header.putLong(COUNT_OFFSET, ++count);
+            indexPut(id, record);
+        }
+    }
+
+    private void writeRecord(int record, long id, byte[] name) {
+        ByteBuffer segment = segments.get(record / RECORDS_PER_SEGMENT);
+        int offset = (record % RECORDS_PER_SEGMENT) * recordSize;
+        int length = name == null ? 0 : name.length;
+        segment.putLong(offset + ID_OFFSET, id);
+        // Length -1 marks a null name
+        segment.putShort(offset + LENGTH_OFFSET, name == null ? -1 : (short) length);
+        if (name != null) {
+            segment.put(offset + NAME_OFFSET, name);
+        }
+        if (length < nameBytes) {
+            segment.put(offset + NAME_OFFSET + length, new byte[nameBytes - length]);
+        }
+    }
+
+    private long readId(int record) {
+        return segments.get(record / RECORDS_PER_SEGMENT)
+                .getLong((record % RECORDS_PER_SEGMENT) * recordSize + ID_OFFSET);
+    }
+
+    private String decodeName(int record) {
+        ByteBuffer segment = segments.get(record / RECORDS_PER_SEGMENT);
+        int offset = (record % RECORDS_PER_SEGMENT) * recordSize;
+        int length = segment.getShort(offset + LENGTH_OFFSET);
+        if (length < 0) {
+            return null;
+        }
+        byte[] name = new byte[length];
+        segment.get(offset + NAME_OFFSET, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    String readName(int record) {
+        lock.readLock().lock();
+        try {
+            return decodeName(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private byte[] encodeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > nameBytes) {
+            throw new IllegalArgumentException("Name longer than " + nameBytes +
+                    " UTF-8 bytes: " + name);
+        }
+        return bytes;
+    }
+
+    private void mapSegment(int segment) {
+        long position = HEADER_BYTES + (long) segment * RECORDS_PER_SEGMENT * recordSize;
+        try {
+            // Mapping READ_WRITE past the end of the file extends it
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position,
+                    (long) RECORDS_PER_SEGMENT * recordSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map segment " + segment + " of " + path, e);
+        }
+    }
+
+    // ---- Header ----
+
+    private int readHeader() {
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IllegalStateException(path + " is not a user store file");
+        }
+        if (header.getInt(8) != recordSize) {
+            throw new IllegalStateException(path + " was written with record size " +
+                    header.getInt(8) + ", configured " + recordSize);
+        }
+        return Math.toIntExact(header.getLong(COUNT_OFFSET));
+    }
+
+    private void writeHeader() {
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, recordSize);
+        header.putLong(COUNT_OFFSET, 0);
+    }
+
+    // ---- Off-heap index ----
+
+    private void rebuildIndex() {
+        int slots = MIN_INDEX_SLOTS;
+        while (slots * 3L / 4 < count) {
+            slots <<= 1;
+        }
+        allocateIndex(slots);
+        for (int record = 0; record < count; record++) {
+            indexPut(readId(record), record);
+        }
+    }
+
+    private void allocateIndex(int slots) {
+        if ((long) slots * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalStateException("User index exceeds 2 GB");
+        }
+        this.index = ByteBuffer.allocateDirect(slots * SLOT_BYTES);
+        this.indexMask = slots - 1;
+    }
+
+    private int findRecord(long id) {
+        for (int slot = (int) ShardedUserStore.mix(id) & indexMask; ;
+             slot = (slot + 1) & indexMask) {
+            long value = index.getLong(slot * SLOT_BYTES + 8);
+            if (value == 0) {
+                return -1;
+            }
+            if (index.getLong(slot * SLOT_BYTES) == id) {
+                return (int) (value - 1);
+            }
+        }
+    }
+
+    private void indexPut(long id, int record) {
+        if ((count + 1L) * 4 > (indexMask + 1L) * 3) {
+            growIndex();
+        }
+        int slot = (int) ShardedUserStore.mix(id) & indexMask;
+        while (index.getLong(slot * SLOT_BYTES + 8) != 0) {
+            slot = (slot + 1) & indexMask;
+        }
+        index.putLong(slot * SLOT_BYTES, id);
+        index.putLong(slot * SLOT_BYTES + 8, record + 1L);
+    }
+
+    private void growIndex() {
+        ByteBuffer old = index;
+        int oldSlots = indexMask + 1;
+        allocateIndex(oldSlots << 1);
+        for (int slot = 0; slot < oldSlots; slot++) {
+            long value = old.getLong(slot * SLOT_BYTES + 8);
+            if (value != 0) {
+                long id = old.getLong(slot * SLOT_BYTES);
+                int target = (int) ShardedUserStore.mix(id) & indexMask;
+                while (index.getLong(target * SLOT_BYTES + 8) != 0) {
+                    target = (target + 1) & indexMask;
+                }
+                index.putLong(target * SLOT_BYTES, id);
+                index.putLong(target * SLOT_BYTES + 8, value);
+            }
+        }
+    }
+
+    /**
+     * Flyweight view of one record - holds only the id and record number.
+     * The name is decoded from the mapped file on each getName() call,
+     * so it always reflects the latest save() of this id.
+     */
+    static final class MappedUser extends User {
+
+        private final MappedUserStore store;
+        private final int record;
+
+        MappedUser(MappedUserStore store, long id, int record) {
+            super(id, null);
+            this.store = store;
+            this.record = record;
+        }
+
+        @Override
+        public String getName() {
+            return store.readName(record);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mono/Flux view of UserRepository for the WebFlux user API
+ *
+ * NON-BLOCKING RULE - nothing here may park an event-loop thread:
+ * - writes can wait for a WAL group-commit fsync or for the mapped file
+ *   to grow, so they always run on the boundedElastic scheduler
+ * - reads from the in-memory store are optimistic hash probes and run
+ *   inline on the subscriber's thread
+ * - reads from the mapped store take its read lock (held out by a writer
+ *   mapping a new segment) and can page-fault into the file, so they run
+ *   on boundedElastic too (UserStore.readsMayBlock)
+ *
+ * Everything is lazy: nothing touches the store until subscription.
+ */
+@Repository
+@ConditionalOnProperty(
+        name = "app.users.api",
+        havingValue = "reactive"
+)
+public class ReactiveUserRepository {
+
+    // Users pulled from the store cursor per downstream request
+    private static final int SCAN_CHUNK_SIZE = 256;
+
+    private final UserRepository userRepository;
+    private final Scheduler writeScheduler;
+    private final Scheduler readScheduler;
+
+    public ReactiveUserRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+        this.writeScheduler = Schedulers.boundedElastic();
+        this.readScheduler = userRepository.readsMayBlock()
+                ? Schedulers.boundedElastic() : Schedulers.immediate();
+        System.out.println("ReactiveUserRepository bean created (reads on " +
+                (userRepository.readsMayBlock() ? "boundedElastic" : "the caller's thread") + ")");
+    }
+
+    /**
+     * @return empty if there is no such user
+     */
+    public Mono<User> findById(long id) {
+        return Mono.fromSupplier(() -> userRepository.findById(id))
+                .subscribeOn(readScheduler);
+    }
+
+    public Flux<User> findAllById(List<Long> ids) {
+        return Mono.fromSupplier(() -> userRepository.findAllById(ids))
+                .subscribeOn(readScheduler)
+                .flatMapIterable(users -> users);
+    }
+
+    public Mono<User> save(User user) {
+        return Mono.fromSupplier(() -> userRepository.save(user))
+                .subscribeOn(writeScheduler);
+    }
+
+    public Mono<List<User>> saveAll(List<User> users) {
+        return Mono.fromSupplier(() -> userRepository.saveAll(users))
+                .subscribeOn(writeScheduler);
+    }
+
+    public Mono<UserSearchResult> searchByName(String prefix, int limit, String after) {
+        return Mono.fromSupplier(() -> userRepository.searchByName(prefix, limit, after))
+                .subscribeOn(readScheduler);
+    }
+
+    /**
+     * Every user, read chunk by chunk as the subscriber asks for more -
+     * a slow client holds one chunk, not the whole store. subscribeOn also
+     * moves the later requests, so each chunk is read on readScheduler.
+     */
+    public Flux<User> findAll() {
+        return Flux.<List<User>, UserCursor>generate(userRepository::scan, (cursor, sink) -> {
+            User[] chunk = new User[SCAN_CHUNK_SIZE];
+            int count = cursor.next(chunk);
+            if (count == 0) {
+                sink.complete();
+            } else {
+                sink.next(Arrays.asList(chunk).subList(0, count));
+            }
+            return cursor;
+        }).subscribeOn(readScheduler).flatMapIterable(chunk -> chunk);
+    }
+
+    public Mono<UserStoreStats> stats() {
+        return Mono.fromSupplier(userRepository::stats)
+                .subscribeOn(readScheduler);
+    }
+}
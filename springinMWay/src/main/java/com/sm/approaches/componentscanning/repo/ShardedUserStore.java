@@ -0,0 +1,382 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent, sharded in-memory user store
+ *
+ * Users are spread over a power-of-two number of shards by a mixed hash
+ * of their id. Each shard is an open-addressing table keyed by a primitive
+ * long - no boxed Long keys, no entry objects, just two parallel arrays:
+ *
+ *   keys:   [ 42 | 0 | 7 | ... ]     long[]
+ *   values: [ u42| . | u7| ... ]     User[]  (null = free slot)
+ *
+ * Writes take the shard's StampedLock write lock. Reads are OPTIMISTIC:
+ * they probe the table without locking and only fall back to a read lock
+ * if a write raced with them, so readers never block each other.
+ *
+ * Batches (putAll/getAll) are grouped by shard first, so each shard is
+ * locked - or optimistically read - once per batch.
+ */
+public class ShardedUserStore implements UserStore {
+
+    private static final int MIN_SHARD_CAPACITY = 16;
+
+    // Resize when a shard is more than 5/8 full - keeps probe chains short
+    private static final int LOAD_NUMERATOR = 5;
+    private static final int LOAD_DENOMINATOR = 8;
+
+    private final Shard[] shards;
+    private final int shardShift;
+
+    public ShardedUserStore(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        int shardsPow2 = shardCount == 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.shards = new Shard[shardsPow2];
+        for (int i = 0; i < shardsPow2; i++) {
+            shards[i] = new Shard();
+        }
+        // Shards use the TOP bits of the hash, slots the bottom ones
+        this.shardShift = 64 - Integer.numberOfTrailingZeros(shardsPow2);
+    }
+
+    @Override
+    public User get(long id) {
+        long hash = mix(id);
+        return shardFor(hash).get(id, hash);
+    }
+
+    @Override
+    public User put(long id, User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("user must not be null");
+        }
+        long hash = mix(id);
+        return shardFor(hash).put(id, hash, user);
+    }
+
+    @Override
+    public User[] putAll(List<User> users) {
+        int n = users.size();
+        long[] hashes = new long[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = mix(users.get(i).getId());
+        }
+        int[] starts = new int[shards.length + 1];
+        int[] order = orderByShard(hashes, starts);
+        User[] previous = new User[n];
+        for (int shard = 0; shard < shards.length; shard++) {
+            if (starts[shard] < starts[shard + 1]) {
+                shards[shard].putAll(users, hashes, order, starts[shard], starts[shard + 1],
+                        previous);
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    public User[] getAll(long[] ids) {
+        long[] hashes = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            hashes[i] = mix(ids[i]);
+        }
+        int[] starts = new int[shards.length + 1];
+        int[] order = orderByShard(hashes, starts);
+        User[] users = new User[ids.length];
+        for (int shard = 0; shard < shards.length; shard++) {
+            if (starts[shard] < starts[shard + 1]) {
+                shards[shard].getAll(ids, hashes, order, starts[shard], starts[shard + 1], users);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Counting sort of batch positions by shard: order[starts[s] .. starts[s+1])
+     * are the positions that belong to shard s, in their original order
+     */
+    private int[] orderByShard(long[] hashes, int[] starts) {
+        int[] shardOf = new int[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            shardOf[i] = shardIndex(hashes[i]);
+            starts[shardOf[i] + 1]++;
+        }
+        for (int s = 0; s < shards.length; s++) {
+            starts[s + 1] += starts[s];
+        }
+        int[] next = starts.clone();
+        int[] order = new int[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            order[next[shardOf[i]]++] = i;
+        }
+        return order;
+    }
+
+    @Override
+    public UserCursor cursor() {
+        return new ShardCursor();
+    }
+
+    /**
+     * Reads are optimistic probes into heap arrays; the read-lock fallback
+     * only waits out one in-flight shard write
+     */
+    @Override
+    public boolean readsMayBlock() {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public UserStoreStats stats() {
+        long users = 0;
+        long capacity = 0;
+        int largestShard = 0;
+        for (Shard shard : shards) {
+            int shardSize = shard.size();
+            users += shardSize;
+            capacity += shard.capacity();
+            largestShard = Math.max(largestShard, shardSize);
+        }
+        // long key + compressed reference per slot (object headers ignored)
+        long tableBytes = capacity * (Long.BYTES + Integer.BYTES);
+        return new UserStoreStats("sharded", users, shards.length, capacity,
+                largestShard, tableBytes, 0);
+    }
+
+    private Shard shardFor(long hash) {
+        return shards[shardIndex(hash)];
+    }
+
+    private int shardIndex(long hash) {
+        return shardShift == 64 ? 0 : (int) (hash >>> shardShift);
+    }
+
+    /**
+     * Murmur3 finalizer - sequential ids must not cluster in one shard or slot run
+     */
+    static long mix(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Immutable capacity; replaced as a whole when the shard grows
+     */
+    private static final class Table {
+
+        final long[] keys;
+        final User[] values;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new User[capacity];
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * Probes at most keys.length slots, so an optimistic reader looking
+         * at a table that is being written can never loop forever
+         */
+        User find(long id, long hash) {
+            for (int i = (int) hash & mask, probes = 0; probes <= mask;
+                 i = (i + 1) & mask, probes++) {
+                User value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[i] == id) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        User insert(long id, long hash, User user) {
+            int i = (int) hash & mask;
+            while (values[i] != null) {
+                if (keys[i] == id) {
+                    User previous = values[i];
+                    values[i] = user;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = id;
+            values[i] = user;
+            size++;
+            return null;
+        }
+    }
+
+    private static final class Shard {
+
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(MIN_SHARD_CAPACITY);
+
+        User get(long id, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                User user = table.find(id, hash);
+                if (lock.validate(stamp)) {
+                    return user;
+                }
+            }
+            // A writer got in between - retry under the read lock
+            stamp = lock.readLock();
+            try {
+                return table.find(id, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        User put(long id, long hash, User user) {
+            long stamp = lock.writeLock();
+            try {
+                return tableWithRoom().insert(id, hash, user);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void putAll(List<User> users, long[] hashes, int[] order, int from, int to,
+                    User[] previous) {
+            long stamp = lock.writeLock();
+            try {
+                for (int k = from; k < to; k++) {
+                    int i = order[k];
+                    User user = users.get(i);
+                    previous[i] = tableWithRoom().insert(user.getId(), hashes[i], user);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void getAll(long[] ids, long[] hashes, int[] order, int from, int to, User[] out) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                Table current = table;
+                for (int k = from; k < to; k++) {
+                    int i = order[k];
+                    out[i] = current.find(ids[i], hashes[i]);
+                }
+                if (lock.validate(stamp)) {
+                    return;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                for (int k = from; k < to; k++) {
+                    int i = order[k];
+                    out[i] = table.find(ids[i], hashes[i]);
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return table.size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int capacity() {
+            long stamp = lock.readLock();
+            try {
+                return table.keys.length;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Called under the write lock: the table, grown first if one more
+         * entry would exceed the load factor
+         */
+        private Table tableWithRoom() {
+            Table current = table;
+            if ((current.size + 1) * LOAD_DENOMINATOR > current.keys.length * LOAD_NUMERATOR) {
+                current = grow(current);
+                table = current;
+            }
+            return current;
+        }
+
+        private static Table grow(Table old) {
+            Table grown = new Table(old.keys.length << 1);
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.values[i] != null) {
+                    grown.insert(old.keys[i], mix(old.keys[i]), old.values[i]);
+                }
+            }
+            return grown;
+        }
+    }
+
+    /**
+     * Walks shard by shard, slot by slot. Each shard's table is pinned when
+     * the cursor reaches it: a table replaced by growth is never written
+     * again, so slot positions stay valid for the rest of that shard.
+     */
+    private final class ShardCursor implements UserCursor {
+
+        private int shardIndex;
+        private Table table;
+        private int slot;
+
+        @Override
+        public int next(User[] batch) {
+            int filled = 0;
+            while (filled < batch.length && shardIndex < shards.length) {
+                Shard shard = shards[shardIndex];
+                long stamp = shard.lock.readLock();
+                try {
+                    if (table == null) {
+                        table = shard.table;
+                        slot = 0;
+                    }
+                    while (filled < batch.length && slot < table.values.length) {
+                        User user = table.values[slot++];
+                        if (user != null) {
+                            batch[filled++] = user;
+                        }
+                    }
+                } finally {
+                    shard.lock.unlockRead(stamp);
+                }
+                if (slot == table.values.length) {
+                    shardIndex++;
+                    table = null;
+                }
+            }
+            return filled;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+
+/**
+ * Incremental, chunked iteration over a UserStore
+ *
+ * Each call copies the next few users into the caller's array while
+ * holding the store's lock only briefly - nothing is copied up front,
+ * and writers are never held up while the caller processes a chunk.
+ *
+ * Weakly consistent: users saved during the scan may or may not be seen,
+ * but no user stored for the whole scan is skipped.
+ */
+public interface UserCursor {
+
+    /**
+     * @return number of users copied into batch, 0 once the scan is done
+     */
+    int next(User[] batch);
+}
@@ -0,0 +1,116 @@
+package com.sm.approaches.componentscanning.repo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary index on User.name for prefix search
+ *
+ * A ConcurrentSkipListSet of (name, id) pairs in sorted order: a prefix
+ * query is one O(log n) seek to the first name >= prefix followed by a
+ * short in-order walk - it never scans the store. Lock-free for readers
+ * and writers.
+ *
+ * The (name, id) of the last result doubles as the pagination cursor,
+ * so later pages cost the same as the first one.
+ *
+ * Names are matched case-sensitively; users with a null name are not indexed.
+ */
+public class UserNameIndex {
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+
+    public void add(String name, long id) {
+        if (name != null) {
+            entries.add(new Entry(name, id));
+        }
+    }
+
+    public void remove(String name, long id) {
+        if (name != null) {
+            entries.remove(new Entry(name, id));
+        }
+    }
+
+    /**
+     * @param after cursor from a previous page, or null to start at the prefix
+     * @return up to limit entries whose name starts with prefix, in (name, id) order
+     */
+    public List<Entry> find(String prefix, Entry after, int limit) {
+        Entry from = after != null && after.name.compareTo(prefix) >= 0
+                ? after : new Entry(prefix, Long.MIN_VALUE);
+        NavigableSet<Entry> tail = entries.tailSet(from, after == null || from != after);
+
+        List<Entry> found = new ArrayList<>(Math.min(limit, 64));
+        for (Entry entry : tail) {
+            if (!entry.name.startsWith(prefix) || found.size() == limit) {
+                break;
+            }
+            found.add(entry);
+        }
+        return found;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * One indexed (name, id) pair; also the opaque pagination token
+     */
+    public static final class Entry implements Comparable<Entry> {
+
+        private final String name;
+        private final long id;
+
+        Entry(String name, long id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        public String getName() { return name; }
+        public long getId() { return id; }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byName = name.compareTo(other.name);
+            return byName != 0 ? byName : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry && compareTo((Entry) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + Long.hashCode(id);
+        }
+
+        /**
+         * URL-safe cursor: base64url(name) + "." + id
+         */
+        public String toToken() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(name.getBytes(StandardCharsets.UTF_8)) + "." + id;
+        }
+
+        public static Entry fromToken(String token) {
+            int dot = token.lastIndexOf('.');
+            if (dot < 0) {
+                throw new IllegalArgumentException("Invalid search cursor: " + token);
+            }
+            try {
+                String name = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)),
+                        StandardCharsets.UTF_8);
+                return new Entry(name, Long.parseLong(token.substring(dot + 1)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid search cursor: " + token, e);
+            }
+        }
+    }
+}
@@ -1,27 +1,195 @@
 package com.sm.approaches.componentscanning.repo;
 
 import com.sm.approaches.componentscanning.model.User;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Repository;
-import java.util.HashMap;
-import java.util.Map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 @Repository
 public class UserRepository {
 
-    // In-memory store just for demonstration
-    private final Map<Long, User> store = new HashMap<>();
+    // Safe for concurrent requests; which engine is chosen by UserStoreConfig
+    private final UserStore store;
+
+    // Optional durability: present when app.users.wal.enabled=true
+    private final UserWriteAheadLog wal;
+
+    // name -> id, for prefix search; kept in sync on every save
+    private final UserNameIndex nameIndex = new UserNameIndex();
+
+    // Index updates for one id are serialized on its stripe (see reindex)
+    private static final int INDEX_STRIPES = 64;
+    private final Object[] indexLocks = new Object[INDEX_STRIPES];
 
-    public UserRepository() {
+    public UserRepository(UserStore store, ObjectProvider<UserWriteAheadLog> wal) {
+        this.store = store;
+        this.wal = wal.getIfAvailable();
+        for (int i = 0; i < INDEX_STRIPES; i++) {
+            indexLocks[i] = new Object();
+        }
+        buildNameIndex();
         // Proves bean creation
         System.out.println("UserRepository bean created");
     }
 
+    /**
+     * Persistent stores (mapped file, WAL replay) start with users in them
+     */
+    private void buildNameIndex() {
+        UserCursor cursor = store.cursor();
+        User[] chunk = new User[1024];
+        int count;
+        while ((count = cursor.next(chunk)) > 0) {
+            for (int i = 0; i < count; i++) {
+                nameIndex.add(chunk[i].getName(), chunk[i].getId());
+            }
+        }
+        if (nameIndex.size() > 0) {
+            System.out.println("UserRepository indexed " + nameIndex.size() + " user names");
+        }
+    }
+
     public User findById(Long id) {
-        return store.get(id);
+        return id == null ? null : store.get(id);
     }
 
     public User save(User user) {
-        store.put(user.getId(), user);
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("User id must not be null");
+        }
+        if (wal == null) {
+            store(user);
+        } else {
+            // Rejected before it is logged, or every restart would replay it
+            store.validate(user);
+            // Logged first; returns once durable under the WAL's fsync policy
+            wal.append(user.getId(), user.getName(), () -> store(user));
+        }
         return user;
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves a batch with one store call (each lock/shard taken once)
+     * and, with the WAL on, one log write and one fsync wait
+     */
+    public List<User> saveAll(List<User> users) {
+        for (User user : users) {
+            if (user.getId() == null) {
+                throw new IllegalArgumentException("User id must not be null");
+            }
+        }
+        if (wal == null) {
+            storeAll(users);
+        } else {
+            for (User user : users) {
+                store.validate(user);
+            }
+            wal.appendAll(users, () -> storeAll(users));
+        }
+        return users;
+    }
+
+    private void store(User user) {
+        reindex(store.put(user.getId(), user), user);
+    }
+
+    private void storeAll(List<User> users) {
+        User[] previous = store.putAll(users);
+        for (int i = 0; i < previous.length; i++) {
+            reindex(previous[i], users.get(i));
+        }
+    }
+
+    /**
+     * Moves the id's index entry from the replaced name to the name the
+     * store holds NOW - not the one this save wrote.
+     *
+     * Two racing renames of one user (A -> B, B -> C) can reach this in
+     * either order; indexing "my" name could then re-add B after C's save
+     * removed it, or remove C after it was added, losing the user from
+     * search. Under the id's stripe lock, with the store read inside it,
+     * the last reindex to run always leaves exactly the current name.
+     */
+    private void reindex(User previous, User user) {
+        long id = user.getId();
+        synchronized (indexLocks[(int) (mix(id) & (INDEX_STRIPES - 1))]) {
+            User current = store.get(id);
+            String currentName = current != null ? current.getName() : null;
+            if (previous != null && !Objects.equals(previous.getName(), currentName)) {
+                nameIndex.remove(previous.getName(), id);
+            }
+            nameIndex.add(currentName, id);
+        }
+    }
+
+    private static long mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * @return the users that exist, in the order their ids were given
+     */
+    public List<User> findAllById(List<Long> ids) {
+        long[] keys = ids.stream().filter(id -> id != null).mapToLong(Long::longValue).toArray();
+        List<User> found = new ArrayList<>(keys.length);
+        for (User user : store.getAll(keys)) {
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Users whose name starts with prefix, ordered by (name, id)
+     *
+     * Index entries are checked against the store: an entry a concurrent
+     * rename has not removed yet is skipped, never returned.
+     *
+     * @param after next token of the previous page, or null for the first page
+     */
+    public UserSearchResult searchByName(String prefix, int limit, String after) {
+        UserNameIndex.Entry last = after == null ? null : UserNameIndex.Entry.fromToken(after);
+        List<User> page = new ArrayList<>(limit);
+        boolean exhausted = false;
+
+        while (page.size() < limit && !exhausted) {
+            int wanted = limit - page.size();
+            List<UserNameIndex.Entry> entries = nameIndex.find(prefix, last, wanted);
+            long[] ids = new long[entries.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = entries.get(i).getId();
+            }
+            User[] users = store.getAll(ids);
+            for (int i = 0; i < users.length; i++) {
+                if (users[i] != null && entries.get(i).getName().equals(users[i].getName())) {
+                    page.add(users[i]);
+                }
+            }
+            exhausted = entries.size() < wanted;
+            if (!entries.isEmpty()) {
+                last = entries.get(entries.size() - 1);
+            }
+        }
+        return new UserSearchResult(page, exhausted || last == null ? null : last.toToken());
+    }
+
+    public UserCursor scan() {
+        return store.cursor();
+    }
+
+    public UserStoreStats stats() {
+        return store.stats();
+    }
+
+    /**
+     * @see UserStore#readsMayBlock()
+     */
+    public boolean readsMayBlock() {
+        return store.readsMayBlock();
+    }
+}
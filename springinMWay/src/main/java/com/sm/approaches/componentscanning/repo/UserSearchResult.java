@@ -0,0 +1,23 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+
+import java.util.List;
+
+/**
+ * One page of a name prefix search
+ * Pass next as ?after= to get the following page; null when there is none
+ */
+public class UserSearchResult {
+
+    private final List<User> users;
+    private final String next;
+
+    public UserSearchResult(List<User> users, String next) {
+        this.users = users;
+        this.next = next;
+    }
+
+    public List<User> getUsers() { return users; }
+    public String getNext() { return next; }
+}
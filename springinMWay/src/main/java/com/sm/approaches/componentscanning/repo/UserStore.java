@@ -0,0 +1,75 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+
+import java.util.List;
+
+/**
+ * Storage engine behind UserRepository
+ *
+ * Selected with app.users.store (see UserStoreConfig):
+ * - memory: ShardedUserStore, concurrent on-heap tables (default)
+ * - mapped: MappedUserStore, fixed-size records in a memory-mapped file
+ *
+ * Implementations must be safe for concurrent readers and writers.
+ */
+public interface UserStore {
+
+    User get(long id);
+
+    /**
+     * Throws IllegalArgumentException if put would reject this user.
+     * Called before a save is logged, so the write-ahead log never holds
+     * a record the store cannot replay.
+     */
+    default void validate(User user) {
+    }
+
+    /**
+     * @return the user previously stored under this id, or null
+     */
+    User put(long id, User user);
+
+    /**
+     * Stores a batch; implementations take each lock once per batch
+     * instead of once per user. Users must have non-null ids.
+     *
+     * @return one slot per user: the user it replaced, or null
+     */
+    default User[] putAll(List<User> users) {
+        User[] previous = new User[users.size()];
+        for (int i = 0; i < previous.length; i++) {
+            previous[i] = put(users.get(i).getId(), users.get(i));
+        }
+        return previous;
+    }
+
+    /**
+     * @return one slot per requested id, null where no user exists
+     */
+    default User[] getAll(long[] ids) {
+        User[] users = new User[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            users[i] = get(ids[i]);
+        }
+        return users;
+    }
+
+    /**
+     * Whether a read (get, getAll, cursor, stats) can park the calling
+     * thread - on a lock a writer holds, or on a page fault into a file.
+     * The reactive API keeps blocking reads off the event loop.
+     */
+    default boolean readsMayBlock() {
+        return true;
+    }
+
+    /**
+     * Starts a scan over every stored user (see UserCursor)
+     */
+    UserCursor cursor();
+
+    int size();
+
+    UserStoreStats stats();
+}
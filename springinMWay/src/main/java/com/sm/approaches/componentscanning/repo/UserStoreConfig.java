@@ -0,0 +1,62 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Chooses the UserStore behind UserRepository
+ *
+ * app.users.store=memory (default) - sharded on-heap tables, lost on restart
+ * app.users.store=mapped           - memory-mapped file under app.users.mapped.path
+ *
+ * With app.users.wal.enabled=true every save also goes through a
+ * UserWriteAheadLog, which is replayed into the store on startup.
+ */
+@Configuration
+public class UserStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(
+            name = "app.users.store",
+            havingValue = "memory",
+            matchIfMissing = true
+    )
+    public UserStore shardedUserStore(@Value("${app.users.shards:0}") int shards) {
+        // 0 = pick from the CPU count: enough shards that writers rarely meet
+        return new ShardedUserStore(shards > 0
+                ? shards : 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            name = "app.users.store",
+            havingValue = "mapped"
+    )
+    public UserStore mappedUserStore(
+            @Value("${app.users.mapped.path:data/users.db}") String path,
+            @Value("${app.users.mapped.name-bytes:54}") int nameBytes) {
+        return new MappedUserStore(Path.of(path), nameBytes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            name = "app.users.wal.enabled",
+            havingValue = "true"
+    )
+    public UserWriteAheadLog userWriteAheadLog(
+            UserStore store,
+            @Value("${app.users.wal.path:data/users.wal}") String path,
+            @Value("${app.users.wal.fsync:GROUP}") UserWriteAheadLog.FsyncPolicy fsync,
+            @Value("${app.users.wal.group-commit-ms:2}") long groupCommitMs) {
+        UserWriteAheadLog wal = new UserWriteAheadLog(Path.of(path), fsync, groupCommitMs);
+        int replayed = wal.replay((id, name) -> store.put(id, new User(id, name)));
+        System.out.println("[WAL] Replayed " + replayed + " saves from " + path +
+                " (fsync " + fsync + ", " + wal.getSkippedCount() + " rejected by the store)");
+        return wal;
+    }
+}
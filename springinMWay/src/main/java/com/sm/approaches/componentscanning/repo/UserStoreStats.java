@@ -0,0 +1,36 @@
+package com.sm.approaches.componentscanning.repo;
+
+/**
+ * Size and memory report of the store behind UserRepository
+ */
+public class UserStoreStats {
+
+    private final String backend;
+    private final long users;
+    private final int shards;
+    private final long capacity;
+    private final long largestShard;
+    private final long heapBytes;
+    private final long offHeapBytes;
+
+    public UserStoreStats(String backend, long users, int shards, long capacity,
+                          long largestShard, long heapBytes, long offHeapBytes) {
+        this.backend = backend;
+        this.users = users;
+        this.shards = shards;
+        this.capacity = capacity;
+        this.largestShard = largestShard;
+        this.heapBytes = heapBytes;
+        this.offHeapBytes = offHeapBytes;
+    }
+
+    public String getBackend() { return backend; }
+    public long getUsers() { return users; }
+    public int getShards() { return shards; }
+    public long getCapacity() { return capacity; }
+    public long getLargestShard() { return largestShard; }
+    public double getLoadFactor() { return capacity == 0 ? 0 : (double) users / capacity; }
+    /** Table memory only - the User objects themselves are not counted */
+    public long getHeapBytes() { return heapBytes; }
+    public long getOffHeapBytes() { return offHeapBytes; }
+}
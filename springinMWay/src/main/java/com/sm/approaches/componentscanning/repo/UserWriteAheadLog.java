@@ -0,0 +1,457 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only WRITE-AHEAD LOG for user saves
+ *
+ * Every save is appended here before it is acknowledged; on startup the
+ * log is replayed into the UserStore. One record per save:
+ *
+ *   length (4B) | CRC32C (4B) | id (8B) | name length (2B, -1 = null) | UTF-8 name
+ *
+ * A torn tail (crash in the middle of a write) fails its CRC and is cut
+ * off during replay. A bad record with intact data AFTER it is not a torn
+ * write: replay refuses to start rather than truncate those records.
+ * Records the store rejects on replay are skipped and counted.
+ *
+ * FSYNC POLICY (app.users.wal.fsync):
+ * - ALWAYS: FileChannel.force after every record - each call pays a full fsync
+ * - GROUP:  callers wait for a background sync thread that forces at most
+ *           every group-commit-ms; all records written in that window share
+ *           ONE fsync, so durable writes/s are no longer bounded by the disk's
+ *           fsync latency
+ * - NONE:   write only; the OS flushes when it likes (lost on power failure)
+ *
+ * A save becomes VISIBLE (its store update runs) only once it is as
+ * durable as the policy promises: after the write for NONE, after the
+ * record's fsync for ALWAYS and GROUP. Readers never see a save that a
+ * crash could still take back.
+ */
+public class UserWriteAheadLog implements Closeable {
+
+    public enum FsyncPolicy { ALWAYS, GROUP, NONE }
+
+    /**
+     * Receives logged saves during replay, oldest first
+     */
+    @FunctionalInterface
+    public interface ReplayHandler {
+        void apply(long id, String name);
+    }
+
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private final Path path;
+    private final FsyncPolicy policy;
+    private final long groupCommitNanos;
+    private final FileChannel channel;
+
+    // Serializes appends, so the log and the store see saves in the same order
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile long writtenSeq;
+
+    // Group commit hand-off between writers and the sync thread
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncRequested = syncLock.newCondition();
+    private final Condition synced = syncLock.newCondition();
+    private long requestedSeq;
+    private long durableSeq;
+    private IOException syncFailure;
+    private volatile boolean running = true;
+    private final Thread syncThread;
+
+    // GROUP policy: store updates run after the fsync, still in log order
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private final Condition applyTurn = applyLock.newCondition();
+    private long appliedSeq;
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private volatile int skippedOnReplay;
+
+    public UserWriteAheadLog(Path path, FsyncPolicy policy, long groupCommitMs) {
+        this.path = path;
+        this.policy = policy;
+        this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMs);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-ahead log " + path, e);
+        }
+
+        if (policy == FsyncPolicy.GROUP) {
+            this.syncThread = new Thread(this::syncLoop, "user-wal-sync");
+            syncThread.setDaemon(true);
+            syncThread.start();
+        } else {
+            this.syncThread = null;
+        }
+    }
+
+    /**
+     * Rebuilds state from the log. Must run before the first append:
+     * a torn tail is truncated so new records follow the last good one.
+     *
+     * A record the handler rejects with IllegalArgumentException (e.g. a
+     * name the store cannot hold) is skipped and counted, so one bad save
+     * cannot stop every restart; see getSkippedCount.
+     *
+     * @return number of records replayed
+     * @throws IllegalStateException if a corrupt record is followed by more
+     *         data - truncating there would throw away acknowledged saves
+     */
+    public int replay(ReplayHandler handler) {
+        long validEnd = 0;
+        int replayed = 0;
+        int skipped = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            long fileSize = channel.size();
+            CRC32C check = new CRC32C();
+            while (true) {
+                int length;
+                int expectedCrc;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    expectedCrc = in.readInt();
+                    if (length < 10 || length > MAX_PAYLOAD_BYTES) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                check.reset();
+                check.update(payload);
+                if ((int) check.getValue() != expectedCrc) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.wrap(payload);
+                long id = record.getLong();
+                int nameLength = record.getShort();
+                String name = nameLength < 0 ? null : new String(payload,
+                        record.position(), nameLength, StandardCharsets.UTF_8);
+                try {
+                    handler.apply(id, name);
+                    replayed++;
+                } catch (IllegalArgumentException e) {
+                    System.out.println("[WAL] Skipping record at byte " + validEnd +
+                            " (user " + id + "): " + e.getMessage());
+                    skipped++;
+                }
+                validEnd += RECORD_HEADER_BYTES + length;
+            }
+            skippedOnReplay = skipped;
+
+            if (validEnd < fileSize && !isTornTail(validEnd, fileSize)) {
+                throw new IllegalStateException("Corrupt record at byte " + validEnd + " of " +
+                        path + " with later records after it; move the log aside or cut it " +
+                        "at that byte by hand (loses " + (fileSize - validEnd) + " bytes)");
+            }
+
+            appendLock.lock();
+            try {
+                if (validEnd < channel.size()) {
+                    System.out.println("[WAL] Truncating torn tail of " + path +
+                            " at byte " + validEnd);
+                    channel.truncate(validEnd);
+                }
+                channel.position(validEnd);
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay write-ahead log " + path, e);
+        }
+        return replayed;
+    }
+
+    /**
+     * A crash can only tear the LAST write: the bad record must reach the
+     * end of the file, or everything from it on must be zeros (blocks the
+     * file system extended but never filled)
+     */
+    private boolean isTornTail(long offset, long fileSize) throws IOException {
+        if (fileSize - offset < RECORD_HEADER_BYTES) {
+            return true;
+        }
+        ByteBuffer header = ByteBuffer.allocate(4);
+        channel.read(header, offset);
+        int length = header.getInt(0);
+        if (length >= 10 && length <= MAX_PAYLOAD_BYTES
+                && offset + RECORD_HEADER_BYTES + length >= fileSize) {
+            return true;
+        }
+        ByteBuffer rest = ByteBuffer.allocate(64 * 1024);
+        for (long position = offset; position < fileSize; ) {
+            rest.clear();
+            int read = channel.read(rest, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (rest.get(i) != 0) {
+                    return false;
+                }
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    /**
+     * Appends a save and returns once it is durable under the fsync policy
+     *
+     * @param apply runs once the record is durable under the policy, in log
+     *              order (typically the store update); under GROUP the caller
+     *              waits for the fsync without holding up other writers
+     */
+    public void append(long id, String name, Runnable apply) {
+        write(encode(id, name), 1, apply);
+    }
+
+    /**
+     * Appends a whole batch with one write and (at most) one fsync wait
+     */
+    public void appendAll(List<User> users, Runnable apply) {
+        ByteBuffer[] records = new ByteBuffer[users.size()];
+        int bytes = 0;
+        for (int i = 0; i < records.length; i++) {
+            records[i] = encode(users.get(i).getId(), users.get(i).getName());
+            bytes += records[i].remaining();
+        }
+        ByteBuffer batch = ByteBuffer.allocate(bytes);
+        for (ByteBuffer record : records) {
+            batch.put(record);
+        }
+        write(batch.flip(), records.length, apply);
+    }
+
+    private void write(ByteBuffer data, int recordCount, Runnable apply) {
+        long seq;
+
+        appendLock.lock();
+        try {
+            long start = channel.position();
+            try {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                if (policy == FsyncPolicy.ALWAYS) {
+                    channel.force(false);
+                    syncs.incrementAndGet();
+                }
+            } catch (IOException e) {
+                // A short write would leave a torn record with valid ones
+                // appended after it - and replay refuses a log like that
+                discardFrom(start, e);
+                throw e;
+            }
+            seq = ++writtenSeq;
+            if (policy != FsyncPolicy.GROUP) {
+                apply.run();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to write-ahead log " + path, e);
+        } finally {
+            appendLock.unlock();
+        }
+        records.addAndGet(recordCount);
+
+        if (policy == FsyncPolicy.GROUP) {
+            boolean durable = false;
+            try {
+                awaitDurable(seq);
+                durable = true;
+            } finally {
+                // A save that never became durable is not applied, but still
+                // takes its turn so the ones behind it are not stuck
+                applyInOrder(seq, durable ? apply : null);
+            }
+        }
+    }
+
+    /**
+     * Cuts off what a failed append wrote (caller holds appendLock), so the
+     * next record starts where this one should have
+     */
+    private void discardFrom(long start, IOException failure) {
+        try {
+            channel.truncate(start);
+            channel.position(start);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Runs apply after every earlier sequence number has been applied, so
+     * the store sees GROUP saves in the same order as the log
+     */
+    private void applyInOrder(long seq, Runnable apply) {
+        applyLock.lock();
+        try {
+            while (appliedSeq != seq - 1) {
+                applyTurn.awaitUninterruptibly();
+            }
+            try {
+                if (apply != null) {
+                    apply.run();
+                }
+            } finally {
+                appliedSeq = seq;
+                applyTurn.signalAll();
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private ByteBuffer encode(long id, String name) {
+        byte[] nameBytes = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes != null && nameBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Name too long for the write-ahead log");
+        }
+        int length = 10 + (nameBytes == null ? 0 : nameBytes.length);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        record.putInt(length).putInt(0).putLong(id);
+        record.putShort(nameBytes == null ? -1 : (short) nameBytes.length);
+        if (nameBytes != null) {
+            record.put(nameBytes);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), RECORD_HEADER_BYTES, length);
+        record.putInt(4, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private void awaitDurable(long seq) {
+        syncLock.lock();
+        try {
+            if (seq > requestedSeq) {
+                requestedSeq = seq;
+                syncRequested.signal();
+            }
+            while (durableSeq < seq) {
+                if (syncFailure != null) {
+                    throw new UncheckedIOException("Write-ahead log sync failed", syncFailure);
+                }
+                if (!running) {
+                    throw new IllegalStateException("Write-ahead log is closed");
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * GROUP policy: waits for a writer, lets the commit window fill up,
+     * then forces everything written so far with a single fsync
+     */
+    private void syncLoop() {
+        while (running) {
+            syncLock.lock();
+            try {
+                while (running && requestedSeq <= durableSeq) {
+                    syncRequested.awaitUninterruptibly();
+                }
+            } finally {
+                syncLock.unlock();
+            }
+
+            LockSupport.parkNanos(groupCommitNanos);
+
+            // Everything up to this sequence has been written to the channel
+            long target = writtenSeq;
+            IOException failure = null;
+            try {
+                channel.force(false);
+                syncs.incrementAndGet();
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            syncLock.lock();
+            try {
+                if (failure != null) {
+                    syncFailure = failure;
+                } else {
+                    durableSeq = Math.max(durableSeq, target);
+                }
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+            if (failure != null) {
+                return;
+            }
+        }
+    }
+
+    public FsyncPolicy getPolicy() { return policy; }
+    public long getRecordCount() { return records.get(); }
+    public long getSyncCount() { return syncs.get(); }
+    public int getSkippedCount() { return skippedOnReplay; }
+
+    @Override
+    public void close() throws IOException {
+        if (syncThread != null) {
+            syncLock.lock();
+            try {
+                // Let the sync thread finish the last group first
+                while (requestedSeq > durableSeq && syncFailure == null) {
+                    synced.awaitUninterruptibly();
+                }
+                running = false;
+                syncRequested.signal();
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        } else {
+            running = false;
+        }
+        appendLock.lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        System.out.println("[WAL] Closed " + path + ": " + records.get() +
+                " records, " + syncs.get() + " fsyncs (" + policy + ")");
+    }
+}
@@ -0,0 +1,81 @@
+package com.sm.approaches.componentscanning.service;
+
+import com.sm.approaches.componentscanning.model.User;
+import com.sm.approaches.componentscanning.repo.ReactiveUserRepository;
+import com.sm.approaches.componentscanning.repo.UserSearchResult;
+import com.sm.approaches.componentscanning.repo.UserStoreStats;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive twin of UserService - same cache, same invalidation rules
+ *
+ * Cache misses use UserCache.getAsync: a request that coalesces onto
+ * another request's load is handed that load's future instead of
+ * blocking an event-loop thread until it finishes.
+ */
+@Service
+@ConditionalOnProperty(
+        name = "app.users.api",
+        havingValue = "reactive"
+)
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final UserCache userCache;
+
+    public ReactiveUserService(ReactiveUserRepository userRepository, UserCache userCache) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        System.out.println("ReactiveUserService bean created");
+    }
+
+    public Mono<User> createUser(long id, String name) {
+        return userRepository.save(new User(id, name))
+                .doOnNext(saved -> userCache.invalidate(id));
+    }
+
+    /**
+     * @return empty if there is no such user
+     */
+    public Mono<User> getUser(long id) {
+        return Mono.fromFuture(() -> userCache.getAsync(id,
+                key -> userRepository.findById(key).toFuture()));
+    }
+
+    /**
+     * Saves users as they arrive, chunkSize at a time
+     *
+     * @return number of users saved
+     */
+    public Mono<Long> createUsers(Flux<User> users, int chunkSize) {
+        return users.buffer(chunkSize)
+                .concatMap(chunk -> userRepository.saveAll(chunk)
+                        .doOnNext(saved -> saved.forEach(user -> userCache.invalidate(user.getId()))))
+                .reduce(0L, (count, saved) -> count + saved.size());
+    }
+
+    public Flux<User> getUsers(List<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
+    public Mono<UserSearchResult> searchUsers(String prefix, int limit, String after) {
+        return userRepository.searchByName(prefix, limit, after);
+    }
+
+    public Flux<User> exportUsers() {
+        return userRepository.findAll();
+    }
+
+    public Mono<UserStoreStats> getStoreStats() {
+        return userRepository.stats();
+    }
+
+    public Mono<UserCacheStats> getCacheStats() {
+        return Mono.fromSupplier(userCache::stats);
+    }
+}
@@ -0,0 +1,322 @@
+package com.sm.approaches.componentscanning.service;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * Read-through cache in front of UserRepository.findById
+ *
+ * EVICTION - segmented LRU, per lock segment:
+ *   new entries start in PROBATION; a second hit promotes them to PROTECTED
+ *   (80% of the space). One-off lookups (scans, random ids) only churn
+ *   probation and cannot flush the users that are read again and again.
+ *
+ * TTL - entries expire after app.users.cache.ttl-seconds.
+ * NEGATIVE CACHING - "no such user" is cached too, for a shorter TTL,
+ *   so repeated GETs for a missing id do not all hit the store.
+ * COALESCING - concurrent misses for one id share a single load.
+ *
+ * invalidate(id) drops the entry and detaches any load in flight,
+ * so a value read before a save is never cached after it.
+ */
+@Component
+public class UserCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Map<Long, CompletableFuture<User>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public UserCache(@Value("${app.users.cache.enabled:true}") boolean enabled,
+                     @Value("${app.users.cache.maximum-size:10000}") int maximumSize,
+                     @Value("${app.users.cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${app.users.cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this(enabled, maximumSize, TimeUnit.SECONDS.toNanos(ttlSeconds),
+                TimeUnit.SECONDS.toNanos(negativeTtlSeconds), TimeUnit.NANOSECONDS);
+    }
+
+    UserCache(boolean enabled, int maximumSize, long ttl, long negativeTtl, TimeUnit unit) {
+        this.enabled = enabled && maximumSize > 0;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.negativeTtlNanos = unit.toNanos(negativeTtl);
+        int perSegment = Math.max(1, (maximumSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * @return the cached user, or the loader's result (which may be null)
+     */
+    public User get(long id, LongFunction<User> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        Segment segment = segmentFor(id);
+        long now = System.nanoTime();
+        Node cached = segment.get(id, now);
+        if (cached != null) {
+            (cached.user == null ? negativeHits : hits).increment();
+            return cached.user;
+        }
+        misses.increment();
+
+        // Only one caller loads a given id; the others wait for its result
+        CompletableFuture<User> load = new CompletableFuture<>();
+        CompletableFuture<User> running = loading.putIfAbsent(id, load);
+        if (running != null) {
+            coalesced.increment();
+            return running.join();
+        }
+
+        try {
+            User user = loader.apply(id);
+            // Not cached if invalidate() ran while we were loading
+            if (loading.remove(id, load)) {
+                segment.put(id, user, System.nanoTime() +
+                        (user == null ? negativeTtlNanos : ttlNanos));
+            }
+            load.complete(user);
+            return user;
+        } catch (RuntimeException | Error e) {
+            loading.remove(id, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking get for event-loop callers: a coalesced miss gets the
+     * running load's future instead of waiting on it
+     *
+     * Each caller receives its own copy, so cancelling one (a dropped
+     * reactive subscriber) never cancels the load the others share.
+     */
+    public CompletableFuture<User> getAsync(long id, LongFunction<CompletableFuture<User>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        Segment segment = segmentFor(id);
+        Node cached = segment.get(id, System.nanoTime());
+        if (cached != null) {
+            (cached.user == null ? negativeHits : hits).increment();
+            return CompletableFuture.completedFuture(cached.user);
+        }
+        misses.increment();
+
+        CompletableFuture<User> load = new CompletableFuture<>();
+        CompletableFuture<User> running = loading.putIfAbsent(id, load);
+        if (running != null) {
+            coalesced.increment();
+            return running.copy();
+        }
+
+        CompletableFuture<User> loaded;
+        try {
+            loaded = loader.apply(id);
+        } catch (RuntimeException | Error e) {
+            loading.remove(id, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+        loaded.whenComplete((user, failure) -> {
+            if (failure != null) {
+                loading.remove(id, load);
+                load.completeExceptionally(failure);
+                return;
+            }
+            if (loading.remove(id, load)) {
+                segment.put(id, user, System.nanoTime() +
+                        (user == null ? negativeTtlNanos : ttlNanos));
+            }
+            load.complete(user);
+        });
+        return load.copy();
+    }
+
+    public void invalidate(long id) {
+        if (enabled) {
+            loading.remove(id);
+            segmentFor(id).remove(id);
+        }
+    }
+
+    public UserCacheStats stats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return new UserCacheStats(enabled, size, hits.sum(), negativeHits.sum(),
+                misses.sum(), coalesced.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private Segment segmentFor(long id) {
+        long h = id * 0x9E3779B97F4A7C15L; // Fibonacci hashing
+        return segments[(int) (h >>> 60)];
+    }
+
+    private static final class Node {
+        final long id;
+        volatile User user; // null = cached "not found"; read after the lock is released
+        long expiresAt;
+        boolean isProtected;
+        Node prev;
+        Node next;
+
+        Node(long id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Intrusive LRU list: head = most recently used
+     */
+    private static final class LruList {
+        private final Node sentinel = new Node(0);
+        int size;
+
+        LruList() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        void addFirst(Node node) {
+            node.next = sentinel.next;
+            node.prev = sentinel;
+            sentinel.next.prev = node;
+            sentinel.next = node;
+            size++;
+        }
+
+        void unlink(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        Node last() {
+            return sentinel.prev == sentinel ? null : sentinel.prev;
+        }
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, Node> nodes = new HashMap<>();
+        private final LruList probation = new LruList();
+        private final LruList protectedList = new LruList();
+        private final int capacity;
+        private final int protectedCapacity;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = Math.max(1, capacity * 4 / 5);
+        }
+
+        Node get(long id, long now) {
+            lock.lock();
+            try {
+                Node node = nodes.get(id);
+                if (node == null) {
+                    return null;
+                }
+                if (node.expiresAt - now <= 0) {
+                    removeNode(node);
+                    expirations.increment();
+                    return null;
+                }
+                if (node.isProtected) {
+                    protectedList.unlink(node);
+                    protectedList.addFirst(node);
+                } else {
+                    // Second hit: promote, demoting the coldest protected entry if full
+                    probation.unlink(node);
+                    node.isProtected = true;
+                    protectedList.addFirst(node);
+                    if (protectedList.size > protectedCapacity) {
+                        Node demoted = protectedList.last();
+                        protectedList.unlink(demoted);
+                        demoted.isProtected = false;
+                        probation.addFirst(demoted);
+                    }
+                }
+                return node;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(long id, User user, long expiresAt) {
+            lock.lock();
+            try {
+                Node node = nodes.get(id);
+                if (node == null) {
+                    node = new Node(id);
+                    nodes.put(id, node);
+                    probation.addFirst(node);
+                }
+                node.user = user;
+                node.expiresAt = expiresAt;
+                while (nodes.size() > capacity) {
+                    Node victim = probation.last() != null ? probation.last() : protectedList.last();
+                    removeNode(victim);
+                    evictions.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.lock();
+            try {
+                Node node = nodes.get(id);
+                if (node != null) {
+                    removeNode(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return nodes.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void removeNode(Node node) {
+            nodes.remove(node.id);
+            (node.isProtected ? protectedList : probation).unlink(node);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sm.approaches.componentscanning.service;
+
+/**
+ * Counters of UserCache since startup
+ */
+public class UserCacheStats {
+
+    private final boolean enabled;
+    private final long size;
+    private final long hits;
+    private final long negativeHits;
+    private final long misses;
+    private final long coalescedLoads;
+    private final long evictions;
+    private final long expirations;
+
+    UserCacheStats(boolean enabled, long size, long hits, long negativeHits, long misses,
+                   long coalescedLoads, long evictions, long expirations) {
+        this.enabled = enabled;
+        this.size = size;
+        this.hits = hits;
+        this.negativeHits = negativeHits;
+        this.misses = misses;
+        this.coalescedLoads = coalescedLoads;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public long getSize() { return size; }
+    public long getHits() { return hits; }
+    /** Hits on a cached "user does not exist" */
+    public long getNegativeHits() { return negativeHits; }
+    public long getMisses() { return misses; }
+    /** Misses that waited for another caller's load instead of loading */
+    public long getCoalescedLoads() { return coalescedLoads; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+
+    public double getHitRate() {
+        long requests = hits + negativeHits + misses;
+        return requests == 0 ? 0 : (double) (hits + negativeHits) / requests;
+    }
+}
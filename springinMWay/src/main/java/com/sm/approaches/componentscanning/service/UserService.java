@@ -1,26 +1,68 @@
 package com.sm.approaches.componentscanning.service;
 
 import com.sm.approaches.componentscanning.model.User;
+import com.sm.approaches.componentscanning.repo.UserCursor;
 import com.sm.approaches.componentscanning.repo.UserRepository;
+import com.sm.approaches.componentscanning.repo.UserSearchResult;
+import com.sm.approaches.componentscanning.repo.UserStoreStats;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    // Spring sees only ONE constructor → auto-injects dependency
-    public UserService(UserRepository userRepository) {
+    // Spring sees only ONE constructor → auto-injects dependencies
+    public UserService(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
         System.out.println("UserService bean created");
     }
 
     public User createUser(Long id, String name) {
         User user = new User(id, name);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Drop the old (or cached "not found") entry - next GET reads the new user
+        userCache.invalidate(id);
+        return saved;
     }
 
     public User getUser(Long id) {
-        return userRepository.findById(id);
+        return id == null ? null : userCache.get(id, userRepository::findById);
+    }
+
+    public UserCacheStats getCacheStats() {
+        return userCache.stats();
+    }
+
+    public List<User> createUsers(List<User> users) {
+        List<User> saved = userRepository.saveAll(users);
+        for (User user : users) {
+            userCache.invalidate(user.getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Bulk reads go straight to the store - one lock/shard pass per batch -
+     * rather than through the per-id cache
+     */
+    public List<User> getUsers(List<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
+    public UserSearchResult searchUsers(String prefix, int limit, String after) {
+        return userRepository.searchByName(prefix, limit, after);
+    }
+
+    public UserCursor scanUsers() {
+        return userRepository.scan();
+    }
+
+    public UserStoreStats getStoreStats() {
+        return userRepository.stats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive concurrency limit for ApiClient, AIMD (as in TCP congestion control)
+ *
+ * A call may start only while fewer than `limit` calls are in flight;
+ * the rest are rejected at once instead of queueing behind a slow upstream.
+ *
+ * Finished calls are judged in WINDOWS of `limit` calls (roughly one round
+ * trip's worth, like a TCP congestion window), so one slow outlier does not
+ * move the limit:
+ *
+ *   mean latency <= latencyMs, no error  ->  limit += 1
+ *       (ADDITIVE increase; doubled instead until the first decrease -
+ *        "slow start", which finds the right limit quickly from a low one)
+ *   mean latency > latencyMs, or errors  ->  limit /= 2
+ *       (MULTIPLICATIVE decrease - backs off fast when the upstream suffers)
+ *
+ * The limit stays within [minLimit, maxLimit]; maxLimit is app.api.max-connections.
+ */
+class AimdLimiter {
+
+    private static final double BACKOFF_RATIO = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyNanos;
+
+    private int limit;
+    private int inFlight;
+    private boolean slowStart = true;
+
+    // Current window
+    private int samples;
+    private long latencySum;
+    private boolean dropped;
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyMs) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+    }
+
+    /**
+     * @return true if the call may start; it must then be reported with onComplete
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight >= limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Gives the slot back without a sample (the call never reached the upstream)
+     */
+    synchronized void release() {
+        inFlight--;
+    }
+
+    /**
+     * @param startNanos System.nanoTime() when the call was sent
+     */
+    synchronized void onComplete(long startNanos, boolean failed) {
+        inFlight--;
+        samples++;
+        latencySum += System.nanoTime() - startNanos;
+        dropped |= failed;
+        if (samples < limit) {
+            return;
+        }
+        if (dropped || latencySum / samples > latencyNanos) {
+            limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+            slowStart = false;
+        } else {
+            limit = Math.min(maxLimit, slowStart ? limit * 2 : limit + 1);
+        }
+        samples = 0;
+        latencySum = 0;
+        dropped = false;
+    }
+
+    synchronized int limit() {
+        return limit;
+    }
+}
@@ -0,0 +1,35 @@
+package com.sm.approaches.configurationclass;
+
+/**
+ * Response cache and coalescing counters of one ApiClient since startup
+ */
+public class ApiCacheStats {
+
+    private final long hits;
+    private final long revalidations;
+    private final long misses;
+    private final long coalesced;
+    private final long evictions;
+    private final long cachedBytes;
+
+    ApiCacheStats(long hits, long revalidations, long misses, long coalesced,
+                  long evictions, long cachedBytes) {
+        this.hits = hits;
+        this.revalidations = revalidations;
+        this.misses = misses;
+        this.coalesced = coalesced;
+        this.evictions = evictions;
+        this.cachedBytes = cachedBytes;
+    }
+
+    /** Served from a fresh entry, no upstream call */
+    public long getHits() { return hits; }
+    /** Stale entry confirmed by a 304 - an upstream call, but no body */
+    public long getRevalidations() { return revalidations; }
+    /** Full GETs sent upstream */
+    public long getMisses() { return misses; }
+    /** Calls that waited for an identical GET already in flight */
+    public long getCoalesced() { return coalesced; }
+    public long getEvictions() { return evictions; }
+    public long getCachedBytes() { return cachedBytes; }
+}
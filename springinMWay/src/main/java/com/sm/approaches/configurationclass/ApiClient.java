@@ -1,24 +1,368 @@
 package com.sm.approaches.configurationclass;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * HTTP client for app.api.base-url
+ *
+ * Built on java.net.http.HttpClient, which gives:
+ * - KEEP-ALIVE: connections go back to the client's pool after each
+ *   response and are reused by the next request to the same host
+ * - HTTP/2: negotiated via ALPN for https (h2c upgrade for plain http);
+ *   all requests then MULTIPLEX over one connection. Servers that only
+ *   speak HTTP/1.1 get one request per pooled connection.
+ *
+ * On top of that, ApiClient enforces the app.api.* settings:
+ * - BOUNDED POOL: at most maxConnections requests in flight, which bounds
+ *   the HTTP/1.1 connections too. A caller waits for a slot only as long
+ *   as its attempt's deadline allows, then fails instead of queueing forever.
+ * - TIMEOUT: ONE deadline of timeout ms per attempt, started before the
+ *   slot wait - the response gets whatever the wait left, so an attempt
+ *   never takes longer than timeout (the connect timeout is also timeout).
+ *   A whole call is bounded by (retryCount + 1) attempts plus the backoffs
+ *   between them, each at most timeout ms.
+ * - RETRIES: up to retryCount retries on I/O errors, timeouts and
+ *   429/502/503/504, sleeping a random 0..min(timeout, retryBackoffMs x 2^n)
+ *   ms first ("full jitter", so retrying callers do not re-synchronise)
+ * - RETRY BUDGET: retries are also capped at retryBudgetPercent of calls
+ *   (see RetryBudget), so retries cannot multiply load on a sick upstream
+ *
+ * And it FAILS FAST when the upstream is sick, instead of letting callers
+ * pile up behind it:
+ * - CIRCUIT BREAKER (app.api.breaker-*, window 0 = off): after too many
+ *   failures in the last calls, rejects calls for a while - CircuitBreaker
+ * - ADAPTIVE LIMIT (app.api.limiter-*, latency 0 = off): AIMD concurrency
+ *   limit that shrinks when calls get slower than limiter-latency-ms -
+ *   AimdLimiter
+ * Rejected and failed calls can be answered by a fallback:
+ * callApi(endpoint, fallback).
+ *
+ * And it avoids calls altogether where it can:
+ * - SINGLE-FLIGHT (app.api.coalesce): concurrent callApi calls for the same
+ *   endpoint share one upstream GET
+ * - RESPONSE CACHE (app.api.cache-max-bytes, 0 = off): honours
+ *   Cache-Control and ETag, revalidates with If-None-Match - see
+ *   ApiResponseCache. Counters: stats().
+ *
+ * The underlying HttpClient (and its selector thread) is created on the
+ * first call - AppConfig defines several ApiClient beans and most never
+ * call out.
+ */
 public class ApiClient {
 
     private final String baseUrl;
     private final int timeout;
     private final int retryCount;
+    private final int maxConnections;
+    private final int retryBackoffMs;
+    private final boolean coalesce;
+
+    private final Semaphore inFlight;
+    private final RetryBudget retryBudget;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retriesDenied = new LongAdder();
+    private final CircuitBreaker breaker;
+    private final AimdLimiter limiter;
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final ApiResponseCache cache;
+    private final Map<String, CompletableFuture<String>> inFlightGets = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private volatile HttpClient httpClient;
 
     public ApiClient(String baseUrl, int timeout, int retryCount) {
-        this.baseUrl = baseUrl;
-        this.timeout = timeout;
-        this.retryCount = retryCount;
+        this(withDefaults(baseUrl, timeout, retryCount));
+    }
+
+    public ApiClient(AppProperties.ApiConfig config) {
+        this.baseUrl = config.getBaseUrl();
+        this.timeout = config.getTimeout();
+        this.retryCount = config.getRetryCount();
+        this.maxConnections = config.getMaxConnections();
+        this.retryBackoffMs = config.getRetryBackoffMs();
+        this.coalesce = config.isCoalesce();
+        this.cache = config.getCacheMaxBytes() > 0 ? new ApiResponseCache(config.getCacheMaxBytes()) : null;
+        this.inFlight = new Semaphore(maxConnections, true);
+        this.retryBudget = new RetryBudget(config.getRetryBudgetPercent(), Math.max(10, retryCount));
+        this.breaker = config.getBreakerWindow() > 0
+                ? new CircuitBreaker(config.getBreakerWindow(), config.getBreakerMinimumCalls(),
+                        config.getBreakerFailureRatePercent(), config.getBreakerOpenMs(),
+                        config.getBreakerHalfOpenCalls())
+                : null;
+        this.limiter = config.getLimiterLatencyMs() > 0
+                ? new AimdLimiter(config.getLimiterInitialLimit(), config.getLimiterMinLimit(),
+                        maxConnections, config.getLimiterLatencyMs())
+                : null;
     }
 
+    private static AppProperties.ApiConfig withDefaults(String baseUrl, int timeout, int retryCount) {
+        AppProperties.ApiConfig config = new AppProperties.ApiConfig();
+        config.setBaseUrl(baseUrl);
+        config.setTimeout(timeout);
+        config.setRetryCount(retryCount);
+        return config;
+    }
+
+    /**
+     * GET baseUrl + endpoint
+     *
+     * @return the response body of a 2xx response
+     * @throws UncheckedIOException when the last attempt failed or
+     *         returned a non-2xx status
+     */
     public String callApi(String endpoint) {
-        return String.format("Calling %s%s (timeout: %dms, retries: %d)",
-                baseUrl, endpoint, timeout, retryCount);
+        if (cache != null) {
+            ApiResponseCache.Entry cached = cache.get(endpoint);
+            if (cached != null && cached.isFresh(System.nanoTime())) {
+                cacheHits.increment();
+                return cached.body;
+            }
+        }
+        if (!coalesce) {
+            return fetch(endpoint);
+        }
+
+        // Only one caller fetches a given endpoint; the others wait for its result
+        CompletableFuture<String> fetch = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlightGets.putIfAbsent(endpoint, fetch);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            String body = fetch(endpoint);
+            fetch.complete(body);
+            return body;
+        } catch (RuntimeException | Error e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightGets.remove(endpoint, fetch);
+        }
+    }
+
+    /**
+     * callApi that never throws: any failure - including a call rejected by
+     * the circuit breaker or the concurrency limit - is answered by fallback
+     * (e.g. a default value or the last known response)
+     */
+    public String callApi(String endpoint, Function<? super RuntimeException, String> fallback) {
+        try {
+            return callApi(endpoint);
+        } catch (RuntimeException e) {
+            fallbacks.increment();
+            return fallback.apply(e);
+        }
+    }
+
+    /**
+     * One GET upstream - conditional if a stale entry with an ETag is cached
+     */
+    private String fetch(String endpoint) {
+        ApiResponseCache.Entry stale = cache != null ? cache.get(endpoint) : null;
+        String etag = stale != null ? stale.etag : null;
+        HttpResponse<String> response = send(endpoint, etag);
+        if (response.statusCode() == 304 && etag != null) {
+            revalidations.increment();
+            cache.revalidated(endpoint, stale, response.headers());
+            return stale.body;
+        }
+        misses.increment();
+        if (response.statusCode() / 100 != 2) {
+            throw new UncheckedIOException(new IOException(
+                    "GET " + baseUrl + endpoint + " returned " + response.statusCode()));
+        }
+        if (cache != null) {
+            if (response.statusCode() == 200) {
+                cache.put(endpoint, response.body(), response.headers());
+            } else {
+                cache.remove(endpoint);
+            }
+        }
+        return response.body();
+    }
+
+    /**
+     * What callApi would do, without calling out
+     */
+    public String describe(String endpoint) {
+        return String.format("Calling %s%s (timeout: %dms, retries: %d, max connections: %d)",
+                baseUrl, endpoint, timeout, retryCount, maxConnections);
+    }
+
+    private HttpResponse<String> send(String endpoint, String ifNoneMatch) {
+        // No request timeout here: sendOnce sets what is left of each attempt's deadline
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                .GET();
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        HttpRequest request = builder.build();
+        retryBudget.deposit();
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> response = null;
+            IOException failure = null;
+            try {
+                response = sendOnce(request);
+            } catch (IOException e) {
+                failure = e;
+            }
+            if (response != null && !isRetryable(response.statusCode())) {
+                return response;
+            }
+            if (attempt >= retryCount || !retryBudget.tryWithdraw()) {
+                if (attempt < retryCount) {
+                    retriesDenied.increment();
+                }
+                if (failure != null) {
+                    throw new UncheckedIOException("GET " + request.uri() + " failed after " +
+                            (attempt + 1) + " attempt(s)", failure);
+                }
+                return response;
+            }
+            retries.increment();
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * One attempt. Rejections by the limiter or the breaker are thrown as
+     * UncheckedIOException, so send() does not retry them.
+     */
+    private HttpResponse<String> sendOnce(HttpRequest request) throws IOException {
+        if (limiter != null && !limiter.tryAcquire()) {
+            rejections.increment();
+            throw new UncheckedIOException(new IOException("GET " + request.uri() +
+                    " rejected: concurrency limit " + limiter.limit() + " reached"));
+        }
+        if (breaker != null && !breaker.tryAcquire()) {
+            if (limiter != null) {
+                limiter.release();
+            }
+            rejections.increment();
+            throw new UncheckedIOException(new IOException("GET " + request.uri() +
+                    " rejected: circuit " + breaker.state()));
+        }
+        long start = System.nanoTime();
+        // Slot wait and response share this attempt's deadline
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Boolean failed = null; // null = the upstream was never reached
+        try {
+            if (!inFlight.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new HttpTimeoutException("No connection free within " + timeout + "ms (" +
+                        maxConnections + " in flight)");
+            }
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new HttpTimeoutException("No time left for " + request.uri() +
+                            " after waiting for a connection (timeout " + timeout + "ms)");
+                }
+                HttpRequest attempt = HttpRequest.newBuilder(request, (name, value) -> true)
+                        .timeout(Duration.ofNanos(remaining))
+                        .build();
+                failed = true;
+                HttpResponse<String> response = client().send(attempt, HttpResponse.BodyHandlers.ofString());
+                failed = response.statusCode() >= 500;
+                return response;
+            } finally {
+                inFlight.release();
+            }
+        } catch (InterruptedException e) {
+            failed = null;
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted calling " + request.uri()));
+        } finally {
+            if (breaker != null) {
+                if (failed == null) {
+                    breaker.release();
+                } else {
+                    breaker.onResult(!failed);
+                }
+            }
+            if (limiter != null) {
+                if (failed == null) {
+                    limiter.release();
+                } else {
+                    limiter.onComplete(start, failed);
+                }
+            }
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(timeout, (long) retryBackoffMs << Math.min(attempt, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted during retry backoff"));
+        }
+    }
+
+    private HttpClient client() {
+        HttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    client = HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_2)
+                            .connectTimeout(Duration.ofMillis(timeout))
+                            .build();
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
     }
 
     // Getters for verification
     public String getBaseUrl() { return baseUrl; }
     public int getTimeout() { return timeout; }
     public int getRetryCount() { return retryCount; }
+    public int getMaxConnections() { return maxConnections; }
+    public long getRetries() { return retries.sum(); }
+    public long getRetriesDenied() { return retriesDenied.sum(); }
+    /** Calls failed fast by the circuit breaker or the concurrency limit */
+    public long getRejections() { return rejections.sum(); }
+    public long getFallbacks() { return fallbacks.sum(); }
+    /** CLOSED, OPEN or HALF_OPEN; CLOSED when the breaker is off */
+    public String getCircuitState() { return breaker != null ? breaker.state().name() : "CLOSED"; }
+    /** Current adaptive limit; maxConnections when the limiter is off */
+    public int getConcurrencyLimit() { return limiter != null ? limiter.limit() : maxConnections; }
+
+    public ApiCacheStats stats() {
+        return new ApiCacheStats(cacheHits.sum(), revalidations.sum(), misses.sum(), coalesced.sum(),
+                cache != null ? cache.evictions() : 0, cache != null ? cache.bytes() : 0);
+    }
 }
@@ -0,0 +1,171 @@
+package com.sm.approaches.configurationclass;
+
+import java.net.http.HttpHeaders;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Private HTTP cache for ApiClient GETs, keyed by endpoint
+ *
+ * FRESHNESS follows the upstream's Cache-Control:
+ *   no-store          - never stored
+ *   max-age=N         - served from memory for N seconds
+ *   no-cache / none   - stored only if it has an ETag, and always revalidated
+ * REVALIDATION - a stale entry with an ETag is not thrown away: the next
+ *   GET sends If-None-Match and a 304 refreshes the entry without a body.
+ * EVICTION - LRU bounded by BYTES (approximate heap size of the bodies),
+ *   not by entry count, so a few huge responses cannot blow the heap.
+ *
+ * One lock: every operation is a map lookup plus a list relink.
+ */
+class ApiResponseCache {
+
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long evictions;
+
+    ApiResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    static final class Entry {
+        final String body;
+        final String etag;
+        final long expiresAt; // System.nanoTime()
+        final long size;
+
+        Entry(String body, String etag, long expiresAt, long size) {
+            this.body = body;
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+            this.size = size;
+        }
+
+        boolean isFresh(long now) {
+            return expiresAt - now > 0;
+        }
+    }
+
+    /**
+     * @return the entry, fresh or stale, or null
+     */
+    Entry get(String endpoint) {
+        lock.lock();
+        try {
+            return entries.get(endpoint);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a 200 response if its headers allow it
+     */
+    void put(String endpoint, String body, HttpHeaders headers) {
+        String etag = headers.firstValue("ETag").orElse(null);
+        long maxAgeSeconds = maxAgeSeconds(headers);
+        if (maxAgeSeconds < 0 || (maxAgeSeconds == 0 && etag == null)) {
+            remove(endpoint);
+            return;
+        }
+        // Java strings are UTF-16 at worst; the 64 covers the entry and map node
+        long size = 2L * (endpoint.length() + body.length() + (etag == null ? 0 : etag.length())) + 64;
+        if (size > maxBytes) {
+            remove(endpoint);
+            return;
+        }
+        store(endpoint, new Entry(body, etag,
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(maxAgeSeconds), size));
+    }
+
+    /**
+     * After a 304: same body, new freshness (the 304 may carry its own Cache-Control)
+     */
+    void revalidated(String endpoint, Entry entry, HttpHeaders headers) {
+        long maxAgeSeconds = Math.max(0, maxAgeSeconds(headers));
+        String etag = headers.firstValue("ETag").orElse(entry.etag);
+        store(endpoint, new Entry(entry.body, etag,
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(maxAgeSeconds), entry.size));
+    }
+
+    void remove(String endpoint) {
+        lock.lock();
+        try {
+            Entry removed = entries.remove(endpoint);
+            if (removed != null) {
+                bytes -= removed.size;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long evictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(String endpoint, Entry entry) {
+        lock.lock();
+        try {
+            Entry previous = entries.put(endpoint, entry);
+            bytes += entry.size - (previous == null ? 0 : previous.size);
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Entry victim = eldest.next().getValue();
+                eldest.remove();
+                bytes -= victim.size;
+                evictions++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return max-age in seconds, 0 if the response must be revalidated,
+     *         -1 if it must not be stored
+     */
+    static long maxAgeSeconds(HttpHeaders headers) {
+        long maxAge = 0;
+        boolean noCache = false;
+        for (String value : headers.allValues("Cache-Control")) {
+            for (String directive : value.split(",")) {
+                String d = directive.trim().toLowerCase(Locale.ROOT);
+                if (d.equals("no-store")) {
+                    return -1;
+                }
+                if (d.equals("no-cache")) {
+                    noCache = true;
+                }
+                if (d.startsWith("max-age=")) {
+                    try {
+                        maxAge = Math.max(0, Long.parseLong(d.substring("max-age=".length())));
+                    } catch (NumberFormatException e) {
+                        maxAge = 0;
+                    }
+                }
+            }
+        }
+        return noCache ? 0 : maxAge;
+    }
+}
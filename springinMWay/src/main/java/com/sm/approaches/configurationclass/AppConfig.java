@@ -1,6 +1,8 @@
 package com.sm.approaches.configurationclass;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
@@ -28,6 +30,34 @@ public class AppConfig {
     @Value("${app.version}")
     private String applicationVersion;
 
+    /**
+     * @Autowired field - a whole @ConfigurationProperties object, for beans
+     * that take a nested config (see notificationPipeline)
+     */
+    @Autowired
+    private AppProperties appProperties;
+
+
+    // ========================================================================
+    // SHARED INFRASTRUCTURE BEAN
+    // ========================================================================
+
+    /**
+     * One asynchronous dispatch pipeline shared by every Email/SmsService below
+     * Each @Bean method calls notificationPipeline() directly - Spring
+     * intercepts the call and returns this singleton. Each bean still gets
+     * its own queue and workers in it (channel "TYPE:beanName",
+     * app.notifications.* per queue), so a slow gateway only backs up its
+     * own bean.
+     *
+     * close() is detected as the destroy method: queued messages are
+     * delivered before the context shuts down.
+     */
+    @Bean
+    public NotificationPipeline notificationPipeline() {
+        return new NotificationPipeline(appProperties.getNotifications());
+    }
+
 
     // ========================================================================
     // BASIC BEAN DEFINITION
@@ -40,7 +70,7 @@ public class AppConfig {
      */
     @Bean
     public EmailService emailService() {
-        return new EmailService(applicationName);
+        return new EmailService(applicationName, notificationPipeline());
     }
 
 
@@ -55,7 +85,7 @@ public class AppConfig {
      */
     @Bean(name = "smsNotificationService")
     public SmsService smsService() {
-        return new SmsService(applicationName);
+        return new SmsService(applicationName, notificationPipeline());
     }
 
 
@@ -75,7 +105,7 @@ public class AppConfig {
      */
     @Bean(initMethod = "init", destroyMethod = "cleanup")
     public EmailService managedEmailService() {
-        return new EmailService(applicationName + " [Managed]");
+        return new EmailService(applicationName + " [Managed]", notificationPipeline());
     }
 
 
@@ -92,7 +122,7 @@ public class AppConfig {
     @Bean
     @Scope("singleton")
     public NotificationService singletonService() {
-        return new EmailService("Singleton-" + applicationName);
+        return new EmailService("Singleton-" + applicationName, notificationPipeline());
     }
 
     /**
@@ -104,7 +134,7 @@ public class AppConfig {
     @Bean
     @Scope("prototype")
     public NotificationService prototypeService() {
-        return new EmailService("Prototype-" + applicationName);
+        return new EmailService("Prototype-" + applicationName, notificationPipeline());
     }
 
 
@@ -128,7 +158,7 @@ public class AppConfig {
     )
     public NotificationService conditionalEmailService() {
         System.out.println("Creating conditionalEmailService (email feature enabled)");
-        return new EmailService("Conditional-" + applicationName);
+        return new EmailService("Conditional-" + applicationName, notificationPipeline());
     }
 
     /**
@@ -142,7 +172,7 @@ public class AppConfig {
     )
     public NotificationService conditionalSmsService() {
         System.out.println("Creating conditionalSmsService (SMS feature enabled)");
-        return new SmsService("Conditional-" + applicationName);
+        return new SmsService("Conditional-" + applicationName, notificationPipeline());
     }
 
 
@@ -163,7 +193,7 @@ public class AppConfig {
     @Profile("dev")
     public NotificationService devNotificationService() {
         System.out.println("Creating DEV profile notification service");
-        return new EmailService("DEV-" + applicationName);
+        return new EmailService("DEV-" + applicationName, notificationPipeline());
     }
 
     /**
@@ -173,7 +203,7 @@ public class AppConfig {
     @Profile("prod")
     public NotificationService prodNotificationService() {
         System.out.println("Creating PROD profile notification service");
-        return new EmailService("PROD-" + applicationName);
+        return new EmailService("PROD-" + applicationName, notificationPipeline());
     }
 
 
@@ -222,11 +252,7 @@ public class AppConfig {
     @Bean
     public ApiClient apiClientWithProperties(AppProperties appProperties) {
         System.out.println("ApiClient created using AppProperties");
-        return new ApiClient(
-                appProperties.getApi().getBaseUrl(),
-                appProperties.getApi().getTimeout(),
-                appProperties.getApi().getRetryCount()
-        );
+        return new ApiClient(appProperties.getApi());
     }
 
 
@@ -268,7 +294,27 @@ public class AppConfig {
     @Primary
     public NotificationService primaryNotificationService() {
         System.out.println("Creating PRIMARY notification service");
-        return new EmailService("Primary-" + applicationName);
+        return new EmailService("Primary-" + applicationName, notificationPipeline());
+    }
+
+
+    // ========================================================================
+    // ROUTING OVER ALL BEANS OF A TYPE
+    // ========================================================================
+
+    /**
+     * A NotificationService that routes to all the others
+     * Instead of choosing one bean with @Qualifier, callers send through the
+     * router: it finds every NotificationService bean on first use (skipping
+     * itself), balances across beans of the same type and fails over when
+     * one is slow - see NotificationRouter.
+     *
+     * Injecting ListableBeanFactory rather than List<NotificationService>
+     * keeps discovery lazy and avoids the router depending on itself.
+     */
+    @Bean
+    public NotificationRouter notificationRouter(ListableBeanFactory beanFactory) {
+        return new NotificationRouter(beanFactory, appProperties.getNotifications());
     }
 
 
@@ -292,7 +338,7 @@ public class AppConfig {
     @Lazy
     public NotificationService lazyNotificationService() {
         System.out.println("LAZY bean created NOW (not at startup)");
-        return new EmailService("Lazy-" + applicationName);
+        return new EmailService("Lazy-" + applicationName, notificationPipeline());
     }
 
 
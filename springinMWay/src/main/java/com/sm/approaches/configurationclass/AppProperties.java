@@ -3,6 +3,9 @@ package com.sm.approaches.configurationclass;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Type-safe configuration properties class
  * Maps properties with prefix "app" from application.properties
@@ -16,12 +19,26 @@ public class AppProperties {
     private String environment;
     private ApiConfig api = new ApiConfig();
     private FeatureFlags feature = new FeatureFlags();
+    private NotificationConfig notifications = new NotificationConfig();
 
     // Nested static class for API configuration
     public static class ApiConfig {
         private String baseUrl;
         private int timeout;
         private int retryCount;
+        private int maxConnections = 64;
+        private int retryBackoffMs = 100;
+        private int retryBudgetPercent = 20;
+        private boolean coalesce = true;
+        private long cacheMaxBytes = 8 * 1024 * 1024;
+        private int breakerWindow = 20;
+        private int breakerMinimumCalls = 10;
+        private int breakerFailureRatePercent = 50;
+        private long breakerOpenMs = 5000;
+        private int breakerHalfOpenCalls = 3;
+        private int limiterInitialLimit = 16;
+        private int limiterMinLimit = 1;
+        private long limiterLatencyMs = 1000;
 
         // Getters and Setters
         public String getBaseUrl() { return baseUrl; }
@@ -30,6 +47,71 @@ public class AppProperties {
         public void setTimeout(int timeout) { this.timeout = timeout; }
         public int getRetryCount() { return retryCount; }
         public void setRetryCount(int retryCount) { this.retryCount = retryCount; }
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+        public int getRetryBackoffMs() { return retryBackoffMs; }
+        public void setRetryBackoffMs(int retryBackoffMs) { this.retryBackoffMs = retryBackoffMs; }
+        public int getRetryBudgetPercent() { return retryBudgetPercent; }
+        public void setRetryBudgetPercent(int retryBudgetPercent) { this.retryBudgetPercent = retryBudgetPercent; }
+        public boolean isCoalesce() { return coalesce; }
+        public void setCoalesce(boolean coalesce) { this.coalesce = coalesce; }
+        public long getCacheMaxBytes() { return cacheMaxBytes; }
+        public void setCacheMaxBytes(long cacheMaxBytes) { this.cacheMaxBytes = cacheMaxBytes; }
+        public int getBreakerWindow() { return breakerWindow; }
+        public void setBreakerWindow(int breakerWindow) { this.breakerWindow = breakerWindow; }
+        public int getBreakerMinimumCalls() { return breakerMinimumCalls; }
+        public void setBreakerMinimumCalls(int breakerMinimumCalls) { this.breakerMinimumCalls = breakerMinimumCalls; }
+        public int getBreakerFailureRatePercent() { return breakerFailureRatePercent; }
+        public void setBreakerFailureRatePercent(int breakerFailureRatePercent) { this.breakerFailureRatePercent = breakerFailureRatePercent; }
+        public long getBreakerOpenMs() { return breakerOpenMs; }
+        public void setBreakerOpenMs(long breakerOpenMs) { this.breakerOpenMs = breakerOpenMs; }
+        public int getBreakerHalfOpenCalls() { return breakerHalfOpenCalls; }
+        public void setBreakerHalfOpenCalls(int breakerHalfOpenCalls) { this.breakerHalfOpenCalls = breakerHalfOpenCalls; }
+        public int getLimiterInitialLimit() { return limiterInitialLimit; }
+        public void setLimiterInitialLimit(int limiterInitialLimit) { this.limiterInitialLimit = limiterInitialLimit; }
+        public int getLimiterMinLimit() { return limiterMinLimit; }
+        public void setLimiterMinLimit(int limiterMinLimit) { this.limiterMinLimit = limiterMinLimit; }
+        public long getLimiterLatencyMs() { return limiterLatencyMs; }
+        public void setLimiterLatencyMs(long limiterLatencyMs) { this.limiterLatencyMs = limiterLatencyMs; }
+    }
+
+    // Nested static class for the asynchronous notification pipeline
+    public static class NotificationConfig {
+        private int queueCapacity = 10_000;
+        private int batchSize = 50;
+        private long flushMs = 20;
+        private int workers = 2;
+        private boolean virtualThreads;
+        private int maxAttempts = 3;
+        private long retryBackoffMs = 100;
+        private int deadLetterCapacity = 10_000;
+        private RoutingStrategy routerBalancing = RoutingStrategy.LEAST_OUTSTANDING;
+        private Map<String, Integer> routerWeights = new HashMap<>();
+        private long routerFailoverMs = 2000;
+
+        // Getters and Setters
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public long getFlushMs() { return flushMs; }
+        public void setFlushMs(long flushMs) { this.flushMs = flushMs; }
+        public int getWorkers() { return workers; }
+        public void setWorkers(int workers) { this.workers = workers; }
+        public boolean isVirtualThreads() { return virtualThreads; }
+        public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+        public int getMaxAttempts() { return maxAttempts; }
+        public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+        public long getRetryBackoffMs() { return retryBackoffMs; }
+        public void setRetryBackoffMs(long retryBackoffMs) { this.retryBackoffMs = retryBackoffMs; }
+        public int getDeadLetterCapacity() { return deadLetterCapacity; }
+        public void setDeadLetterCapacity(int deadLetterCapacity) { this.deadLetterCapacity = deadLetterCapacity; }
+        public RoutingStrategy getRouterBalancing() { return routerBalancing; }
+        public void setRouterBalancing(RoutingStrategy routerBalancing) { this.routerBalancing = routerBalancing; }
+        public Map<String, Integer> getRouterWeights() { return routerWeights; }
+        public void setRouterWeights(Map<String, Integer> routerWeights) { this.routerWeights = routerWeights; }
+        public long getRouterFailoverMs() { return routerFailoverMs; }
+        public void setRouterFailoverMs(long routerFailoverMs) { this.routerFailoverMs = routerFailoverMs; }
     }
 
     // Nested static class for feature flags
@@ -55,4 +137,6 @@ public class AppProperties {
     public void setApi(ApiConfig api) { this.api = api; }
     public FeatureFlags getFeature() { return feature; }
     public void setFeature(FeatureFlags feature) { this.feature = feature; }
+    public NotificationConfig getNotifications() { return notifications; }
+    public void setNotifications(NotificationConfig notifications) { this.notifications = notifications; }
 }
@@ -0,0 +1,138 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for ApiClient's upstream
+ *
+ *   CLOSED    - calls go through; the outcomes of the last `window` calls
+ *               are kept in a ring buffer. Once at least minimumCalls are
+ *               recorded and failureRatePercent of them failed -> OPEN
+ *   OPEN      - calls are rejected at once, without touching the network,
+ *               for openMs -> HALF_OPEN
+ *   HALF_OPEN - halfOpenCalls trial calls go through; all succeed -> CLOSED
+ *               with a fresh window, any fails -> OPEN again
+ *
+ * Every method is a few field updates under the monitor. State changes
+ * are printed after it is released - blocking I/O under a monitor would
+ * pin a virtual thread to its carrier, on every caller's path.
+ */
+class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] failures;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failed;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    CircuitBreaker(int window, int minimumCalls, int failureRatePercent, long openMs, int halfOpenCalls) {
+        this.failures = new boolean[Math.max(1, window)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, failures.length));
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * @return true if a call may be sent; it must then be reported with onResult
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    void onResult(boolean success) {
+        State changed;
+        synchronized (this) {
+            changed = record(success);
+        }
+        if (changed == State.OPEN) {
+            System.out.println("[API] Circuit OPEN for " + TimeUnit.NANOSECONDS.toMillis(openNanos) + "ms");
+        } else if (changed == State.CLOSED) {
+            System.out.println("[API] Circuit CLOSED");
+        }
+    }
+
+    /**
+     * @return the state the breaker switched to, or null if it did not
+     */
+    private State record(boolean success) {
+        if (state == State.HALF_OPEN) {
+            if (!success) {
+                return open();
+            } else if (++trialsSucceeded >= halfOpenCalls) {
+                return close();
+            }
+            return null;
+        }
+        if (state == State.OPEN) {
+            return null; // a call started before the breaker opened
+        }
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failed--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = !success;
+        if (!success) {
+            failed++;
+        }
+        next = (next + 1) % failures.length;
+        if (recorded >= minimumCalls && failed * 100 >= failureRatePercent * recorded) {
+            return open();
+        }
+        return null;
+    }
+
+    /**
+     * Gives a permit back without an outcome (the call never reached the upstream)
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+            trialsStarted--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private State open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        return state;
+    }
+
+    private State close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failed = 0;
+        return state;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notifications NotificationPipeline gave up on - kept for inspection and
+ * for redelivery (NotificationPipeline.redeliverDeadLetters)
+ *
+ * Bounded: when full, the OLDEST dead letter is discarded and counted, so
+ * a long gateway outage cannot exhaust the heap.
+ */
+public class DeadLetterQueue {
+
+    private final int capacity;
+    private final ArrayDeque<DeadLetter> letters = new ArrayDeque<>();
+    private long discarded;
+
+    public DeadLetterQueue(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public static class DeadLetter {
+        private final String channel;
+        private final NotificationGateway gateway;
+        private final String message;
+        private final String reason;
+        private final int attempts;
+
+        DeadLetter(String channel, NotificationGateway gateway, String message, String reason, int attempts) {
+            this.channel = channel;
+            this.gateway = gateway;
+            this.message = message;
+            this.reason = reason;
+            this.attempts = attempts;
+        }
+
+        public String getChannel() { return channel; }
+        NotificationGateway getGateway() { return gateway; }
+        public String getMessage() { return message; }
+        public String getReason() { return reason; }
+        /** Delivery attempts made; 0 if it never reached a gateway (queue full) */
+        public int getAttempts() { return attempts; }
+    }
+
+    synchronized void add(DeadLetter letter) {
+        if (letters.size() == capacity) {
+            letters.pollFirst();
+            discarded++;
+        }
+        letters.addLast(letter);
+    }
+
+    /**
+     * @return the dead letters, oldest first, without removing them
+     */
+    public synchronized List<DeadLetter> snapshot() {
+        return new ArrayList<>(letters);
+    }
+
+    /**
+     * @return the dead letters, oldest first, removing them
+     */
+    public synchronized List<DeadLetter> drain() {
+        List<DeadLetter> drained = new ArrayList<>(letters);
+        letters.clear();
+        return drained;
+    }
+
+    public synchronized int size() {
+        return letters.size();
+    }
+
+    /** Dead letters pushed out by newer ones */
+    public synchronized long getDiscarded() {
+        return discarded;
+    }
+}
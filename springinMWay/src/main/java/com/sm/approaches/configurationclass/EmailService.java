@@ -1,17 +1,58 @@
 package com.sm.approaches.configurationclass;
 
-public class EmailService implements NotificationService {
+import org.springframework.beans.factory.BeanNameAware;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class EmailService implements NotificationService, BeanNameAware {
 
     private final String appName;
+    private final NotificationDispatch dispatch;
 
     // Constructor injection - dependencies provided during bean creation
     public EmailService(String appName) {
+        this(appName, null);
+    }
+
+    /**
+     * @param pipeline sends through its EMAIL queue; null = on the caller's thread
+     */
+    public EmailService(String appName, NotificationPipeline pipeline) {
         this.appName = appName;
+        this.dispatch = new NotificationDispatch("EMAIL", pipeline, this::printBatch);
+    }
+
+    public EmailService(String appName, NotificationPipeline pipeline, NotificationGateway gateway) {
+        this.appName = appName;
+        this.dispatch = new NotificationDispatch("EMAIL", pipeline, gateway);
+    }
+
+    /**
+     * Gives this bean its own pipeline queue - see NotificationDispatch
+     */
+    @Override
+    public void setBeanName(String name) {
+        dispatch.useQueueOf(name);
     }
 
     @Override
     public void sendNotification(String message) {
-        System.out.println("[" + appName + "] Sending Email: " + message);
+        dispatch.send(message);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendNotificationAsync(String message) {
+        return dispatch.sendAsync(message);
+    }
+
+    // Stand-in SMTP gateway: one println (one stdout lock) per batch
+    private void printBatch(List<String> messages) {
+        StringBuilder out = new StringBuilder();
+        for (String message : messages) {
+            out.append('[').append(appName).append("] Sending Email: ").append(message).append('\n');
+        }
+        System.out.print(out);
     }
 
     @Override
@@ -0,0 +1,69 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * How EmailService and SmsService hand a message to their gateway
+ *
+ * QUEUE PER BEAN: once Spring names the bean, its messages go to the
+ * pipeline channel "TYPE:beanName" (e.g. "EMAIL:emailService") with its
+ * own queue and workers, so one bean's slow gateway never holds up
+ * another's - and NotificationRouter's failover really goes somewhere
+ * else. Outside a container the channel is just the type.
+ *
+ * - with a NotificationPipeline: queued on the channel, delivered by its
+ *   workers; a failure fails the future and dead-letters the message
+ * - without one: delivered on the caller's thread; send() throws what the
+ *   gateway threw, sendAsync() returns it as a failed future
+ */
+final class NotificationDispatch {
+
+    private final String type;
+    private final NotificationPipeline pipeline;
+    private final NotificationGateway gateway;
+    private volatile String channel;
+
+    NotificationDispatch(String type, NotificationPipeline pipeline, NotificationGateway gateway) {
+        this.type = type;
+        this.pipeline = pipeline;
+        this.gateway = gateway;
+        this.channel = type;
+    }
+
+    /**
+     * Called from the service's setBeanName, before it is used
+     */
+    void useQueueOf(String beanName) {
+        channel = type + ":" + beanName;
+    }
+
+    void send(String message) {
+        if (pipeline != null) {
+            pipeline.submit(channel, gateway, message); // failures end up in the pipeline's dead letters
+            return;
+        }
+        try {
+            gateway.deliver(List.of(message));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException(channel + " delivery failed", e);
+        }
+    }
+
+    CompletableFuture<Void> sendAsync(String message) {
+        if (pipeline != null) {
+            return pipeline.submit(channel, gateway, message);
+        }
+        try {
+            send(message);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.List;
+
+/**
+ * The slow part of sending a notification - an SMTP session, an SMS
+ * provider's HTTP API
+ *
+ * NotificationPipeline calls it from its worker threads with one batch at
+ * a time, so a gateway that can send many messages per round trip (one
+ * SMTP connection, a bulk SMS endpoint) pays the round trip once per batch.
+ * Throwing fails the whole batch; the pipeline retries it and finally
+ * dead-letters its messages.
+ */
+@FunctionalInterface
+public interface NotificationGateway {
+
+    void deliver(List<String> messages) throws Exception;
+}
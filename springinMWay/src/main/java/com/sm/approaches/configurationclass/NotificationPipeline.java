@@ -0,0 +1,321 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ASYNCHRONOUS NOTIFICATION DISPATCH
+ *
+ * EmailService and SmsService hand messages to this pipeline instead of
+ * talking to their gateway on the caller's thread:
+ *
+ * - BOUNDED QUEUE per channel - one per bean ("EMAIL:emailService", see
+ *   NotificationDispatch): submit() only offers to it and returns a
+ *   CompletableFuture, so a producer never waits for a slow SMTP/SMS
+ *   gateway. A full queue fails the future at once and the
+ *   message goes to the dead-letter queue - nothing is lost silently.
+ * - BATCHING: a worker takes the first waiting message, then collects
+ *   more for up to flushMs or until batchSize, and delivers them with ONE
+ *   gateway call.
+ * - WORKERS: `workers` threads per channel, started on the channel's first
+ *   message; platform daemon threads, or virtual threads with
+ *   virtualThreads=true on Java 21+.
+ * - RETRY: a failed batch is retried up to maxAttempts in total, with
+ *   jittered exponential backoff from retryBackoffMs, then its messages
+ *   are DEAD-LETTERED (DeadLetterQueue) and their futures fail.
+ *
+ * close() stops accepting messages and lets the workers drain the queues.
+ *
+ * Every dead-lettered future fails with a DeadLetteredException, so a
+ * caller (e.g. NotificationRouter) can tell "already parked for
+ * redelivery" from an ordinary failure and not send the message again.
+ */
+public class NotificationPipeline implements AutoCloseable {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushNanos;
+    private final int workers;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final ThreadFactory threadFactory;
+    private final DeadLetterQueue deadLetters;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean running = true;
+
+    public NotificationPipeline(AppProperties.NotificationConfig config) {
+        this.queueCapacity = config.getQueueCapacity();
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushMs());
+        this.workers = Math.max(1, config.getWorkers());
+        this.maxAttempts = Math.max(1, config.getMaxAttempts());
+        this.retryBackoffMs = config.getRetryBackoffMs();
+        this.threadFactory = threadFactory(config.isVirtualThreads());
+        this.deadLetters = new DeadLetterQueue(config.getDeadLetterCapacity());
+    }
+
+    /**
+     * The message is in getDeadLetters() - sending it again would park (and
+     * later redeliver) a second copy
+     */
+    public static class DeadLetteredException extends RejectedExecutionException {
+        public DeadLetteredException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final class Pending {
+        final NotificationGateway gateway;
+        final String message;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Pending(NotificationGateway gateway, String message) {
+            this.gateway = gateway;
+            this.message = message;
+        }
+    }
+
+    private final class Channel {
+        final String name;
+        final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final List<Thread> threads = new ArrayList<>();
+
+        Channel(String name) {
+            this.name = name;
+            for (int i = 0; i < workers; i++) {
+                Thread thread = threadFactory.newThread(this::workLoop);
+                thread.setName("notify-" + name.toLowerCase(Locale.ROOT) + "-" + i);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        private void workLoop() {
+            List<Pending> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    collect(batch);
+                } catch (InterruptedException e) {
+                    // close() gave up waiting - deliver what we hold, close() dead-letters the rest
+                    deliver(name, batch);
+                    return;
+                }
+                deliver(name, batch);
+                batch.clear();
+            }
+        }
+
+        /**
+         * Adds waiting messages until the batch is full or flushMs after the first
+         */
+        private void collect(List<Pending> batch) throws InterruptedException {
+            long deadline = System.nanoTime() + flushNanos;
+            while (batch.size() < batchSize) {
+                if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                    continue;
+                }
+                long wait = deadline - System.nanoTime();
+                if (wait <= 0) {
+                    return;
+                }
+                Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+    }
+
+    /**
+     * Queues a message for the channel's workers - never blocks
+     *
+     * @return completes when the gateway accepted the message; fails if the
+     *         queue was full or every attempt failed (it is then in
+     *         getDeadLetters())
+     */
+    public CompletableFuture<Void> submit(String channel, NotificationGateway gateway, String message) {
+        Pending pending = new Pending(gateway, message);
+        if (!running) {
+            pending.future.completeExceptionally(new RejectedExecutionException("Notification pipeline closed"));
+            return pending.future;
+        }
+        Channel target = channels.computeIfAbsent(channel, Channel::new);
+        if (target.queue.offer(pending)) {
+            submitted.increment();
+            if (!running && target.queue.remove(pending)) {
+                // close() ran meanwhile and may have drained the queue already
+                pending.future.completeExceptionally(new RejectedExecutionException("Notification pipeline closed"));
+            }
+        } else {
+            rejected.increment();
+            deadLetter(channel, pending, "queue full (" + queueCapacity + ")", 0, null);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Submits every dead letter again, e.g. once a gateway is back
+     *
+     * @return how many were resubmitted
+     */
+    public int redeliverDeadLetters() {
+        List<DeadLetterQueue.DeadLetter> letters = deadLetters.drain();
+        for (DeadLetterQueue.DeadLetter letter : letters) {
+            submit(letter.getChannel(), letter.getGateway(), letter.getMessage());
+        }
+        return letters.size();
+    }
+
+    private void deliver(String channel, List<Pending> batch) {
+        // A batch may mix senders (e.g. two EmailService beans): one gateway call per run
+        int start = 0;
+        while (start < batch.size()) {
+            NotificationGateway gateway = batch.get(start).gateway;
+            int end = start + 1;
+            while (end < batch.size() && batch.get(end).gateway == gateway) {
+                end++;
+            }
+            deliver(channel, gateway, batch.subList(start, end));
+            start = end;
+        }
+    }
+
+    private void deliver(String channel, NotificationGateway gateway, List<Pending> run) {
+        List<String> messages = new ArrayList<>(run.size());
+        for (Pending pending : run) {
+            messages.add(pending.message);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                gateway.deliver(messages);
+                batches.increment();
+                delivered.add(run.size());
+                for (Pending pending : run) {
+                    pending.future.complete(null);
+                }
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts || !backOff(attempt)) {
+                    System.out.println("[NOTIFY] " + channel + " batch of " + run.size() +
+                            " dead-lettered after " + attempt + " attempt(s): " + e);
+                    for (Pending pending : run) {
+                        deadLetter(channel, pending, e.toString(), attempt, e);
+                    }
+                    return;
+                }
+                retries.increment();
+            }
+        }
+    }
+
+    /**
+     * @return false if interrupted (shutting down) - stop retrying
+     */
+    private boolean backOff(int attempt) {
+        long ceiling = retryBackoffMs << Math.min(attempt - 1, 20);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void deadLetter(String channel, Pending pending, String reason, int attempts, Throwable cause) {
+        deadLettered.increment();
+        deadLetters.add(new DeadLetterQueue.DeadLetter(channel, pending.gateway, pending.message,
+                reason, attempts));
+        pending.future.completeExceptionally(
+                new DeadLetteredException(channel + " notification dead-lettered: " + reason, cause));
+    }
+
+    /**
+     * Stops accepting messages and waits up to 5s for the queues to drain;
+     * whatever is still queued after that is dead-lettered
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        for (Channel channel : channels.values()) {
+            for (Thread thread : channel.threads) {
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                thread.join(Math.max(1, left));
+                if (thread.isAlive()) {
+                    thread.interrupt();
+                    thread.join(TimeUnit.SECONDS.toMillis(1));
+                }
+            }
+            List<Pending> left = new ArrayList<>();
+            channel.queue.drainTo(left);
+            for (Pending pending : left) {
+                deadLetter(channel.name, pending, "pipeline closed", 0, null);
+            }
+        }
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            // Looked up reflectively so this still compiles for Java 17
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                return (ThreadFactory) builder.getClass().getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("[NOTIFY] app.notifications.virtual-threads=true is ignored on Java " +
+                        Runtime.version().feature() + " - using platform worker threads");
+            }
+        }
+        AtomicInteger created = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "notify-worker-" + created.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public DeadLetterQueue getDeadLetters() { return deadLetters; }
+
+    // Counters for monitoring the pipeline
+    public long getSubmittedCount() { return submitted.sum(); }
+    public long getDeliveredCount() { return delivered.sum(); }
+    public long getBatchCount() { return batches.sum(); }
+    public long getRetryCount() { return retries.sum(); }
+    public long getDeadLetteredCount() { return deadLettered.sum(); }
+    /** Messages refused because their channel's queue was full (also dead-lettered) */
+    public long getRejectedCount() { return rejected.sum(); }
+    public int getPendingCount() {
+        int pending = 0;
+        for (Channel channel : channels.values()) {
+            pending += channel.queue.size();
+        }
+        return pending;
+    }
+}
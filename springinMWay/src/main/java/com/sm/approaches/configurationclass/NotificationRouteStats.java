@@ -0,0 +1,42 @@
+package com.sm.approaches.configurationclass;
+
+import com.sm.approaches.beanpostprocessor.LatencySnapshot;
+
+/**
+ * Counters and latency of one NotificationService bean behind NotificationRouter
+ */
+public class NotificationRouteStats {
+
+    private final String beanName;
+    private final String serviceType;
+    private final int weight;
+    private final int outstanding;
+    private final long sent;
+    private final long failures;
+    private final long timeouts;
+    private final LatencySnapshot latency;
+
+    NotificationRouteStats(String beanName, String serviceType, int weight, int outstanding,
+                           long sent, long failures, long timeouts, LatencySnapshot latency) {
+        this.beanName = beanName;
+        this.serviceType = serviceType;
+        this.weight = weight;
+        this.outstanding = outstanding;
+        this.sent = sent;
+        this.failures = failures;
+        this.timeouts = timeouts;
+        this.latency = latency;
+    }
+
+    public String getBeanName() { return beanName; }
+    public String getServiceType() { return serviceType; }
+    public int getWeight() { return weight; }
+    /** Sends started and not yet finished */
+    public int getOutstanding() { return outstanding; }
+    public long getSent() { return sent; }
+    public long getFailures() { return failures; }
+    /** Sends slower than the failover timeout - the router moved on to another bean */
+    public long getTimeouts() { return timeouts; }
+    /** Until the bean's future completed, including sends the router gave up waiting for */
+    public LatencySnapshot getLatency() { return latency; }
+}
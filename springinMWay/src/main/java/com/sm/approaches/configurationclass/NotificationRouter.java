@@ -0,0 +1,322 @@
+package com.sm.approaches.configurationclass;
+
+import com.sm.approaches.beanpostprocessor.LatencyHistogram;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ROUTING NotificationService over every other NotificationService bean
+ *
+ * Callers no longer pick a bean with @Qualifier:
+ * - send(type, message) picks ONE bean of that channel type (EMAIL, SMS)
+ *   by the configured RoutingStrategy
+ * - sendNotification / sendNotificationAsync FAN OUT: one bean per
+ *   channel type, all sent in parallel (EmailService and SmsService return
+ *   at once - their NotificationPipeline does the sending)
+ *
+ * DISCOVERY is lazy - on the first send, so every @Bean, conditional and
+ * profile bean is registered by then (a @Lazy bean is created at that
+ * point). The router skips itself and any other router.
+ *
+ * FAILOVER: a bean whose future has not completed within failoverMs, or
+ * that failed, is given up on and the next best bean of the same type is
+ * tried. Email/Sms beans each have their own pipeline queue, so the next
+ * bean is not stuck behind the same backlog. The slow send is not
+ * cancelled, so a message can arrive twice (at-least-once).
+ *
+ * A DEAD-LETTERED send is NOT failed over: EmailService and SmsService
+ * beans share one NotificationPipeline and its dead-letter queue, so
+ * the message is already parked there - a second bean would park or
+ * deliver a second copy, and redeliverDeadLetters() would send it again.
+ * The router's future fails with that exception.
+ *
+ * Outcomes are handled on the router's own "notify-router" threads: a
+ * timeout fires on CompletableFuture's single JVM-wide delayer thread,
+ * and a failover target that sends synchronously (the interface's
+ * default sendNotificationAsync) would otherwise stall every orTimeout
+ * in the process.
+ *
+ * Every bean's latency (until its future completes) goes into a
+ * LatencyHistogram - see stats().
+ */
+public class NotificationRouter implements NotificationService, BeanNameAware, DisposableBean {
+
+    private final ListableBeanFactory beanFactory;
+    private final RoutingStrategy strategy;
+    private final Map<String, Integer> weights;
+    private final long failoverMs;
+    private final ExecutorService outcomes;
+    private final Executor outcomeExecutor;
+
+    private String beanName;
+    private volatile Map<String, RouteGroup> groups;
+
+    public NotificationRouter(ListableBeanFactory beanFactory, AppProperties.NotificationConfig config) {
+        this.beanFactory = beanFactory;
+        this.strategy = config.getRouterBalancing();
+        this.weights = config.getRouterWeights();
+        this.failoverMs = config.getRouterFailoverMs();
+        AtomicInteger threads = new AtomicInteger();
+        this.outcomes = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                task -> {
+                    Thread thread = new Thread(task, "notify-router-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // After destroy(), outcomes still arriving are handled inline rather than lost
+        this.outcomeExecutor = task -> {
+            try {
+                outcomes.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        outcomes.shutdown();
+    }
+
+    @Override
+    public void setBeanName(String name) {
+        this.beanName = name;
+    }
+
+    private static final class Route {
+        final String beanName;
+        final NotificationService service;
+        final int weight;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final LatencyHistogram latency;
+        final LongAdder sent = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        volatile long recentNanos; // EWMA, 1/8 weight per sample - racy updates are fine
+        int currentWeight;         // smooth weighted round-robin, guarded by the RouteGroup
+
+        Route(String beanName, NotificationService service, int weight) {
+            this.beanName = beanName;
+            this.service = service;
+            this.weight = weight;
+            this.latency = new LatencyHistogram(beanName);
+        }
+
+        void finished(long nanos, Throwable failure) {
+            outstanding.decrementAndGet();
+            latency.record(nanos);
+            recentNanos += (nanos - recentNanos) >> 3;
+            if (failure != null) {
+                failures.increment();
+            }
+        }
+    }
+
+    private final class RouteGroup {
+        final List<Route> routes;
+        final AtomicInteger cursor = new AtomicInteger();
+
+        RouteGroup(List<Route> routes) {
+            this.routes = routes;
+        }
+
+        /**
+         * @return the best route not yet tried, or null if all were
+         */
+        Route pick(List<Route> tried) {
+            return strategy == RoutingStrategy.WEIGHTED ? pickWeighted(tried) : pickLeastOutstanding(tried);
+        }
+
+        private Route pickLeastOutstanding(List<Route> tried) {
+            // Start at a rotating position so idle beans share the load
+            int size = routes.size();
+            int start = Math.floorMod(cursor.getAndIncrement(), size);
+            Route best = null;
+            for (int i = 0; i < size; i++) {
+                Route route = routes.get((start + i) % size);
+                if (tried.contains(route)) {
+                    continue;
+                }
+                if (best == null || route.outstanding.get() < best.outstanding.get() ||
+                        (route.outstanding.get() == best.outstanding.get() && route.recentNanos < best.recentNanos)) {
+                    best = route;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * nginx's smooth weighted round-robin: weights 5,1,1 give a,a,b,a,c,a,a
+         * rather than a,a,a,a,a,b,c
+         */
+        private synchronized Route pickWeighted(List<Route> tried) {
+            Route best = null;
+            int total = 0;
+            for (Route route : routes) {
+                if (tried.contains(route)) {
+                    continue;
+                }
+                route.currentWeight += route.weight;
+                total += route.weight;
+                if (best == null || route.currentWeight > best.currentWeight) {
+                    best = route;
+                }
+            }
+            if (best != null) {
+                best.currentWeight -= total;
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Sends through one bean of the given channel type, failing over to the
+     * others of that type if it is slow or fails
+     */
+    public CompletableFuture<Void> send(String serviceType, String message) {
+        RouteGroup group = groups().get(serviceType);
+        if (group == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("No NotificationService bean of type " + serviceType));
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        attempt(group, message, result, new ArrayList<>(), null);
+        return result;
+    }
+
+    private void attempt(RouteGroup group, String message, CompletableFuture<Void> result,
+                         List<Route> tried, Throwable lastFailure) {
+        Route route = group.pick(tried);
+        if (route == null) {
+            result.completeExceptionally(lastFailure);
+            return;
+        }
+        tried.add(route);
+
+        long start = System.nanoTime();
+        route.outstanding.incrementAndGet();
+        route.sent.increment();
+        CompletableFuture<Void> sent;
+        try {
+            sent = route.service.sendNotificationAsync(message);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenComplete((ignored, failure) -> route.finished(System.nanoTime() - start, failure));
+
+        sent.copy().orTimeout(failoverMs, TimeUnit.MILLISECONDS).whenCompleteAsync((ignored, failure) -> {
+            if (failure == null) {
+                result.complete(null);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (cause instanceof NotificationPipeline.DeadLetteredException) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (cause instanceof TimeoutException) {
+                route.timeouts.increment();
+            }
+            attempt(group, message, result, tried, cause);
+        }, outcomeExecutor);
+    }
+
+    /**
+     * Fans out to one bean per channel type
+     */
+    @Override
+    public void sendNotification(String message) {
+        sendNotificationAsync(message);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendNotificationAsync(String message) {
+        Map<String, RouteGroup> all = groups();
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[all.size()];
+        int i = 0;
+        for (String serviceType : all.keySet()) {
+            sends[i++] = send(serviceType, message);
+        }
+        return CompletableFuture.allOf(sends);
+    }
+
+    @Override
+    public String getServiceType() {
+        return "ROUTER";
+    }
+
+    /**
+     * @return channel types the router can send to, e.g. [EMAIL, SMS]
+     */
+    public List<String> getServiceTypes() {
+        return new ArrayList<>(groups().keySet());
+    }
+
+    public List<NotificationRouteStats> stats() {
+        List<NotificationRouteStats> stats = new ArrayList<>();
+        groups().forEach((serviceType, group) -> {
+            for (Route route : group.routes) {
+                stats.add(new NotificationRouteStats(route.beanName, serviceType, route.weight,
+                        route.outstanding.get(), route.sent.sum(), route.failures.sum(),
+                        route.timeouts.sum(), route.latency.snapshot()));
+            }
+        });
+        return stats;
+    }
+
+    private Map<String, RouteGroup> groups() {
+        Map<String, RouteGroup> discovered = groups;
+        if (discovered == null) {
+            synchronized (this) {
+                discovered = groups;
+                if (discovered == null) {
+                    discovered = discover();
+                    groups = discovered;
+                }
+            }
+        }
+        return discovered;
+    }
+
+    private Map<String, RouteGroup> discover() {
+        Map<String, List<Route>> byType = new LinkedHashMap<>();
+        for (String name : beanFactory.getBeanNamesForType(NotificationService.class)) {
+            if (name.equals(beanName)) {
+                continue;
+            }
+            NotificationService service = beanFactory.getBean(name, NotificationService.class);
+            if (service instanceof NotificationRouter) {
+                continue;
+            }
+            byType.computeIfAbsent(service.getServiceType(), type -> new ArrayList<>())
+                    .add(new Route(name, service, Math.max(1, weights.getOrDefault(name, 1))));
+        }
+
+        Map<String, RouteGroup> discovered = new LinkedHashMap<>();
+        byType.forEach((type, routes) -> {
+            discovered.put(type, new RouteGroup(routes));
+            List<String> names = new ArrayList<>();
+            routes.forEach(route -> names.add(route.beanName));
+            System.out.println("[ROUTER] " + type + " -> " + names + " (" + strategy + ")");
+        });
+        return Collections.unmodifiableMap(discovered);
+    }
+}
@@ -1,6 +1,24 @@
 package com.sm.approaches.configurationclass;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface NotificationService {
     void sendNotification(String message);
     String getServiceType();
+
+    /**
+     * Sends without waiting for the gateway
+     *
+     * @return completes once the message was delivered, or fails with why not.
+     *         This default sends synchronously; EmailService and SmsService
+     *         go through a NotificationPipeline when they have one.
+     */
+    default CompletableFuture<Void> sendNotificationAsync(String message) {
+        try {
+            sendNotification(message);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
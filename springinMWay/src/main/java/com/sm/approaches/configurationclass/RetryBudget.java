@@ -0,0 +1,60 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries at a PERCENTAGE of calls, so a failing upstream sees at most
+ * (1 + percent/100) x the normal load instead of (1 + retryCount) x
+ *
+ * Token bucket: every first attempt deposits percent/100 of a token, every
+ * retry withdraws a whole one. The bucket starts full and holds at most
+ * minRetries tokens, so a quiet client can still retry a few times and a
+ * busy one cannot bank retries for a later outage.
+ *
+ * Tokens are kept in thousandths in one AtomicLong - lock-free and
+ * allocation-free.
+ */
+class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerCall;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    RetryBudget(int percent, int minRetries) {
+        this.depositPerCall = percent * SCALE / 100;
+        this.capacity = Math.max(1, minRetries) * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * Called once per call (not per attempt)
+     */
+    void deposit() {
+        if (depositPerCall == 0) {
+            return;
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(capacity, current + depositPerCall)));
+    }
+
+    /**
+     * @return true if a retry may be sent
+     */
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sm.approaches.configurationclass;
+
+/**
+ * How NotificationRouter picks one of several NotificationService beans
+ * of the same channel type
+ */
+public enum RoutingStrategy {
+
+    /**
+     * The bean with the fewest sends in flight; ties go to the lower recent
+     * latency. Adapts by itself when one bean slows down.
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * Smooth weighted round-robin over app.notifications.router-weights
+     * (bean name -> weight, default 1) - a fixed traffic split
+     */
+    WEIGHTED
+}
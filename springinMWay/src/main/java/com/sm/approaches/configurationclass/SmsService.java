@@ -1,16 +1,57 @@
 package com.sm.approaches.configurationclass;
 
-public class SmsService implements NotificationService {
+import org.springframework.beans.factory.BeanNameAware;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class SmsService implements NotificationService, BeanNameAware {
 
     private final String appName;
+    private final NotificationDispatch dispatch;
 
     public SmsService(String appName) {
+        this(appName, null);
+    }
+
+    /**
+     * @param pipeline sends through its SMS queue; null = on the caller's thread
+     */
+    public SmsService(String appName, NotificationPipeline pipeline) {
         this.appName = appName;
+        this.dispatch = new NotificationDispatch("SMS", pipeline, this::printBatch);
+    }
+
+    public SmsService(String appName, NotificationPipeline pipeline, NotificationGateway gateway) {
+        this.appName = appName;
+        this.dispatch = new NotificationDispatch("SMS", pipeline, gateway);
+    }
+
+    /**
+     * Gives this bean its own pipeline queue - see NotificationDispatch
+     */
+    @Override
+    public void setBeanName(String name) {
+        dispatch.useQueueOf(name);
     }
 
     @Override
     public void sendNotification(String message) {
-        System.out.println("[" + appName + "] Sending SMS: " + message);
+        dispatch.send(message);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendNotificationAsync(String message) {
+        return dispatch.sendAsync(message);
+    }
+
+    // Stand-in SMS gateway: one println (one stdout lock) per batch
+    private void printBatch(List<String> messages) {
+        StringBuilder out = new StringBuilder();
+        for (String message : messages) {
+            out.append('[').append(appName).append("] Sending SMS: ").append(message).append('\n');
+        }
+        System.out.print(out);
     }
 
     @Override
@@ -18,4 +59,3 @@ public class SmsService implements NotificationService {
         return "SMS";
     }
 }
-
@@ -0,0 +1,72 @@
+package com.sm.fundamentals.beanscopes;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counter used by SingletonBean
+ *
+ * STRIPED mode (default): a LongAdder - every thread hashes to its own cell,
+ * so concurrent increments never fight over one cache line. Reads add the
+ * cells up.
+ *
+ * ADAPTIVE mode: starts as a single AtomicLong, which is smaller and
+ * cheaper to read. The first time an increment keeps losing its CAS to
+ * other threads, the counter inflates (once, for good) to striped cells.
+ * Quiet counters stay cheap, hot ones scale.
+ */
+final class AdaptiveCounter {
+
+    // Failed CAS attempts within one add before the counter inflates
+    private static final int CONTENDED_RETRIES = 2;
+
+    private final AtomicLong base = new AtomicLong();
+    private volatile LongAdder cells;
+
+    AdaptiveCounter(boolean adaptive) {
+        if (!adaptive) {
+            this.cells = new LongAdder();
+        }
+    }
+
+    void add(long delta) {
+        LongAdder striped = cells;
+        if (striped != null) {
+            striped.add(delta);
+            return;
+        }
+        for (int attempt = 0; attempt <= CONTENDED_RETRIES; attempt++) {
+            long current = base.get();
+            if (base.compareAndSet(current, current + delta)) {
+                return;
+            }
+        }
+        inflate().add(delta);
+    }
+
+    long sum() {
+        LongAdder striped = cells;
+        return striped == null ? base.get() : base.get() + striped.sum();
+    }
+
+    /**
+     * Reads and clears the counter. Increments racing with the reset are
+     * never lost - they are either in the returned value or in the next one.
+     */
+    long sumThenReset() {
+        long total = base.getAndSet(0);
+        LongAdder striped = cells;
+        return striped == null ? total : total + striped.sumThenReset();
+    }
+
+    boolean isStriped() {
+        return cells != null;
+    }
+
+    private synchronized LongAdder inflate() {
+        if (cells == null) {
+            cells = new LongAdder();
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,82 @@
+package com.sm.fundamentals.beanscopes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary format for shopping carts
+ *
+ * A cart is just its items, one after another:
+ *
+ *   item: tag (1B, 0x01 = name only) | name length (varint) | UTF-8 name
+ *
+ * No header and no item count, so a cart can grow by APPENDING one encoded
+ * item (a delta) - the stored cart is never read back or rewritten.
+ * A typical item costs its name plus 2 bytes; Java serialization of the
+ * same ArrayList costs hundreds.
+ *
+ * The tag leaves room for richer items (e.g. with a quantity) later.
+ */
+final class CartCodec {
+
+    private static final byte ITEM_V1 = 0x01;
+
+    private CartCodec() {
+    }
+
+    static byte[] encodeItem(Item item) {
+        byte[] name = item.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = new byte[1 + varintSize(name.length) + name.length];
+        encoded[0] = ITEM_V1;
+        int offset = writeVarint(encoded, 1, name.length);
+        System.arraycopy(name, 0, encoded, offset, name.length);
+        return encoded;
+    }
+
+    static List<Item> decode(byte[] cart) {
+        List<Item> items = new ArrayList<>();
+        int offset = 0;
+        while (offset < cart.length) {
+            if (cart[offset] != ITEM_V1) {
+                throw new IllegalArgumentException("Unknown cart item tag " + cart[offset] +
+                        " at byte " + offset);
+            }
+            offset++;
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (offset >= cart.length || shift > 28) {
+                    throw new IllegalArgumentException("Truncated cart item at byte " + offset);
+                }
+                b = cart[offset++];
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            if (length < 0 || offset + length > cart.length) {
+                throw new IllegalArgumentException("Truncated cart item at byte " + offset);
+            }
+            items.add(new Item(new String(cart, offset, length, StandardCharsets.UTF_8)));
+            offset += length;
+        }
+        return items;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] buffer, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+}
@@ -0,0 +1,42 @@
+package com.sm.fundamentals.beanscopes;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Where SessionScopedBean keeps its cart - outside the HTTP session,
+ * so carts survive restarts and can be shared by several nodes
+ *
+ * The contract is that of a key-value store with APPEND (Redis APPEND,
+ * a log-structured KV): addItem sends only the new item's bytes, never
+ * the whole cart.
+ *
+ * Implementations: InMemoryCartStore (app.cart.store=memory) and
+ * FileCartStore (app.cart.store=file) - see CartStoreConfig.
+ */
+public interface CartStore {
+
+    /**
+     * Carts neither added to nor read for this long are dropped - as long
+     * as the CART_ID cookie that names them lives
+     */
+    Duration DEFAULT_TTL = Duration.ofDays(30);
+
+    /**
+     * Appends one encoded item (see CartCodec) to the cart
+     */
+    void append(String cartId, byte[] encodedItem);
+
+    /**
+     * @return the encoded cart, or an empty array if there is none
+     */
+    byte[] load(String cartId);
+
+    default void addItem(String cartId, Item item) {
+        append(cartId, CartCodec.encodeItem(item));
+    }
+
+    default List<Item> getItems(String cartId) {
+        return CartCodec.decode(load(cartId));
+    }
+}
@@ -0,0 +1,40 @@
+package com.sm.fundamentals.beanscopes;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Chooses the CartStore behind SessionScopedBean
+ *
+ * app.cart.store=memory (default) - in-process KV stand-in, lost on restart
+ * app.cart.store=file             - append-only log under app.cart.file.path,
+ *                                   compacted once over app.cart.file.compact-min-bytes
+ */
+@Configuration
+public class CartStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(
+            name = "app.cart.store",
+            havingValue = "memory",
+            matchIfMissing = true
+    )
+    public CartStore inMemoryCartStore() {
+        return new InMemoryCartStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            name = "app.cart.store",
+            havingValue = "file"
+    )
+    public CartStore fileCartStore(
+            @Value("${app.cart.file.path:data/carts.log}") String path,
+            @Value("${app.cart.file.compact-min-bytes:1048576}") long compactMinBytes) {
+        return new FileCartStore(Path.of(path), compactMinBytes);
+    }
+}
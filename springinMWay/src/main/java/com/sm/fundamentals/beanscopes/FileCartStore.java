@@ -0,0 +1,289 @@
+package com.sm.fundamentals.beanscopes;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Embedded, LOG-STRUCTURED cart store: an append-only file of deltas
+ * replayed into memory on startup
+ *
+ * One record per addItem:
+ *
+ *   length (4B) | CRC32C (4B) | cart id length (2B) | UTF-8 cart id |
+ *   time (8B, epoch millis) | encoded item
+ *
+ * A torn tail (crash mid-write) fails its CRC and is cut off on replay.
+ * Records are written WITHOUT fsync - a cart may lose its last items on
+ * power loss, not on a process restart. Carts are convenience state; use
+ * a real KV store where that matters.
+ *
+ * COMPACTION: every item record repeats the cart id and a header, so the
+ * log outgrows the carts it holds. Once it is over compactMinBytes and
+ * twice the compacted size, it is rewritten with one record per cart
+ * into a temporary file, fsynced, and renamed over the log. A crash
+ * during compaction leaves either the old log or the new one, never a
+ * mix. The rewrite holds the append lock, so addItem waits for it; it
+ * runs once per doubling of the log, so its cost amortizes to O(1) per
+ * item.
+ *
+ * EXPIRY: carts idle for longer than the ttl (see InMemoryCartStore) are
+ * left out of the compacted log, and of memory after a replay. The time
+ * in each record is when the cart was last added to - or, for a
+ * compacted record, last read - so a restart does not make old carts
+ * young again.
+ */
+public class FileCartStore implements CartStore, Closeable {
+
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int TIME_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+    public static final long DEFAULT_COMPACT_MIN_BYTES = 1 << 20;
+
+    private final Path path;
+    private final long compactMinBytes;
+    private FileChannel channel;
+    private final InMemoryCartStore carts;
+    private final LongSupplier clock;
+    // Log and memory must see appends in the same order
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Log size, and what it would be after compaction (guarded by appendLock)
+    private long logBytes;
+    private long compactedBytes;
+    private int compactions;
+
+    public FileCartStore(Path path) {
+        this(path, DEFAULT_COMPACT_MIN_BYTES);
+    }
+
+    public FileCartStore(Path path, long compactMinBytes) {
+        this(path, compactMinBytes, CartStore.DEFAULT_TTL, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock epoch millis - System::currentTimeMillis outside tests
+     */
+    FileCartStore(Path path, long compactMinBytes, Duration ttl, LongSupplier clock) {
+        this.path = path;
+        this.compactMinBytes = compactMinBytes;
+        this.clock = clock;
+        this.carts = new InMemoryCartStore(ttl, clock);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long validEnd = replay();
+            if (validEnd < channel.size()) {
+                System.out.println("[CART] Truncating corrupt tail of " + path + " at byte " + validEnd);
+                channel.truncate(validEnd);
+            }
+            channel.position(validEnd);
+            logBytes = validEnd;
+            carts.expire();
+            carts.forEach((cartId, cart, lastAccess) -> track(cartId, cart.length, true));
+            maybeCompact();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open cart store " + path, e);
+        }
+        System.out.println("[CART] Loaded " + carts.size() + " carts from " + path);
+    }
+
+    private long replay() throws IOException {
+        long validEnd = 0;
+        CRC32C check = new CRC32C();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            while (true) {
+                int length;
+                int expectedCrc;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    expectedCrc = in.readInt();
+                    if (length < 2 || length > MAX_PAYLOAD_BYTES) {
+                        return validEnd;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    return validEnd;
+                }
+                check.reset();
+                check.update(payload);
+                if ((int) check.getValue() != expectedCrc) {
+                    return validEnd;
+                }
+                int idLength = ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF);
+                if (2 + idLength + TIME_BYTES > length) {
+                    return validEnd;
+                }
+                String cartId = new String(payload, 2, idLength, StandardCharsets.UTF_8);
+                long time = ByteBuffer.wrap(payload, 2 + idLength, TIME_BYTES).getLong();
+                byte[] delta = new byte[length - 2 - idLength - TIME_BYTES];
+                System.arraycopy(payload, 2 + idLength + TIME_BYTES, delta, 0, delta.length);
+                carts.append(cartId, delta, time);
+                validEnd += RECORD_HEADER_BYTES + length;
+            }
+        }
+    }
+
+    @Override
+    public void append(String cartId, byte[] encodedItem) {
+        byte[] id = cartId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > 0xFFFF || 2 + id.length + TIME_BYTES + encodedItem.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Cart record too large");
+        }
+        long now = clock.getAsLong();
+        ByteBuffer record = encode(id, now, encodedItem, 0, encodedItem.length);
+
+        appendLock.lock();
+        try {
+            try {
+                write(channel, record);
+            } catch (IOException e) {
+                // Torn bytes left here would fail their CRC on replay, and
+                // replay cuts the log there - with every later record
+                discardFrom(logBytes, e);
+                throw new UncheckedIOException("Failed to append to cart store " + path, e);
+            }
+            logBytes += record.limit();
+            track(cartId, encodedItem.length, !carts.contains(cartId));
+            carts.append(cartId, encodedItem, now);
+            try {
+                // The item is stored either way; a failed rewrite leaves the old log in place
+                maybeCompact();
+            } catch (IOException e) {
+                System.out.println("[CART] Compaction of " + path + " failed, keeping the log: " + e);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private static ByteBuffer encode(byte[] id, long time, byte[] data, int offset, int dataLength) {
+        int length = 2 + id.length + TIME_BYTES + dataLength;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        record.putInt(length).putInt(0).putShort((short) id.length).put(id).putLong(time)
+                .put(data, offset, dataLength);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), RECORD_HEADER_BYTES, length);
+        record.putInt(4, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private static int write(FileChannel target, ByteBuffer record) throws IOException {
+        int bytes = record.remaining();
+        while (record.hasRemaining()) {
+            target.write(record);
+        }
+        return bytes;
+    }
+
+    /**
+     * Cuts off what a failed append wrote (caller holds appendLock)
+     */
+    private void discardFrom(long end, IOException failure) {
+        try {
+            channel.truncate(end);
+            channel.position(end);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Keeps compactedBytes in step: one header, id and time per cart, plus
+     * its items. Carts that expire since are only subtracted by the next
+     * compaction, so it may come a little late - never early.
+     */
+    private void track(String cartId, int deltaLength, boolean newCart) {
+        if (newCart) {
+            compactedBytes += RECORD_HEADER_BYTES + 2 + TIME_BYTES
+                    + cartId.getBytes(StandardCharsets.UTF_8).length;
+        }
+        compactedBytes += deltaLength;
+    }
+
+    /**
+     * Caller holds appendLock (or is the constructor)
+     */
+    private void maybeCompact() throws IOException {
+        if (logBytes < compactMinBytes || logBytes < 2 * compactedBytes) {
+            return;
+        }
+        long before = logBytes;
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        long written = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long[] total = new long[1];
+            IOException[] failure = new IOException[1];
+            // Expired carts are not visited, so they are not written
+            carts.forEach((cartId, cart, lastAccess) -> {
+                byte[] id = cartId.getBytes(StandardCharsets.UTF_8);
+                // Replay concatenates a cart's records, so a large cart may span several
+                int chunk = MAX_PAYLOAD_BYTES - 2 - id.length - TIME_BYTES;
+                for (int offset = 0; offset < cart.length && failure[0] == null; offset += chunk) {
+                    try {
+                        total[0] += write(out, encode(id, lastAccess, cart, offset,
+                                Math.min(chunk, cart.length - offset)));
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.force(true);
+            written = total[0];
+        }
+        Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        logBytes = written;
+        compactedBytes = written;
+        compactions++;
+        carts.expire(); // what the new log left out goes from memory too
+        System.out.println("[CART] Compacted " + path + " from " + before + " to " + written + " bytes");
+    }
+
+    int getCompactionCount() {
+        return compactions;
+    }
+
+    @Override
+    public byte[] load(String cartId) {
+        return carts.load(cartId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sm.fundamentals.beanscopes;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process stand-in for a distributed key-value store
+ *
+ * Values are the encoded carts. Only the delta crosses the CartStore
+ * boundary - as it would cross the network to a real KV; merging it into
+ * the stored value is the store's business.
+ *
+ * Each cart is a GROWABLE buffer that doubles when full, like an
+ * ArrayList: an append copies only the delta, so n items cost O(n) bytes
+ * copied in total, not O(n^2) as with a new array per append. A cart's
+ * appends and loads lock that cart only, and a load copies out just the
+ * used bytes.
+ *
+ * EXPIRY: a cart neither added to nor read for `ttl` (default
+ * CartStore.DEFAULT_TTL, the CART_ID cookie's lifetime) is gone. Appends
+ * sweep the whole map at most once per ttl/64, so an idle cart is freed
+ * within about 1.02 x ttl; a load never returns an expired cart.
+ */
+public class InMemoryCartStore implements CartStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, CartBuffer> carts = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final long sweepIntervalMillis;
+    private final LongSupplier clock;
+    private final AtomicLong nextSweep;
+
+    public InMemoryCartStore() {
+        this(CartStore.DEFAULT_TTL, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock epoch millis - System::currentTimeMillis outside tests
+     */
+    InMemoryCartStore(Duration ttl, LongSupplier clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.sweepIntervalMillis = Math.max(1, ttlMillis / 64);
+        this.clock = clock;
+        this.nextSweep = new AtomicLong(clock.getAsLong() + sweepIntervalMillis);
+    }
+
+    @Override
+    public void append(String cartId, byte[] encodedItem) {
+        append(cartId, encodedItem, clock.getAsLong());
+    }
+
+    /**
+     * @param accessMillis when the item was added - FileCartStore replays
+     *                     its log with the recorded times
+     */
+    void append(String cartId, byte[] encodedItem, long accessMillis) {
+        // compute, not computeIfAbsent: a sweep removes carts under the same
+        // bin lock, so an item never lands in a cart that was just dropped.
+        // Expiry is judged at the item's time, so a replay rebuilds a cart
+        // exactly as it was live.
+        carts.compute(cartId, (id, cart) -> {
+            if (cart == null || cart.isExpired(accessMillis, ttlMillis)) {
+                cart = new CartBuffer();
+            }
+            cart.append(encodedItem, accessMillis);
+            return cart;
+        });
+        long now = clock.getAsLong();
+        long sweepAt = nextSweep.get();
+        if (now >= sweepAt && nextSweep.compareAndSet(sweepAt, now + sweepIntervalMillis)) {
+            expire();
+        }
+    }
+
+    @Override
+    public byte[] load(String cartId) {
+        CartBuffer cart = carts.get(cartId);
+        long now = clock.getAsLong();
+        if (cart == null || cart.isExpired(now, ttlMillis)) {
+            return new byte[0];
+        }
+        cart.touch(now);
+        return cart.copy();
+    }
+
+    /**
+     * Drops every cart idle for longer than the ttl
+     *
+     * @return how many were dropped
+     */
+    int expire() {
+        long now = clock.getAsLong();
+        int[] dropped = new int[1];
+        for (String cartId : carts.keySet()) {
+            carts.computeIfPresent(cartId, (id, cart) -> {
+                if (cart.isExpired(now, ttlMillis)) {
+                    dropped[0]++;
+                    return null;
+                }
+                return cart;
+            });
+        }
+        return dropped[0];
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    boolean contains(String cartId) {
+        return carts.containsKey(cartId);
+    }
+
+    /**
+     * Hands every live cart's current bytes and last access (epoch millis)
+     * to action (used by FileCartStore compaction)
+     */
+    void forEach(CartVisitor action) {
+        long now = clock.getAsLong();
+        carts.forEach((cartId, cart) -> {
+            if (!cart.isExpired(now, ttlMillis)) {
+                action.visit(cartId, cart.copy(), cart.lastAccess);
+            }
+        });
+    }
+
+    interface CartVisitor {
+        void visit(String cartId, byte[] cart, long lastAccessMillis);
+    }
+
+    private static final class CartBuffer {
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+        private int length;
+        private volatile long lastAccess = Long.MIN_VALUE;
+
+        synchronized void append(byte[] delta, long accessMillis) {
+            if (length + delta.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + delta.length));
+            }
+            System.arraycopy(delta, 0, bytes, length, delta.length);
+            length += delta.length;
+            touch(accessMillis);
+        }
+
+        void touch(long accessMillis) {
+            // Racy max: two readers at once may keep the earlier time - by nanoseconds
+            if (accessMillis > lastAccess) {
+                lastAccess = accessMillis;
+            }
+        }
+
+        boolean isExpired(long now, long ttlMillis) {
+            return now - lastAccess > ttlMillis;
+        }
+
+        synchronized byte[] copy() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
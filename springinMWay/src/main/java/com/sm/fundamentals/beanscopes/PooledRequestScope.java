@@ -0,0 +1,232 @@
+package com.sm.fundamentals.beanscopes;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * REQUEST scope that RECYCLES bean instances instead of discarding them
+ *
+ * The stock request scope creates (and runs @PostConstruct on) a new
+ * instance for every request and destroys it at the end. This scope keeps
+ * one bean per request in exactly the same way - stored in the request
+ * attributes, visible only to that request - but at request end the
+ * instance goes back to a bounded pool for its bean name, and the next
+ * request (on any thread) takes it from there:
+ *
+ *   request start: pool has one?  yes -> recycle() it   no -> create it
+ *   request end:   pool full?     no  -> keep it        yes -> destroy it
+ *
+ * Beans implement Recyclable to reset their per-request state when they
+ * are handed to a new request. @PreDestroy runs for every instance that
+ * leaves the scope: the ones that do not fit in the pool, the ones
+ * removed with remove(), and the idle ones when the context closes.
+ *
+ * Pools are SHARED by all threads (a lock-free deque per bean name), not
+ * per thread: with virtual threads every request runs on a new thread,
+ * so a per-thread pool would never be reused and would die, undestroyed,
+ * with its thread. A bean must not be referenced after its request ends
+ * (e.g. from an async task) - it may already belong to the next request.
+ *
+ * With pooling off (app.request-scope.pooled=false) this behaves like
+ * the stock request scope.
+ */
+public class PooledRequestScope implements Scope, DisposableBean {
+
+    public static final String NAME = "pooledRequest";
+
+    /**
+     * Implemented by pooled beans to reset per-request state before reuse
+     */
+    public interface Recyclable {
+        void recycle();
+    }
+
+    private final boolean pooling;
+    private final int poolSizePerBean;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    // Destruction callback the bean factory registers while creating a bean;
+    // set and cleared within one get() call, so safe on any kind of thread
+    private final ThreadLocal<Runnable> pendingDestroy = new ThreadLocal<>();
+
+    public PooledRequestScope(boolean pooling, int poolSizePerBean) {
+        this.pooling = pooling && poolSizePerBean > 0;
+        this.poolSizePerBean = poolSizePerBean;
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        Object bean = attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (bean != null) {
+            return bean;
+        }
+        if (!pooling) {
+            bean = objectFactory.getObject();
+            attributes.setAttribute(name, bean, RequestAttributes.SCOPE_REQUEST);
+            return bean;
+        }
+
+        PooledBean pooled = pool(name).poll();
+        if (pooled == null) {
+            try {
+                bean = objectFactory.getObject();
+                pooled = new PooledBean(bean, pendingDestroy.get());
+            } finally {
+                pendingDestroy.remove();
+            }
+        } else if (pooled.bean instanceof Recyclable) {
+            ((Recyclable) pooled.bean).recycle();
+        }
+
+        PooledBean acquired = pooled;
+        attributes.setAttribute(name, acquired.bean, RequestAttributes.SCOPE_REQUEST);
+        attributes.setAttribute(destroyKey(name), acquired, RequestAttributes.SCOPE_REQUEST);
+        attributes.registerDestructionCallback(name, () -> release(name, acquired),
+                RequestAttributes.SCOPE_REQUEST);
+        return acquired.bean;
+    }
+
+    /**
+     * Runs on whichever thread completes the request
+     */
+    private void release(String name, PooledBean pooled) {
+        if (!pool(name).offer(pooled)) {
+            pooled.destroy();
+        }
+    }
+
+    /**
+     * Takes the bean out of the current request and destroys it - the bean
+     * factory handed its destruction callback to this scope, so nobody else
+     * can. Returns null for a pooled bean for that reason: a caller that
+     * destroys whatever remove() returns (destroyScopedBean) would
+     * otherwise destroy it twice.
+     */
+    @Override
+    public Object remove(String name) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        Object bean = attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (bean == null) {
+            return null;
+        }
+        // Also drops the release callback: a removed bean is not pooled
+        attributes.removeAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        PooledBean pooled = (PooledBean) attributes.getAttribute(destroyKey(name),
+                RequestAttributes.SCOPE_REQUEST);
+        if (pooled == null) {
+            // Not pooled: the destruction callback went to the request attributes
+            return bean;
+        }
+        attributes.removeAttribute(destroyKey(name), RequestAttributes.SCOPE_REQUEST);
+        pooled.destroy();
+        return null;
+    }
+
+    /**
+     * Destroys the idle instances when the bean factory shuts down
+     * (registered by PooledRequestScopeRegistrar)
+     */
+    @Override
+    public void destroy() {
+        for (Pool pool : pools.values()) {
+            PooledBean idle;
+            while ((idle = pool.poll()) != null) {
+                idle.destroy();
+            }
+        }
+    }
+
+    int idleCount(String name) {
+        Pool pool = pools.get(name);
+        return pool == null ? 0 : pool.idleCount.get();
+    }
+
+    private Pool pool(String name) {
+        return pools.computeIfAbsent(name, n -> new Pool(poolSizePerBean));
+    }
+
+    private static String destroyKey(String name) {
+        return PooledRequestScope.class.getName() + ".pooled." + name;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        if (pooling) {
+            // Called from inside objectFactory.getObject() in get()
+            pendingDestroy.set(callback);
+        } else {
+            RequestContextHolder.currentRequestAttributes()
+                    .registerDestructionCallback(name, callback, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return RequestContextHolder.currentRequestAttributes().resolveReference(key);
+    }
+
+    @Override
+    public String getConversationId() {
+        return null;
+    }
+
+    /**
+     * Idle instances of one bean; the counter bounds the deque, whose own
+     * size() is O(n)
+     */
+    private static final class Pool {
+        final ConcurrentLinkedDeque<PooledBean> idle = new ConcurrentLinkedDeque<>();
+        final AtomicInteger idleCount = new AtomicInteger();
+        final int capacity;
+
+        Pool(int capacity) {
+            this.capacity = capacity;
+        }
+
+        PooledBean poll() {
+            PooledBean pooled = idle.pollFirst();
+            if (pooled != null) {
+                idleCount.decrementAndGet();
+            }
+            return pooled;
+        }
+
+        /**
+         * @return false if the pool is full - the caller destroys the bean
+         */
+        boolean offer(PooledBean pooled) {
+            if (idleCount.incrementAndGet() > capacity) {
+                idleCount.decrementAndGet();
+                return false;
+            }
+            // Most recently used first: its memory is likeliest still in cache
+            idle.offerFirst(pooled);
+            return true;
+        }
+    }
+
+    private static final class PooledBean {
+        final Object bean;
+        final Runnable destroy;
+
+        PooledBean(Object bean, Runnable destroy) {
+            this.bean = bean;
+            this.destroy = destroy;
+        }
+
+        void destroy() {
+            if (destroy != null) {
+                destroy.run();
+            }
+        }
+    }
+}
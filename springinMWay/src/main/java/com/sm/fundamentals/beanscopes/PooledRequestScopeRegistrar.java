@@ -0,0 +1,41 @@
+package com.sm.fundamentals.beanscopes;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultSingletonBeanRegistry;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers PooledRequestScope under the name "pooledRequest"
+ *
+ * A BeanFactoryPostProcessor runs before any bean is created, so @Value
+ * is not available yet; the settings are read from the Environment:
+ *   app.request-scope.pooled=true      - recycle instances (false = stock behaviour)
+ *   app.request-scope.pool-size=64     - idle instances kept per bean, shared by all threads
+ *
+ * The scope is also registered as a disposable bean, so instances still
+ * idle in the pool get their @PreDestroy when the context closes.
+ */
+@Component
+public class PooledRequestScopeRegistrar implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        boolean pooled = environment.getProperty("app.request-scope.pooled", Boolean.class, true);
+        int poolSize = environment.getProperty("app.request-scope.pool-size", Integer.class, 64);
+        PooledRequestScope scope = new PooledRequestScope(pooled, poolSize);
+        beanFactory.registerScope(PooledRequestScope.NAME, scope);
+        if (beanFactory instanceof DefaultSingletonBeanRegistry registry) {
+            registry.registerDisposableBean(PooledRequestScope.class.getName(), scope);
+        }
+    }
+}
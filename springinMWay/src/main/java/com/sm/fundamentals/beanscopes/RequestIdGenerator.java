@@ -0,0 +1,64 @@
+package com.sm.fundamentals.beanscopes;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fast, TIME-ORDERED request ids
+ *
+ * UUID.randomUUID() draws 16 bytes from a shared SecureRandom on every
+ * call - a lock that every request thread contends on (and, on some
+ * platforms, a read from /dev/urandom while holding it). Here each id is
+ * built from values the calling thread already has:
+ *
+ *   most significant 64 bits:  epoch millis (48) | version 7 (4) | per-thread sequence (12)
+ *   least significant 64 bits: variant 10 (2) | JVM instance (30, random once) | thread ordinal (32)
+ *
+ * That is the RFC 9562 UUIDv7 layout - version and variant bits set, the
+ * "random" fields filled from a sequence and the instance/thread ids - so
+ * UUID.version() is 7 and tools that check the bits accept the ids.
+ *
+ * Ids are unique within a JVM (each thread owns its ordinal and counts its
+ * own sequence), unique across JVMs with high probability, and sort by
+ * creation time. More than 4096 ids in one millisecond on one thread
+ * borrow the next millisecond.
+ */
+public final class RequestIdGenerator {
+
+    private static final int INSTANCE = new SecureRandom().nextInt() & 0x3FFFFFFF;
+    private static final int MAX_SEQUENCE = 0xFFF;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC = 0x8000_0000_0000_0000L;
+    private static final AtomicInteger THREAD_ORDINALS = new AtomicInteger();
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private RequestIdGenerator() {
+    }
+
+    public static String next() {
+        return nextUuid().toString();
+    }
+
+    public static UUID nextUuid() {
+        State state = STATE.get();
+        long millis = System.currentTimeMillis();
+        if (millis > state.millis) {
+            state.millis = millis;
+            state.sequence = 0;
+        } else if (++state.sequence > MAX_SEQUENCE) {
+            // 4096 ids in one millisecond: borrow the next one, stay ordered
+            state.millis++;
+            state.sequence = 0;
+        }
+        long mostSig = (state.millis << 16) | VERSION_7 | state.sequence;
+        long leastSig = VARIANT_RFC | ((long) INSTANCE << 32) | (state.ordinal & 0xFFFFFFFFL);
+        return new UUID(mostSig, leastSig);
+    }
+
+    private static final class State {
+        final int ordinal = THREAD_ORDINALS.getAndIncrement();
+        long millis;
+        int sequence;
+    }
+}
@@ -5,45 +5,54 @@ import jakarta.annotation.PreDestroy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
-import org.springframework.web.context.WebApplicationContext;
-
-import java.util.UUID;
 // Marks this class as a Spring-managed component
 @Component
 /*
- * Defines REQUEST scope:
+ * Defines (pooled) REQUEST scope:
  * - One bean instance per HTTP request
- * - Bean is created when request starts
- * - Bean is destroyed when request ends
+ * - Bean is taken from the shared pool (or created) when request starts
+ * - Bean goes back to the pool when request ends - see PooledRequestScope
+ *   (WebApplicationContext.SCOPE_REQUEST would create and destroy one
+ *   instance per request instead)
  *
  * proxyMode is REQUIRED because this bean is injected
  * into singleton-scoped components (like controllers).
  */
 @Scope(
-        value = WebApplicationContext.SCOPE_REQUEST,
+        value = PooledRequestScope.NAME,
         proxyMode = ScopedProxyMode.TARGET_CLASS
 )
-public class RequestScopedBean {
-    // Unique identifier to prove a new instance per request
+public class RequestScopedBean implements PooledRequestScope.Recyclable {
+    // Unique per request - the instance itself may be recycled
     private String requestId;
     /*
      * Called immediately after the bean is created
      * and all dependencies are injected.
-     * Executes ONCE per HTTP request.
+     * Executes once per INSTANCE - pooled instances are reused
+     * by later requests without running it again.
      */
     @PostConstruct
     public void init() {
-        requestId = UUID.randomUUID().toString();
+        requestId = RequestIdGenerator.next();
         System.out.println("New request scope bean created: " + requestId);
     }
 
+    /*
+     * Called when a pooled instance is handed to a new request:
+     * reset all per-request state here.
+     */
+    @Override
+    public void recycle() {
+        requestId = RequestIdGenerator.next();
+    }
+
     // Returns the request-specific identifier
     public String getRequestId() {
         return requestId;
     }
     /*
-     * Called when the HTTP request is completed
-     * and the request-scoped bean is destroyed.
+     * Called when the request-scoped bean is destroyed - with pooling,
+     * when the pool is full, on remove(), or for idle ones at shutdown.
      */
     @PreDestroy
     public void destroy() {
@@ -1,12 +1,21 @@
 package com.sm.fundamentals.beanscopes;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 // Marks this class as a Spring-managed component
 @Component
@@ -20,27 +29,84 @@ import java.util.List;
  *
  * proxyMode is REQUIRED because this bean is injected
  * into singleton-scoped components (e.g., controllers).
+ *
+ * The cart itself is NOT kept in the session: the bean only holds the
+ * cart id, and the items live in a CartStore. The id also goes to the
+ * browser in the CART_ID cookie, so a new session - after a restart, or
+ * on another node - picks up the same cart.
  */
 @Scope(
         value = WebApplicationContext.SCOPE_SESSION,
         proxyMode = ScopedProxyMode.TARGET_CLASS
 )
 public class SessionScopedBean {
+
+    static final String CART_COOKIE = "CART_ID";
+    private static final Pattern CART_ID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final Duration CART_COOKIE_MAX_AGE = CartStore.DEFAULT_TTL;
+
+    private final CartStore cartStore;
     /*
      * Session-specific state.
-     * This list is shared across all requests
-     * belonging to the same HTTP session.
+     * Requests of one session can run at the same time (two browser
+     * tabs, or many virtual threads); the CartStore handles concurrent
+     * appends, so nothing here needs locking.
      */
-    private List<Item> items = new ArrayList<>();
+    private String cartId;
+
+    @Autowired
+    public SessionScopedBean(CartStore cartStore) {
+        this.cartStore = cartStore;
+    }
+
+    SessionScopedBean(CartStore cartStore, String cartId) {
+        this.cartStore = cartStore;
+        this.cartId = cartId;
+    }
+
+    /*
+     * Runs in the request that starts the session: reuse the cart named
+     * by the cookie, or start a new one. The id is a random UUID - it is
+     * the only thing needed to read a cart, so it must not be guessable.
+     */
+    @PostConstruct
+    public void init() {
+        ServletRequestAttributes attributes =
+                (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        cartId = cartIdFromCookie(attributes.getRequest());
+        if (cartId == null) {
+            cartId = UUID.randomUUID().toString();
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null) {
+                Cookie cookie = new Cookie(CART_COOKIE, cartId);
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) CART_COOKIE_MAX_AGE.toSeconds());
+                response.addCookie(cookie);
+            }
+        }
+    }
+
+    private static String cartIdFromCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (CART_COOKIE.equals(cookie.getName()) && CART_ID.matcher(cookie.getValue()).matches()) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
 
-    // Adds an item to the user's session-scoped shopping cart
+    // Adds an item to the user's shopping cart - writes only the new item
     public void addItem(Item item) {
-        items.add(item);
+        cartStore.addItem(cartId, item);
     }
 
-    // Returns all items currently stored in the session
+    // Returns a snapshot of the items currently in the cart
     public List<Item> getItems() {
-        return items;
+        return cartStore.getItems(cartId);
     }
 }
 
@@ -1,8 +1,13 @@
 package com.sm.fundamentals.beanscopes;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Singleton Scope Bean (Spring Default)
  *
@@ -10,40 +15,98 @@ import org.springframework.stereotype.Component;
  * - Same instance is shared across all injections and threads
  * - Suitable for stateless services
  * - MUST be thread-safe if mutable state is present
+ *
+ * Here the shared state is made thread-safe with AdaptiveCounter:
+ * named counters on striped cells (LongAdder), so many threads can
+ * increment without losing updates or contending on one variable.
+ * Set app.counters.adaptive=true to keep uncontended counters as a
+ * single AtomicLong until they actually get hot.
  */
 @Component
 @Scope("singleton") // Default scope; explicit here only for clarity
 public class SingletonBean {
+    static final String DEFAULT_COUNTER = "default";
+
     /*
      * Shared mutable state.
      * Since singleton beans are accessed by multiple threads,
-     * this variable can cause race conditions if not handled properly.
+     * every counter is a thread-safe AdaptiveCounter - a plain
+     * ++counter on an int would lose updates.
      */
-    private int counter = 0; // Shared state - DANGEROUS!
+    private final Map<String, AdaptiveCounter> counters = new ConcurrentHashMap<>();
+    private final boolean adaptive;
+    private final AdaptiveCounter counter;
 
     /*
      * Constructor is called ONLY ONCE when the Spring container
      * creates this singleton bean during application startup.
      */
-    public SingletonBean() {
+    public SingletonBean(@Value("${app.counters.adaptive:false}") boolean adaptive) {
+        this.adaptive = adaptive;
+        this.counter = counter(DEFAULT_COUNTER);
         System.out.println("SingletonBean instance created at: " + System.currentTimeMillis());
     }
 
     /*
-     * Increments and returns the counter value.
-     * WARNING: This operation is NOT thread-safe and may produce
-     * inconsistent results under concurrent access.
+     * Increments the default counter. Thread-safe.
+     * Returns nothing on purpose: a striped counter has no exact
+     * "my value" - two concurrent callers could both see the same sum.
+     * Read the total with getCounter().
      */
-    public int increment() {
-        return ++counter; // Not thread-safe!
+    public void increment() {
+        counter.add(1);
     }
 
     /*
-     * Returns the current counter value.
+     * Returns the current value of the default counter.
      * Value is shared across all callers since this is a singleton bean.
      */
     public int getCounter() {
-        return counter;
+        return (int) counter.sum();
+    }
+
+    /*
+     * Named counters - created on first use, shared by all callers.
+     */
+    public void increment(String name) {
+        counter(name).add(1);
+    }
+
+    public void add(String name, long delta) {
+        counter(name).add(delta);
+    }
+
+    public long getCount(String name) {
+        AdaptiveCounter named = counters.get(name);
+        return named == null ? 0 : named.sum();
+    }
+
+    /*
+     * Current value of every counter, sorted by name.
+     * Each value is read on its own, not as one atomic cut.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, named) -> snapshot.put(name, named.sum()));
+        return snapshot;
+    }
+
+    /*
+     * Reads and clears every counter (e.g. per reporting interval).
+     * Increments racing with the reset land in this snapshot or the next
+     * one - never in neither.
+     */
+    public Map<String, Long> snapshotAndReset() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, named) -> snapshot.put(name, named.sumThenReset()));
+        return snapshot;
+    }
+
+    private AdaptiveCounter counter(String name) {
+        AdaptiveCounter named = counters.get(name); // Lock-free on the hot path
+        return named != null
+                ? named
+                : counters.computeIfAbsent(name, key -> new AdaptiveCounter(adaptive));
     }
 
     /*
@@ -0,0 +1,132 @@
+package com.sm.fundamentals.beanscopes;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports VIRTUAL THREAD PINNING while requests run on virtual threads
+ *
+ * spring.threads.virtual.enabled=true makes Tomcat run every request on
+ * its own virtual thread (Java 21+). A virtual thread that blocks while
+ * holding a monitor - inside a synchronized block, or in a pre-21
+ * PrintStream lock behind System.out - cannot unmount and PINS its
+ * carrier thread; with only a few carriers, a handful of pinned requests
+ * stall all the others.
+ *
+ * The JVM emits a jdk.VirtualThreadPinned JFR event for every pin longer
+ * than the threshold. This monitor streams those events in-process and
+ * reports each one against the first application frame (com.sm.*) on
+ * the stack, e.g. a proxy advisor or a scoped bean. Each site's stack is
+ * printed once, after that it is only counted.
+ *
+ * Request- and session-scoped beans need nothing special: each request
+ * gets its own (virtual) thread, so RequestContextHolder's thread-local
+ * request attributes stay per request.
+ *
+ * On Java 17-20 the property has no effect and this only says so.
+ */
+@Component
+@ConditionalOnProperty(
+        name = "spring.threads.virtual.enabled",
+        havingValue = "true"
+)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.sm.";
+    private static final int REPORTED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinsBySite = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${app.threads.pinning-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            System.out.println("[VIRTUAL-THREADS] spring.threads.virtual.enabled=true is ignored on Java " +
+                    javaVersion + " - requests stay on the platform thread pool");
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        System.out.println("[VIRTUAL-THREADS] Requests run on virtual threads; reporting pins over " +
+                threshold.toMillis() + "ms");
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String site = pinSite(frames);
+
+        // Events arrive on the stream's single dispatch thread
+        LongAdder count = pinsBySite.computeIfAbsent(site, s -> new LongAdder());
+        count.increment();
+        if (count.sum() > 1) {
+            return;
+        }
+        StringBuilder report = new StringBuilder("[PINNED] ")
+                .append(event.getDuration().toMillis()).append("ms at ").append(site);
+        for (int i = 0; i < Math.min(REPORTED_FRAMES, frames.size()); i++) {
+            report.append("\n      at ").append(describe(frames.get(i)));
+        }
+        System.out.println(report);
+    }
+
+    /**
+     * @return pin count per application frame
+     */
+    public Map<String, Long> getPinCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        pinsBySite.forEach((site, count) -> counts.put(site, count.sum()));
+        return counts;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            getPinCounts().forEach((site, count) ->
+                    System.out.println("[VIRTUAL-THREADS] " + count + " pins at " + site));
+        }
+    }
+
+    /**
+     * First frame in our own code - that is where the monitor was taken
+     * or the blocking call was made; falls back to the top frame
+     */
+    private static String pinSite(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return frames.isEmpty() ? "<no stack trace>" : describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() +
+                (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
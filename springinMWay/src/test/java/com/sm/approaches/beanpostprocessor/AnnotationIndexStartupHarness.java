@@ -0,0 +1,185 @@
+package com.sm.approaches.beanpostprocessor;
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * STARTUP WITH and WITHOUT the annotation index - not a unit test, run by hand
+ *
+ * Refreshes a context of `beans` plain beans (5 classes, none annotated)
+ * behind the real post-processing chain: CompositeProxyBeanPostProcessor
+ * with the audit, log, perf and secure-field advisors, plus
+ * SecureFieldBeanPostProcessor. Only the AnnotationIndex differs:
+ *
+ *   index      - an index listing the 5 classes as unannotated (what
+ *                AnnotationIndexProcessor writes for them at build time)
+ *   reflection - no index: every advisor falls back to reflection
+ *
+ * Prints the whole refresh and, separately, the post-processing alone
+ * (the same two processors called directly on `beans` instances), which
+ * is the only part the index changes. The modes alternate for `rounds`
+ * rounds; the first round warms up.
+ *
+ *   java -cp target/classes:target/test-classes:<dependencies> \
+ *        com.sm.approaches.beanpostprocessor.AnnotationIndexStartupHarness [beans=5000] [rounds=5]
+ */
+public class AnnotationIndexStartupHarness {
+
+    private static final List<Class<?>> BEAN_CLASSES = List.of(
+            OrderBean.class, CustomerBean.class, InvoiceBean.class, ShipmentBean.class, ProductBean.class);
+
+    public static void main(String[] args) throws IOException {
+        int beans = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        AnnotationIndex withIndex = new AnnotationIndex(indexClassLoader());
+        AnnotationIndex withoutIndex = new AnnotationIndex(new URLClassLoader(new URL[0], null));
+        FieldProtection fieldProtection = new FieldProtection("benchmark", "salt", 1_000);
+
+        System.out.printf("%-8s %16s %16s%n", "", "refresh ms", "post-process us");
+        System.out.printf("%-8s %8s %7s %8s %7s%n", "", "index", "refl.", "index", "refl.");
+        for (int round = 0; round < rounds; round++) {
+            long indexedRefresh = refresh(beans, withIndex, fieldProtection);
+            long reflectiveRefresh = refresh(beans, withoutIndex, fieldProtection);
+            long indexedProcessing = postProcess(beans, withIndex, fieldProtection);
+            long reflectiveProcessing = postProcess(beans, withoutIndex, fieldProtection);
+            if (round > 0) {
+                System.out.printf("round %d: %7d %7d %8d %7d%n", round,
+                        indexedRefresh, reflectiveRefresh, indexedProcessing, reflectiveProcessing);
+            }
+        }
+    }
+
+    private static long refresh(int beans, AnnotationIndex index, FieldProtection fieldProtection) {
+        long start = System.nanoTime();
+        GenericApplicationContext context = new GenericApplicationContext();
+        DefaultListableBeanFactory beanFactory = context.getDefaultListableBeanFactory();
+        for (BeanPostProcessor processor : processors(index, fieldProtection)) {
+            beanFactory.addBeanPostProcessor(processor);
+        }
+        for (int i = 0; i < beans; i++) {
+            context.registerBean("bean" + i, BEAN_CLASSES.get(i % BEAN_CLASSES.size()));
+        }
+        context.refresh();
+        context.close();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long postProcess(int beans, AnnotationIndex index, FieldProtection fieldProtection) {
+        List<BeanPostProcessor> processors = processors(index, fieldProtection);
+        Object[] instances = new Object[beans];
+        for (int i = 0; i < beans; i++) {
+            instances[i] = BeanUtils.instantiateClass(BEAN_CLASSES.get(i % BEAN_CLASSES.size()));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < beans; i++) {
+            Object bean = instances[i];
+            for (BeanPostProcessor processor : processors) {
+                bean = processor.postProcessBeforeInitialization(bean, "bean" + i);
+                bean = processor.postProcessAfterInitialization(bean, "bean" + i);
+            }
+        }
+        return (System.nanoTime() - start) / 1_000;
+    }
+
+    private static List<BeanPostProcessor> processors(AnnotationIndex index,
+                                                      FieldProtection fieldProtection) {
+        return List.of(
+                new SecureFieldBeanPostProcessor(index, fieldProtection),
+                new CompositeProxyBeanPostProcessor(List.of(
+                        new AuditableAdvisor(new AuditEventDispatcher(new ConsoleAuditSink(), 64, 16,
+                                AuditOverflowPolicy.DROP), index, true),
+                        new LogExecutionAdvisor(index),
+                        new PerformanceMonitoringAdvisor(new LatencyMetricsRegistry(), index, true, false),
+                        new SecureFieldAccessAdvisor(index, fieldProtection))));
+    }
+
+    /**
+     * A class loader whose only resource is an index naming the bean classes
+     */
+    private static ClassLoader indexClassLoader() throws IOException {
+        Path root = Files.createTempDirectory("annotation-index");
+        Path file = root.resolve("META-INF/sm-annotation.index");
+        Files.createDirectories(file.getParent());
+        StringBuilder lines = new StringBuilder();
+        for (Class<?> type : BEAN_CLASSES) {
+            lines.append(type.getName()).append("=\n");
+        }
+        Files.writeString(file, lines);
+        file.toFile().deleteOnExit();
+        return new URLClassLoader(new URL[] {root.toUri().toURL()}, null);
+    }
+
+    // Typical service-layer beans: a handful of fields and accessors, no annotations
+
+    public static class OrderBean {
+        private String id = "o";
+        private String status = "NEW";
+        private long total;
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public long getTotal() { return total; }
+        public void setTotal(long total) { this.total = total; }
+        public boolean isOpen() { return !"CLOSED".equals(status); }
+    }
+
+    public static class CustomerBean {
+        private String name = "c";
+        private String email = "c@example.com";
+        private int orders;
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+        public int getOrders() { return orders; }
+        public void addOrder() { orders++; }
+    }
+
+    public static class InvoiceBean {
+        private String number = "i";
+        private long amount;
+        private boolean paid;
+        public String getNumber() { return number; }
+        public long getAmount() { return amount; }
+        public void setAmount(long amount) { this.amount = amount; }
+        public boolean isPaid() { return paid; }
+        public void markPaid() { paid = true; }
+    }
+
+    public static class ShipmentBean {
+        private String carrier = "post";
+        private String tracking = "t";
+        private int parcels;
+        public String getCarrier() { return carrier; }
+        public void setCarrier(String carrier) { this.carrier = carrier; }
+        public String getTracking() { return tracking; }
+        public int getParcels() { return parcels; }
+        public void setParcels(int parcels) { this.parcels = parcels; }
+    }
+
+    public static class ProductBean {
+        private String sku = "s";
+        private String title = "p";
+        private long price;
+        private int stock;
+        public String getSku() { return sku; }
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+        public long getPrice() { return price; }
+        public void setPrice(long price) { this.price = price; }
+        public int getStock() { return stock; }
+        public void setStock(int stock) { this.stock = stock; }
+    }
+}
@@ -0,0 +1,157 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditEventDispatcherTests {
+
+    @Test
+    void blockPolicyDeliversEveryEventFromConcurrentProducers() throws Exception {
+        CollectingSink sink = new CollectingSink();
+        AuditEventDispatcher dispatcher =
+                new AuditEventDispatcher(sink, 64, 16, AuditOverflowPolicy.BLOCK);
+        dispatcher.start();
+
+        int producers = 8;
+        int eventsPerProducer = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    dispatcher.publish(event());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        dispatcher.stop();
+
+        assertThat(dispatcher.getDroppedCount()).isZero();
+        assertThat(dispatcher.getWrittenCount()).isEqualTo((long) producers * eventsPerProducer);
+        assertThat(sink.events).hasSize(producers * eventsPerProducer);
+        assertThat(sink.closed).isTrue();
+    }
+
+    @Test
+    void dropPolicyCountsEventsThatDidNotFit() throws Exception {
+        CollectingSink sink = new CollectingSink();
+        // Not started: nothing drains, so only the buffer capacity is accepted
+        AuditEventDispatcher dispatcher =
+                new AuditEventDispatcher(sink, 8, 4, AuditOverflowPolicy.DROP);
+
+        for (int i = 0; i < 20; i++) {
+            dispatcher.publish(event());
+        }
+
+        assertThat(dispatcher.getPublishedCount()).isEqualTo(dispatcher.getCapacity());
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(20 - dispatcher.getCapacity());
+
+        dispatcher.stop();
+        assertThat(sink.events).hasSize(dispatcher.getCapacity());
+    }
+
+    @Test
+    void fullDropBufferRefusesBeforeTheEventIsBuilt() throws Exception {
+        AuditEventDispatcher dispatcher =
+                new AuditEventDispatcher(new CollectingSink(), 8, 4, AuditOverflowPolicy.DROP);
+        while (dispatcher.admit() && dispatcher.publish(event())) {
+            // fill the buffer
+        }
+        long dropped = dispatcher.getDroppedCount();
+
+        assertThat(dispatcher.admit()).isFalse();
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(dropped + 1);
+        assertThat(new AuditEventDispatcher(new CollectingSink(), 2, 1, AuditOverflowPolicy.BLOCK).admit())
+                .isTrue();
+        dispatcher.stop();
+    }
+
+    @Test
+    void argumentsAreAuditedAsTheyWereAtCallTime() throws Exception {
+        CollectingSink sink = new CollectingSink();
+        AuditEventDispatcher dispatcher =
+                new AuditEventDispatcher(sink, 8, 4, AuditOverflowPolicy.DROP);
+        List<String> order = new ArrayList<>(List.of("item-1"));
+
+        dispatcher.publish(new AuditEvent(System.currentTimeMillis(), "bean", "addItem",
+                new Object[] {order}, order, null, 1_000));
+        order.add("added-after-the-call");
+        dispatcher.stop();
+
+        StringBuilder line = new StringBuilder();
+        sink.events.get(0).appendLine(line);
+        assertThat(line.toString())
+                .contains("args=[[item-1]]", "result=[item-1]")
+                .doesNotContain("added-after-the-call");
+    }
+
+    @Test
+    void stopWaitsForTheDrainThreadBeforeDrainingItself() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        List<String> writers = new ArrayList<>();
+        AuditSink slowSink = new AuditSink() {
+            @Override
+            public void write(List<AuditEvent> batch) {
+                synchronized (writers) {
+                    writers.add(Thread.currentThread().getName());
+                }
+                writing.countDown();
+                if (!Thread.currentThread().getName().equals("audit-drain")) {
+                    return; // stop()'s own drain on the test thread
+                }
+                try {
+                    Thread.sleep(60_000); // stuck until stop() interrupts it
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        AuditEventDispatcher dispatcher =
+                new AuditEventDispatcher(slowSink, 8, 1, AuditOverflowPolicy.DROP);
+        dispatcher.stopGraceMillis = 100;
+        dispatcher.start();
+        dispatcher.publish(event());
+        writing.await();
+        dispatcher.publish(event());
+
+        dispatcher.stop();
+
+        // The drain thread wrote first; the caller only drained after it had exited
+        assertThat(writers).containsExactly("audit-drain", Thread.currentThread().getName());
+    }
+
+    private static AuditEvent event() {
+        return new AuditEvent(System.currentTimeMillis(), "bean", "method",
+                new Object[] {1L}, "result", null, 1_000);
+    }
+
+    private static class CollectingSink implements AuditSink {
+        final List<AuditEvent> events = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public void write(List<AuditEvent> batch) {
+            events.addAll(batch);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompositeProxyBeanPostProcessorTests {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void runsAdviceInOrderAroundAdvisedMethodsOnly() {
+        CompositeProxyBeanPostProcessor processor = new CompositeProxyBeanPostProcessor(
+                List.of(new RecordingAdvisor("inner", 2), new RecordingAdvisor("outer", 1)));
+
+        Greeter proxy = (Greeter) processor.postProcessAfterInitialization(
+                new Greeter("hello"), "greeter");
+
+        assertThat(proxy.greet("bob")).isEqualTo("hello bob");
+        assertThat(calls).containsExactly("outer", "inner");
+
+        calls.clear();
+        assertThat(proxy.plain()).isEqualTo("hello");
+        assertThat(calls).isEmpty();
+    }
+
+    @Test
+    void reusesTheProxyClassForBeansWithTheSamePlan() {
+        CompositeProxyBeanPostProcessor processor = new CompositeProxyBeanPostProcessor(
+                List.of(new RecordingAdvisor("only", 1)));
+
+        Greeter first = (Greeter) processor.postProcessAfterInitialization(
+                new Greeter("hi"), "first");
+        Greeter second = (Greeter) processor.postProcessAfterInitialization(
+                new Greeter("hey"), "second");
+
+        assertThat(first.getClass()).isSameAs(second.getClass());
+        assertThat(first.greet("a")).isEqualTo("hi a");
+        assertThat(second.greet("b")).isEqualTo("hey b");
+    }
+
+    public static class Greeter {
+        private final String greeting;
+
+        public Greeter() {
+            this("default");
+        }
+
+        public Greeter(String greeting) {
+            this.greeting = greeting;
+        }
+
+        public String greet(String name) {
+            return greeting + " " + name;
+        }
+
+        public String plain() {
+            return greeting;
+        }
+    }
+
+    private class RecordingAdvisor implements ProxyAdvisor {
+        private final String name;
+        private final int order;
+
+        RecordingAdvisor(String name, int order) {
+            this.name = name;
+            this.order = order;
+        }
+
+        @Override
+        public BeanAdvice adviceFor(Object bean, String beanName) {
+            return method -> method.getName().equals("greet")
+                    ? invocation -> {
+                        calls.add(name);
+                        return invocation.proceed();
+                    }
+                    : null;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.sm.approaches.beanpostprocessor;
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * FieldProtection throughput - not a unit test, run by hand
+ *
+ * For value sizes from an API key (32 B) to 64 KiB prints ops/s and MB/s
+ * (of plaintext) for encrypt, decrypt and the 1000-value batch APIs, then
+ * the cost of a @SecureField(decryptOnAccess = true) getter called
+ * through the proxy, next to a plain getter on the same bean.
+ *
+ * Each line runs for `millis` on one thread after a warm-up of the same
+ * length; the key is derived once, before any measurement.
+ *
+ *   java -cp target/classes:target/test-classes:<dependencies> \
+ *        com.sm.approaches.beanpostprocessor.FieldProtectionBenchmarkHarness [millis=2000]
+ */
+public class FieldProtectionBenchmarkHarness {
+
+    private static final int BATCH = 1000;
+
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+
+        long derive = System.nanoTime();
+        FieldProtection protection = new FieldProtection("benchmark-key", "benchmark-salt", 210_000);
+        System.out.printf("key derivation (once, 210000 PBKDF2 rounds): %d ms%n%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - derive));
+
+        System.out.printf("%-22s %12s %10s%n", "", "ops/s", "MB/s");
+        for (int size : new int[] {32, 1024, 65536}) {
+            String plain = "x".repeat(size);
+            String sealed = protection.encrypt(plain, "apiKey");
+            measure("encrypt " + size + " B", millis, size, () -> protection.encrypt(plain, "apiKey").length());
+            measure("decrypt " + size + " B", millis, size, () -> protection.decrypt(sealed, "apiKey").length());
+        }
+
+        List<String> plains = Collections.nCopies(BATCH, "x".repeat(32));
+        List<String> sealedBatch = protection.encryptAll(plains);
+        measure("encryptAll 1000x32 B", millis, 32L * BATCH, () -> protection.encryptAll(plains).size());
+        measure("decryptAll 1000x32 B", millis, 32L * BATCH, () -> protection.decryptAll(sealedBatch).size());
+
+        AnnotationIndex index = new AnnotationIndex();
+        Credentials credentials = (Credentials) new CompositeProxyBeanPostProcessor(
+                List.of(new SecureFieldAccessAdvisor(index, protection)))
+                .postProcessAfterInitialization(
+                        new SecureFieldBeanPostProcessor(index, protection)
+                                .postProcessBeforeInitialization(new Credentials(), "credentials"),
+                        "credentials");
+        System.out.println();
+        measure("getApiKey (decrypt)", millis, 32, () -> credentials.getApiKey().length());
+        measure("getPublicData (plain)", millis, 32, () -> credentials.getPublicData().length());
+    }
+
+    private static void measure(String name, long millis, long plainBytes, IntSupplier op) {
+        List<Long> sink = new ArrayList<>();
+        run(millis, op, sink); // warm up
+        long start = System.nanoTime();
+        long ops = run(millis, op, sink);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-22s %12.0f %10.1f%n", name, ops / seconds,
+                ops * plainBytes / seconds / (1024 * 1024));
+    }
+
+    private static long run(long millis, IntSupplier op, List<Long> sink) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long ops = 0;
+        long checksum = 0;
+        while (System.nanoTime() < deadline) {
+            checksum += op.getAsInt();
+            ops++;
+        }
+        sink.add(checksum);
+        return ops;
+    }
+
+    /**
+     * UserServiceBP-style bean: one lazily decrypted key, one plain field
+     */
+    public static class Credentials {
+        @SecureField(decryptOnAccess = true)
+        private String apiKey = "0123456789abcdef0123456789abcdef";
+        private String publicData = "0123456789abcdef0123456789abcdef";
+
+        public String getApiKey() { return apiKey; }
+        public String getPublicData() { return publicData; }
+    }
+}
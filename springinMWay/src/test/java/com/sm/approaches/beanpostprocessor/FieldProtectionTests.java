@@ -0,0 +1,43 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class FieldProtectionTests {
+
+    private final FieldProtection protection = new FieldProtection("test-key", "test-salt", 1000);
+
+    @Test
+    void roundTripsAndRejectsTamperedOrMovedValues() {
+        String sealed = protection.encrypt("päss wörd", "password");
+
+        assertThat(protection.isProtected(sealed)).isTrue();
+        assertThat(sealed).doesNotContain("päss");
+        assertThat(protection.encrypt("päss wörd", "password")).isNotEqualTo(sealed);
+        assertThat(protection.decrypt(sealed, "password")).isEqualTo("päss wörd");
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> protection.decrypt(sealed, "apiKey"));
+
+        char[] chars = sealed.toCharArray();
+        int inCiphertext = FieldProtection.PREFIX.length() + 20;
+        chars[inCiphertext] = chars[inCiphertext] == 'A' ? 'B' : 'A';
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> protection.decrypt(new String(chars), "password"));
+    }
+
+    @Test
+    void encryptsAndDecryptsBatches() {
+        List<String> plain = Arrays.asList("one", "", null, "three");
+
+        List<String> sealed = protection.encryptAll(plain);
+
+        assertThat(sealed.get(2)).isNull();
+        assertThat(protection.decryptAll(sealed)).isEqualTo(plain);
+    }
+}
@@ -0,0 +1,91 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTests {
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        // 1us .. 10ms in 1us steps
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(10_000);
+        assertThat(snapshot.getMeanMicros()).isCloseTo(5_000.5, within(0.01));
+        assertThat(snapshot.getP50Micros()).isCloseTo(5_000, within(5_000 * 0.02));
+        assertThat(snapshot.getP99Micros()).isCloseTo(9_900, within(9_900 * 0.02));
+        assertThat(snapshot.getP999Micros()).isCloseTo(9_990, within(9_990 * 0.02));
+        assertThat(snapshot.getMaxMicros()).isCloseTo(10_000, within(10_000 * 0.02));
+    }
+
+    @Test
+    void intervalSnapshotsAndResetOnlySeeNewSamples() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        histogram.record(1_000);
+        histogram.record(2_000);
+
+        assertThat(histogram.intervalSnapshot().getCount()).isEqualTo(2);
+
+        histogram.record(3_000);
+        assertThat(histogram.intervalSnapshot().getCount()).isEqualTo(1);
+        assertThat(histogram.intervalSnapshot().getCount()).isZero();
+        assertThat(histogram.snapshot().getCount()).isEqualTo(3);
+
+        histogram.reset();
+        histogram.record(4_000);
+        assertThat(histogram.snapshot().getCount()).isEqualTo(1);
+        assertThat(histogram.snapshot().getMaxMicros()).isCloseTo(4.0, within(0.1));
+    }
+
+    @Test
+    void countThatRunsAheadOfTheBucketsStillGivesPercentiles() {
+        // What a merge can see mid-record(): count slot bumped, bucket not yet
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT + 2];
+        counts[LatencyHistogram.bucketIndex(1_000_000)] = 99;
+        counts[LatencyHistogram.countSlot()] = 100;
+        counts[LatencyHistogram.sumSlot()] = 99 * 1_000_000L;
+
+        LatencySnapshot snapshot = LatencySnapshot.of("test", counts);
+
+        assertThat(snapshot.getCount()).isEqualTo(99);
+        assertThat(snapshot.getP999Micros()).isCloseTo(1_000, within(1_000 * 0.02));
+    }
+
+    @Test
+    void snapshotsTakenWhileRecordingNeverReportAZeroP99() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] recorders = new Thread[4];
+        for (int t = 0; t < recorders.length; t++) {
+            recorders[t] = new Thread(() -> {
+                while (running.get()) {
+                    histogram.record(1_000_000);
+                }
+            });
+            recorders[t].start();
+        }
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                LatencySnapshot snapshot = histogram.snapshot();
+                if (snapshot.getCount() > 0) {
+                    assertThat(snapshot.getP99Micros()).isPositive();
+                    assertThat(snapshot.getP999Micros()).isPositive();
+                }
+            }
+        } finally {
+            running.set(false);
+            for (Thread recorder : recorders) {
+                recorder.join();
+            }
+        }
+    }
+}
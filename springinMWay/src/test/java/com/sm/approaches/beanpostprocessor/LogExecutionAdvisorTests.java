@@ -0,0 +1,75 @@
+package com.sm.approaches.beanpostprocessor;
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogExecutionAdvisorTests {
+
+    // Advanced by the beans' methods: a call "takes" exactly what it is asked to
+    static final AtomicLong CLOCK = new AtomicLong();
+
+    @Test
+    void slowerThanMicrosLogsOnlySlowCalls() {
+        String log = run(new SlowOnly(), bean -> {
+            ((SlowOnly) bean).work("fast", 999);
+            ((SlowOnly) bean).work("slow", 5_000);
+            ((SlowOnly) bean).work("edge", 1_000);
+        });
+
+        assertThat(log).contains("[LOG] Slow execution: work took 5000us", "Arguments: [slow, 5000]")
+                .contains("work took 1000us")
+                .doesNotContain("fast", "Executing");
+    }
+
+    @Test
+    void rateLimitedLoggingRefillsWithTheClock() {
+        String log = run(new Limited(), bean -> {
+            for (int i = 0; i < 5; i++) {
+                ((Limited) bean).work("burst-" + i, 0);
+            }
+            ((Limited) bean).work("later", TimeUnit.SECONDS.toMicros(1)); // refills after it logs
+            ((Limited) bean).work("refilled", 0);
+        });
+
+        assertThat(log).contains("burst-0", "burst-1", "refilled")
+                .doesNotContain("burst-2", "burst-4", "later");
+    }
+
+    private static String run(Object target, Consumer<Object> calls) {
+        CompositeProxyBeanPostProcessor processor = new CompositeProxyBeanPostProcessor(
+                List.of(new LogExecutionAdvisor(new AnnotationIndex(), CLOCK::get)));
+        PrintStream out = System.out;
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(log, true, StandardCharsets.UTF_8));
+        try {
+            calls.accept(processor.postProcessAfterInitialization(target, "bean"));
+        } finally {
+            System.setOut(out);
+        }
+        return log.toString(StandardCharsets.UTF_8);
+    }
+
+    @LogExecution(logResult = false, slowerThanMicros = 1_000)
+    public static class SlowOnly {
+        public void work(String name, long micros) {
+            CLOCK.addAndGet(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+    }
+
+    @LogExecution(logResult = false, maxPerSecond = 2)
+    public static class Limited {
+        public void work(String name, long micros) {
+            CLOCK.addAndGet(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+    }
+}
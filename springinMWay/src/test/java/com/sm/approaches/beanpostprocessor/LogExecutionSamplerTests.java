@@ -0,0 +1,65 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogExecutionSamplerTests {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(42));
+
+    @Test
+    void sampleRateBoundsAreNeverAndAlways() {
+        assertThat(sampled(new LogExecutionSampler(0.0, 0), 10_000)).isZero();
+        assertThat(sampled(new LogExecutionSampler(-1.0, 0), 10_000)).isZero();
+        assertThat(sampled(new LogExecutionSampler(1.0, 0), 10_000)).isEqualTo(10_000);
+        assertThat(sampled(new LogExecutionSampler(2.0, 0), 10_000)).isEqualTo(10_000);
+        // Random in between - 20k draws keep a quarter well inside 20..30%
+        assertThat(sampled(new LogExecutionSampler(0.25, 0), 20_000)).isBetween(4_000, 6_000);
+    }
+
+    @Test
+    void rateLimitAllowsOneSecondBurstThenRefillsOneTokenPerInterval() {
+        LogExecutionSampler sampler = new LogExecutionSampler(1.0, 10, clock::get);
+
+        assertThat(acquired(sampler, 100)).isEqualTo(10); // the burst
+        assertThat(sampler.tryAcquire()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(99));
+        assertThat(sampler.tryAcquire()).isFalse();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(sampler.tryAcquire()).isTrue(); // 100ms = one token
+        assertThat(sampler.tryAcquire()).isFalse();
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertThat(acquired(sampler, 100)).isEqualTo(10); // idle never banks more than a second
+    }
+
+    @Test
+    void noRateLimitAlwaysAcquires() {
+        assertThat(acquired(new LogExecutionSampler(1.0, 0, clock::get), 10_000)).isEqualTo(10_000);
+    }
+
+    private static int sampled(LogExecutionSampler sampler, int calls) {
+        int sampled = 0;
+        for (int i = 0; i < calls; i++) {
+            if (sampler.sample()) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+
+    private static int acquired(LogExecutionSampler sampler, int calls) {
+        int acquired = 0;
+        for (int i = 0; i < calls; i++) {
+            if (sampler.tryAcquire()) {
+                acquired++;
+            }
+        }
+        return acquired;
+    }
+}
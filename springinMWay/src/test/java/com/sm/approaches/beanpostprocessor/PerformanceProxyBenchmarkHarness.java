@@ -0,0 +1,99 @@
+package com.sm.approaches.beanpostprocessor;
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * PER-CALL REFLECTION vs PRECOMPUTED PLAN - not a unit test, run by hand
+ *
+ * Calls a @PerformanceMonitored method and an unmonitored one through:
+ *
+ *   direct  - the bean itself, no proxy
+ *   legacy  - the original interceptor: getMethod() + isAnnotationPresent()
+ *             on every call, then Method.invoke (its per-call println is
+ *             left out, so only the dispatch is compared)
+ *   planned - the current proxy: PerformanceMonitoringAdvisor through
+ *             CompositeProxyBeanPostProcessor (histogram recorded, no println)
+ *
+ * Prints ns and bytes allocated per call (com.sun.management.ThreadMXBean).
+ *
+ *   java -cp target/classes:target/test-classes:<dependencies> \
+ *        com.sm.approaches.beanpostprocessor.PerformanceProxyBenchmarkHarness [calls=5000000]
+ */
+public class PerformanceProxyBenchmarkHarness {
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        Calculator direct = new Calculator();
+        Calculator legacy = legacyProxy(new Calculator());
+        Calculator planned = (Calculator) new CompositeProxyBeanPostProcessor(List.of(
+                new PerformanceMonitoringAdvisor(new LatencyMetricsRegistry(),
+                        new AnnotationIndex(), true, false)))
+                .postProcessAfterInitialization(new Calculator(), "calculator");
+
+        for (int round = 0; round < 2; round++) { // the first round warms up
+            boolean print = round == 1;
+            measure("direct monitored", calls, print, direct::monitored);
+            measure("legacy monitored", calls, print, legacy::monitored);
+            measure("planned monitored", calls, print, planned::monitored);
+            measure("direct plain", calls, print, direct::plain);
+            measure("legacy plain", calls, print, legacy::plain);
+            measure("planned plain", calls, print, planned::plain);
+        }
+    }
+
+    private static void measure(String mode, int calls, boolean print, IntUnaryOperator call) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < calls; i++) {
+            checksum += call.applyAsInt(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (print) {
+            System.out.printf("%-18s %8.1f ns/call %6d B/call  (checksum %d)%n", mode,
+                    (double) elapsed / calls, allocated / calls, checksum);
+        }
+    }
+
+    /**
+     * The interceptor PerformanceMonitoringBeanPostProcessor used to install
+     */
+    private static Calculator legacyProxy(Calculator target) {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(Calculator.class);
+        enhancer.setCallback((MethodInterceptor) (obj, method, args, proxy) -> {
+            Method targetMethod = target.getClass().getMethod(
+                    method.getName(), method.getParameterTypes());
+            if (targetMethod.isAnnotationPresent(PerformanceMonitored.class)) {
+                long startTime = System.nanoTime();
+                Object result = method.invoke(target, args);
+                long durationNanos = System.nanoTime() - startTime;
+                return durationNanos >= 0 ? result : null;
+            }
+            return method.invoke(target, args);
+        });
+        return (Calculator) enhancer.create();
+    }
+
+    public static class Calculator {
+        @PerformanceMonitored
+        public int monitored(int value) {
+            return value * 31 + 7;
+        }
+
+        public int plain(int value) {
+            return value * 17 + 3;
+        }
+    }
+}
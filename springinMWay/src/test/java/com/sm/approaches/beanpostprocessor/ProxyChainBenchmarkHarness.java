@@ -0,0 +1,130 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * STACKED vs FUSED proxies - not a unit test, run by hand
+ *
+ * The same three pieces of advice (audit, log, perf - each reduced to a
+ * counter increment, so only the dispatch is measured) around one method:
+ *
+ *   direct  - the bean itself
+ *   stacked - how the processors used to wrap it: a JDK Proxy (audit) over
+ *             a CGLIB subclass (log) over a CGLIB subclass (perf), every
+ *             layer calling the next through Method.invoke
+ *   fused   - one proxy from CompositeProxyBeanPostProcessor, the three
+ *             advisors in one Ordered chain, target called via MethodProxy
+ *
+ * Prints ns and bytes allocated per call (com.sun.management.ThreadMXBean).
+ *
+ *   java -cp target/classes:target/test-classes:<dependencies> \
+ *        com.sm.approaches.beanpostprocessor.ProxyChainBenchmarkHarness [calls=5000000]
+ */
+public class ProxyChainBenchmarkHarness {
+
+    private static long adviceCalls;
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        Greeter direct = new GreeterImpl();
+        Greeter stacked = stacked(new GreeterImpl());
+        Greeter fused = (Greeter) new CompositeProxyBeanPostProcessor(List.of(
+                new CountingAdvisor(100), new CountingAdvisor(200), new CountingAdvisor(300)))
+                .postProcessAfterInitialization(new GreeterImpl(), "greeter");
+
+        for (int round = 0; round < 2; round++) { // the first round warms up
+            boolean print = round == 1;
+            measure("direct", calls, print, direct);
+            measure("stacked", calls, print, stacked);
+            measure("fused", calls, print, fused);
+        }
+    }
+
+    private static void measure(String mode, int calls, boolean print, Greeter greeter) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long adviceBefore = adviceCalls;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < calls; i++) {
+            checksum += greeter.score(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (print) {
+            System.out.printf("%-8s %8.1f ns/call %6d B/call  %d advice/call  (checksum %d)%n",
+                    mode, (double) elapsed / calls, allocated / calls,
+                    (adviceCalls - adviceBefore) / calls, checksum);
+        }
+    }
+
+    /**
+     * perf (innermost) -> log -> audit (outermost), as the three processors
+     * used to wrap the bean one after another
+     */
+    private static Greeter stacked(GreeterImpl target) {
+        GreeterImpl perf = cglibLayer(target);
+        GreeterImpl log = cglibLayer(perf);
+        InvocationHandler audit = (proxy, method, args) -> {
+            adviceCalls++;
+            return method.invoke(log, args);
+        };
+        return (Greeter) Proxy.newProxyInstance(Greeter.class.getClassLoader(),
+                new Class<?>[] {Greeter.class}, audit);
+    }
+
+    private static GreeterImpl cglibLayer(GreeterImpl target) {
+        // Subclasses the bean class, not the previous proxy class: the CGLIB in
+        // spring-core cannot define a subclass of a generated class without
+        // --add-opens, and the call path (Method.invoke on the next layer) is the same
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(GreeterImpl.class);
+        enhancer.setCallback((MethodInterceptor) (obj, method, args, proxy) -> {
+            adviceCalls++;
+            return method.invoke(target, args);
+        });
+        return (GreeterImpl) enhancer.create();
+    }
+
+    private static class CountingAdvisor implements ProxyAdvisor {
+        private final int order;
+
+        CountingAdvisor(int order) {
+            this.order = order;
+        }
+
+        @Override
+        public BeanAdvice adviceFor(Object bean, String beanName) {
+            return method -> method.getName().equals("score")
+                    ? invocation -> {
+                        adviceCalls++;
+                        return invocation.proceed();
+                    }
+                    : null;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+
+    public interface Greeter {
+        int score(int value);
+    }
+
+    public static class GreeterImpl implements Greeter {
+        @Override
+        public int score(int value) {
+            return value * 31 + 7;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.sm.approaches.beanpostprocessor;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * PROXY CLASS CACHE at startup - not a unit test, run by hand
+ *
+ * Refreshes `contexts` application contexts one after another (as a test
+ * suite with several contexts does), each with `beans` proxied beans of
+ * the same class, and prints per context: refresh time, classes loaded
+ * and metaspace used.
+ *
+ *   uncached - a fresh Enhancer with CGLIB's own cache off: one generated
+ *              class per bean, as the request describes the old processors
+ *   cglib    - a fresh Enhancer per bean with CGLIB's own cache (what the
+ *              composite processor did before the proxy class cache)
+ *   cached   - CompositeProxyBeanPostProcessor: one class per (bean class,
+ *              plan), instances created through Objenesis
+ *
+ * Run each mode in its own JVM - generated classes are never unloaded
+ * while the JVM runs, so a mode would otherwise inherit the last one's:
+ *
+ *   java -cp target/classes:target/test-classes:<dependencies> \
+ *        com.sm.approaches.beanpostprocessor.ProxyClassCacheBenchmarkHarness \
+ *        cached [beans=1000] [contexts=3]
+ */
+public class ProxyClassCacheBenchmarkHarness {
+
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "cached";
+        int beans = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int contexts = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        Supplier<BeanPostProcessor> processor;
+        switch (mode) {
+            case "uncached":
+                processor = () -> enhancerPerBean(false);
+                break;
+            case "cglib":
+                processor = () -> enhancerPerBean(true);
+                break;
+            case "cached":
+                processor = () -> new CompositeProxyBeanPostProcessor(List.of(new NoOpAdvisor()));
+                break;
+            default:
+                throw new IllegalArgumentException("mode must be uncached, cglib or cached");
+        }
+
+        System.out.printf("%s: %d beans per context%n", mode, beans);
+        for (int c = 1; c <= contexts; c++) {
+            long classesBefore = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+            long metaspaceBefore = metaspaceUsed();
+            long start = System.nanoTime();
+
+            GenericApplicationContext context = new GenericApplicationContext();
+            context.registerBean("proxyProcessor", BeanPostProcessor.class, processor);
+            for (int i = 0; i < beans; i++) {
+                context.registerBean("target" + i, Target.class);
+            }
+            context.refresh();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            long proxied = context.getBeansOfType(Target.class).values().stream()
+                    .filter(bean -> bean.getClass() != Target.class).count();
+            context.close();
+
+            System.out.printf("  context %d: %5d ms %6d classes loaded %8d KB metaspace  (%d proxied)%n",
+                    c, elapsedMs,
+                    ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() - classesBefore,
+                    (metaspaceUsed() - metaspaceBefore) / 1024, proxied);
+        }
+    }
+
+    private static BeanPostProcessor enhancerPerBean(boolean useCache) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof Target)) {
+                    return bean;
+                }
+                Enhancer enhancer = new Enhancer();
+                enhancer.setUseCache(useCache);
+                enhancer.setSuperclass(Target.class);
+                enhancer.setCallback((MethodInterceptor) (obj, method, args, proxy) ->
+                        proxy.invoke(bean, args));
+                return enhancer.create();
+            }
+        };
+    }
+
+    private static long metaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().equals("Metaspace")) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return 0;
+    }
+
+    private static class NoOpAdvisor implements ProxyAdvisor {
+        @Override
+        public BeanAdvice adviceFor(Object bean, String beanName) {
+            return bean instanceof Target
+                    ? method -> method.getName().equals("work") ? AdvisedInvocation::proceed : null
+                    : null;
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+    }
+
+    public static class Target {
+        public int work(int value) {
+            return value + 1;
+        }
+
+        public int other(int value) {
+            return value - 1;
+        }
+    }
+}
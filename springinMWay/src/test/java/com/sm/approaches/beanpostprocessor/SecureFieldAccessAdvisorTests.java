@@ -0,0 +1,78 @@
+package com.sm.approaches.beanpostprocessor;
+
+import com.sm.approaches.beanpostprocessor.index.AnnotationIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecureFieldAccessAdvisorTests {
+
+    private final FieldProtection protection = new FieldProtection("test-key", "test-salt", 1000);
+    private final List<AuditEvent> audited = new ArrayList<>();
+
+    @Test
+    void plaintextNeverReachesAuditOrLog() throws Exception {
+        AuditEventDispatcher dispatcher = new AuditEventDispatcher(audited::addAll, 64, 16,
+                AuditOverflowPolicy.BLOCK);
+        AnnotationIndex index = new AnnotationIndex();
+        CompositeProxyBeanPostProcessor processor = new CompositeProxyBeanPostProcessor(List.of(
+                new AuditableAdvisor(dispatcher, index, true),
+                new LogExecutionAdvisor(index),
+                new SecureFieldAccessAdvisor(index, protection)));
+
+        PrintStream out = System.out;
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(log, true, StandardCharsets.UTF_8));
+        Vault vault;
+        try {
+            Object bean = new SecureFieldBeanPostProcessor(index, protection)
+                    .postProcessBeforeInitialization(new Vault(), "vault");
+            vault = (Vault) processor.postProcessAfterInitialization(bean, "vault");
+
+            assertThat(vault.getToken()).isEqualTo("initial-secret");
+            vault.setToken("rotated-secret");
+            assertThat(vault.getToken()).isEqualTo("rotated-secret");
+        } finally {
+            System.setOut(out);
+        }
+        dispatcher.stop();
+
+        StringBuilder auditOutput = new StringBuilder();
+        audited.forEach(event -> event.appendLine(auditOutput));
+        assertThat(audited).hasSize(3);
+        assertThat(auditOutput.toString()).contains(FieldProtection.PREFIX)
+                .doesNotContain("initial-secret", "rotated-secret");
+        assertThat(log.toString(StandardCharsets.UTF_8)).contains("[LOG] Result: " + FieldProtection.PREFIX)
+                .doesNotContain("initial-secret", "rotated-secret");
+    }
+
+    @Test
+    void setterEncryptsValuesThatOnlyLookEncrypted() {
+        AnnotationIndex index = new AnnotationIndex();
+        Vault vault = (Vault) new CompositeProxyBeanPostProcessor(
+                List.of(new SecureFieldAccessAdvisor(index, protection)))
+                .postProcessAfterInitialization(new Vault(), "vault");
+        String planted = protection.encrypt("attacker-chosen", "token");
+
+        vault.setToken(planted);
+
+        // Stored as an opaque value: the getter hands back exactly what was set
+        assertThat(vault.getToken()).isEqualTo(planted);
+    }
+
+    @Auditable("test vault")
+    @LogExecution(logArgs = true, logResult = true)
+    public static class Vault {
+        @SecureField(decryptOnAccess = true)
+        private String token = "initial-secret";
+
+        public String getToken() { return token; }
+        public void setToken(String token) { this.token = token; }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sm.approaches.beanpostprocessor.index;
+
+import com.sm.approaches.beanpostprocessor.Auditable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnnotationIndexProcessorTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void indexesClassMethodFieldAndNestedAnnotations() throws Exception {
+        Path source = dir.resolve("src/demo/Beans.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, String.join("\n",
+                "package demo;",
+                "import com.sm.approaches.beanpostprocessor.*;",
+                "@Auditable(\"demo\")",
+                "public class Beans {",
+                "    @SecureField private String token;",
+                "    @Deprecated public void old() {}",
+                "    public static class Plain {}",
+                "    public static class Timed {",
+                "        @PerformanceMonitored public void run() {}",
+                "    }",
+                "}"));
+        Path out = Files.createDirectories(dir.resolve("classes"));
+
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files = javac.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = files.getJavaFileObjects(source);
+            String classpath = Path.of(Auditable.class.getProtectionDomain()
+                    .getCodeSource().getLocation().toURI()).toString();
+            JavaCompiler.CompilationTask task = javac.getTask(null, files, null,
+                    List.of("-d", out.toString(), "-classpath", classpath), null, units);
+            task.setProcessors(List.of(new AnnotationIndexProcessor()));
+            assertThat(task.call()).isTrue();
+        }
+
+        // Sorted by class, only the indexed annotations, nested classes by binary name
+        assertThat(Files.readAllLines(out.resolve(AnnotationIndexProcessor.INDEX_LOCATION))).containsExactly(
+                "demo.Beans=com.sm.approaches.beanpostprocessor.Auditable,"
+                        + "com.sm.approaches.beanpostprocessor.SecureField",
+                "demo.Beans$Plain=",
+                "demo.Beans$Timed=com.sm.approaches.beanpostprocessor.PerformanceMonitored");
+    }
+}
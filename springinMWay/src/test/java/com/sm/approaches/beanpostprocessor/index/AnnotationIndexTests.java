@@ -0,0 +1,87 @@
+package com.sm.approaches.beanpostprocessor.index;
+
+import com.sm.approaches.beanpostprocessor.Auditable;
+import com.sm.approaches.beanpostprocessor.LogExecution;
+import com.sm.approaches.beanpostprocessor.SecureField;
+import com.sm.approaches.beanpostprocessor.UserServiceBP;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnnotationIndexTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void indexedClassIsSkippedForAnnotationsItDoesNotDeclare() throws Exception {
+        AnnotationIndex index = indexOf(
+                Plain.class.getName() + "=",
+                Audited.class.getName() + "=" + Auditable.class.getName() + "," + SecureField.class.getName());
+
+        assertThat(index.isAvailable()).isTrue();
+        assertThat(index.mayHave(Plain.class, Auditable.class)).isFalse();
+        assertThat(index.mayHave(Audited.class, Auditable.class)).isTrue();
+        assertThat(index.mayHave(Audited.class, SecureField.class)).isTrue();
+        assertThat(index.mayHave(Audited.class, LogExecution.class)).isFalse();
+    }
+
+    @Test
+    void classMissingFromTheIndexFallsBackToReflection() throws Exception {
+        AnnotationIndex index = indexOf(Plain.class.getName() + "=");
+
+        // Not indexed: "maybe", so the caller checks with reflection - and finds it
+        assertThat(index.mayHave(Audited.class, Auditable.class)).isTrue();
+        assertThat(Audited.class.isAnnotationPresent(Auditable.class)).isTrue();
+        assertThat(index.mayHave(Audited.class, LogExecution.class)).isTrue();
+        assertThat(Audited.class.isAnnotationPresent(LogExecution.class)).isFalse();
+    }
+
+    @Test
+    void missingIndexResourceAnswersMaybeForEverything() throws Exception {
+        try (URLClassLoader empty = new URLClassLoader(new URL[0], null)) {
+            AnnotationIndex index = new AnnotationIndex(empty);
+
+            assertThat(index.isAvailable()).isFalse();
+            assertThat(index.mayHave(Plain.class, Auditable.class)).isTrue();
+            assertThat(index.mayHave(Audited.class, SecureField.class)).isTrue();
+        }
+    }
+
+    @Test
+    void buildIndexCoversTheApplicationClasses() {
+        AnnotationIndex index = new AnnotationIndex();
+
+        assertThat(index.isAvailable()).isTrue();
+        assertThat(index.mayHave(UserServiceBP.class, Auditable.class)).isTrue();
+        assertThat(index.mayHave(AnnotationIndex.class, Auditable.class)).isFalse();
+    }
+
+    /**
+     * An index that only this test's class loader sees (no parent, so not
+     * the one the build wrote into target/classes)
+     */
+    private AnnotationIndex indexOf(String... lines) throws Exception {
+        Path file = dir.resolve(AnnotationIndexProcessor.INDEX_LOCATION);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, String.join("\n", lines) + "\n");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {dir.toUri().toURL()}, null)) {
+            return new AnnotationIndex(loader);
+        }
+    }
+
+    static class Plain {
+    }
+
+    @Auditable("test")
+    static class Audited {
+        @SecureField
+        String token;
+    }
+}
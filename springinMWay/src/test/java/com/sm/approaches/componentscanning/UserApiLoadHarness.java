@@ -0,0 +1,193 @@
+package com.sm.approaches.componentscanning;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CLOSED-LOOP LOAD TEST for the user API - not a unit test, run by hand
+ *
+ * N virtual users each keep exactly one GET /users/{id} in flight: send,
+ * wait for the response, record the latency, send the next one. Prints
+ * throughput and latency percentiles for the measured window.
+ *
+ * Compare the two stacks by starting the app each way and running this
+ * against it with the same arguments:
+ *
+ *   servlet:  --spring.main.web-application-type=servlet
+ *   reactive: --spring.main.web-application-type=reactive --app.users.api=reactive
+ *
+ *   java -cp target/test-classes com.sm.approaches.componentscanning.UserApiLoadHarness \
+ *        [baseUrl=http://localhost:8089] [concurrency=256] [seconds=20] [users=10000]
+ *
+ * Latencies are measured from send to the last body byte, so they include
+ * client-side queueing - with more virtual users than the server can keep
+ * up with, p99 shows the queueing, which is the point.
+ */
+public class UserApiLoadHarness {
+
+    private static final int WARMUP_SECONDS = 5;
+    // Latencies kept per virtual user; enough for ~20k requests/s per user over 60s
+    private static final int MAX_SAMPLES_PER_USER = 1 << 20;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8089";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int users = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        seed(client, baseUrl, users);
+        System.out.println("Seeded " + users + " users; warming up for " + WARMUP_SECONDS + "s");
+        run(client, baseUrl, concurrency, WARMUP_SECONDS, users);
+
+        Result result = run(client, baseUrl, concurrency, seconds, users);
+        System.out.printf("%s concurrency=%d duration=%ds%n", baseUrl, concurrency, seconds);
+        System.out.printf("  requests=%d errors=%d rps=%.0f%n",
+                result.count, result.errors, result.count / (double) seconds);
+        System.out.printf("  p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                result.percentileMs(50), result.percentileMs(90), result.percentileMs(99),
+                result.percentileMs(99.9), result.percentileMs(100));
+    }
+
+    private static void seed(HttpClient client, String baseUrl, int users) throws Exception {
+        StringBuilder body = new StringBuilder(users * 32);
+        for (int id = 0; id < users; id++) {
+            body.append("{\"id\":").append(id).append(",\"name\":\"user-").append(id).append("\"}\n");
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private static Result run(HttpClient client, String baseUrl, int concurrency,
+                              int seconds, int users) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long[][] samples = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int user = 0; user < concurrency; user++) {
+            samples[user] = new long[1024];
+            new VirtualUser(client, baseUrl, users, deadline, user, samples, counts, errors, done)
+                    .sendNext();
+        }
+        done.await();
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (int user = 0; user < concurrency; user++) {
+            System.arraycopy(samples[user], 0, all, offset, counts[user]);
+            offset += counts[user];
+        }
+        Arrays.sort(all);
+        return new Result(all, errors.get());
+    }
+
+    /**
+     * One request in flight at a time; the next is sent from the completion
+     * callback, so no thread is parked per virtual user
+     */
+    private static final class VirtualUser {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final int users;
+        private final long deadline;
+        private final int index;
+        private final long[][] samples;
+        private final int[] counts;
+        private final AtomicLong errors;
+        private final CountDownLatch done;
+
+        VirtualUser(HttpClient client, String baseUrl, int users, long deadline, int index,
+                    long[][] samples, int[] counts, AtomicLong errors, CountDownLatch done) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.users = users;
+            this.deadline = deadline;
+            this.index = index;
+            this.samples = samples;
+            this.counts = counts;
+            this.errors = errors;
+            this.done = done;
+        }
+
+        void sendNext() {
+            if (System.nanoTime() - deadline >= 0) {
+                done.countDown();
+                return;
+            }
+            int id = ThreadLocalRandom.current().nextInt(users);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users/" + id))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            record(System.nanoTime() - start);
+                        }
+                        sendNext();
+                    });
+        }
+
+        // Only this virtual user's callback chain writes its slot - one at a time
+        private void record(long latencyNanos) {
+            int count = counts[index];
+            if (count == MAX_SAMPLES_PER_USER) {
+                return;
+            }
+            if (count == samples[index].length) {
+                samples[index] = Arrays.copyOf(samples[index], count * 2);
+            }
+            samples[index][count] = latencyNanos;
+            counts[index] = count + 1;
+        }
+    }
+
+    private static final class Result {
+
+        final long[] sortedNanos;
+        final int count;
+        final long errors;
+
+        Result(long[] sortedNanos, long errors) {
+            this.sortedNanos = sortedNanos;
+            this.count = sortedNanos.length;
+            this.errors = errors;
+        }
+
+        double percentileMs(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sortedNanos[Math.max(0, Math.min(count - 1, rank))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sm.approaches.componentscanning.controller;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class UserBatchReaderTests {
+
+    private final UserBatchReader reader = new UserBatchReader(new JsonMapper(), 2);
+
+    @Test
+    void readsJsonArraysAndNdjsonInChunks() {
+        List<List<User>> chunks = new ArrayList<>();
+
+        long fromArray = reader.read(body("[{\"id\":1,\"name\":\"a\"},{\"name\":\"b\",\"id\":2,"
+                + "\"extra\":{\"x\":[1]}},{\"id\":3,\"name\":null}]"), chunks::add);
+        long fromNdjson = reader.read(body("{\"id\":4,\"name\":\"d\"}\n{\"id\":5,\"name\":\"e\"}\n"),
+                chunks::add);
+
+        assertThat(fromArray).isEqualTo(3);
+        assertThat(fromNdjson).isEqualTo(2);
+        assertThat(chunks).extracting(List::size).containsExactly(2, 1, 2);
+        assertThat(chunks.get(0).get(1).getName()).isEqualTo("b");
+        assertThat(chunks.get(1).get(0).getName()).isNull();
+    }
+
+    @Test
+    void rejectsUsersWithoutId() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> reader.read(body("[{\"name\":\"a\"}]"), chunk -> { }));
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,43 @@
+package com.sm.approaches.componentscanning.controller;
+
+import com.sm.approaches.componentscanning.model.User;
+import com.sm.approaches.componentscanning.repo.ShardedUserStore;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserNdjsonExporterTests {
+
+    private final JsonMapper mapper = new JsonMapper();
+
+    @Test
+    void exportsEveryUserAsOneLineThatReadsBackIn() {
+        ShardedUserStore store = new ShardedUserStore(4);
+        for (long id = 0; id < 1_000; id++) {
+            store.put(id, new User(id, id == 7 ? "quote \" and\nnewline" : "user-" + id));
+        }
+        store.put(1_000, new User(1_000L, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = new UserNdjsonExporter(mapper, 64).export(store.cursor(), out);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertThat(exported).isEqualTo(1_001);
+        assertThat(ndjson).endsWith("}\n");
+        assertThat(ndjson.split("\n")).hasSize(1_001);
+        assertThat(ndjson).contains("{\"id\":1000,\"name\":null}\n");
+
+        List<User> readBack = new ArrayList<>();
+        new UserBatchReader(mapper, 100).read(
+                new ByteArrayInputStream(out.toByteArray()), readBack::addAll);
+        assertThat(readBack).hasSize(1_001)
+                .anySatisfy(user -> assertThat(user.getName()).isEqualTo("quote \" and\nnewline"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.sm.approaches.componentscanning.controller;
+
+import com.sm.approaches.componentscanning.repo.ReactiveUserRepository;
+import com.sm.approaches.componentscanning.repo.ShardedUserStore;
+import com.sm.approaches.componentscanning.repo.UserRepository;
+import com.sm.approaches.componentscanning.repo.UserWriteAheadLog;
+import com.sm.approaches.componentscanning.service.ReactiveUserService;
+import com.sm.approaches.componentscanning.service.UserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRouterTests {
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository repository = new UserRepository(new ShardedUserStore(4),
+                new StaticListableBeanFactory().getBeanProvider(UserWriteAheadLog.class));
+        ReactiveUserService service = new ReactiveUserService(
+                new ReactiveUserRepository(repository), new UserCache(true, 100, 60, 60));
+        client = WebTestClient.bindToRouterFunction(
+                new UserRouterConfig().userRoutes(new UserHandler(service))).build();
+    }
+
+    @Test
+    void createdUserIsReadBackInsteadOfTheCachedMiss() {
+        client.get().uri("/users/7").exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+
+        client.post().uri("/users/7/zed").exchange().expectStatus().isOk();
+
+        client.get().uri("/users/7").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("zed");
+    }
+
+    @Test
+    void batchUploadIsVisibleToBulkGetSearchAndExport() {
+        client.post().uri("/users/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"id\":1,\"name\":\"anna\"}\n{\"id\":2,\"name\":\"andy\"}\n{\"id\":3,\"name\":\"bob\"}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.saved").isEqualTo(3);
+
+        client.get().uri("/users?ids=1,3,99").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(2);
+
+        client.get().uri("/users/search?prefix=an&limit=1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.users[0].name").isEqualTo("andy")
+                .jsonPath("$.next").isNotEmpty();
+
+        String export = client.get().uri("/users/export").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertThat(export).isNotNull();
+        assertThat(export.split("\n")).hasSize(3);
+    }
+
+    @Test
+    void rejectsBadInputWith400() {
+        client.post().uri("/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"name\":\"no id\"}]")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        client.get().uri("/users/search?prefix=a&limit=1000").exchange()
+                .expectStatus().isBadRequest();
+
+        client.get().uri("/users/search?prefix=a&after=not-a-cursor").exchange()
+                .expectStatus().isBadRequest();
+
+        client.get().uri("/users/abc").exchange()
+                .expectStatus().isBadRequest();
+    }
+}
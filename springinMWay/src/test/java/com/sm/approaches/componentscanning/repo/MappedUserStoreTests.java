@@ -0,0 +1,54 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class MappedUserStoreTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void remapsUsersWrittenBeforeARestart() throws Exception {
+        Path file = dir.resolve("users.db");
+        int users = MappedUserStore.RECORDS_PER_SEGMENT + 10; // spans two segments
+
+        try (MappedUserStore store = new MappedUserStore(file, 22)) {
+            for (long id = 0; id < users; id++) {
+                store.put(id * 7, new User(id * 7, "user-" + id));
+            }
+            store.put(7, new User(7L, "renamed-ü"));
+            store.put(-1, new User(-1L, null));
+        }
+
+        try (MappedUserStore store = new MappedUserStore(file, 22)) {
+            assertThat(store.size()).isEqualTo(users + 1);
+            assertThat(store.get(7).getName()).isEqualTo("renamed-ü");
+            assertThat(store.get((users - 1) * 7L).getName()).isEqualTo("user-" + (users - 1));
+            assertThat(store.get(-1).getName()).isNull();
+            assertThat(store.get(8)).isNull();
+            assertThat(store.stats().getShards()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void flyweightReadsTheLatestSaveAndRejectsOversizedNames() throws Exception {
+        try (MappedUserStore store = new MappedUserStore(dir.resolve("users.db"), 8)) {
+            store.put(1, new User(1L, "before"));
+            User view = store.get(1);
+
+            store.put(1, new User(1L, "after"));
+
+            assertThat(view.getId()).isEqualTo(1L);
+            assertThat(view.getName()).isEqualTo("after");
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> store.put(2, new User(2L, "much too long")));
+        }
+    }
+}
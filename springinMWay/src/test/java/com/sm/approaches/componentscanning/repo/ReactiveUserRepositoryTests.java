@@ -0,0 +1,88 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveUserRepositoryTests {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Sharded store that records which threads read it
+     */
+    static class RecordingStore extends ShardedUserStore {
+        final Set<String> readers = ConcurrentHashMap.newKeySet();
+        private final boolean readsMayBlock;
+
+        RecordingStore(boolean readsMayBlock) {
+            super(4);
+            this.readsMayBlock = readsMayBlock;
+        }
+
+        @Override
+        public boolean readsMayBlock() { return readsMayBlock; }
+
+        @Override
+        public User get(long id) {
+            readers.add(Thread.currentThread().getName());
+            return super.get(id);
+        }
+
+        @Override
+        public UserCursor cursor() {
+            readers.add(Thread.currentThread().getName());
+            return super.cursor();
+        }
+    }
+
+    private static ReactiveUserRepository reactive(UserStore store) {
+        return new ReactiveUserRepository(new UserRepository(store,
+                new StaticListableBeanFactory().getBeanProvider(UserWriteAheadLog.class)));
+    }
+
+    @Test
+    void blockingStoreIsReadOnBoundedElastic() {
+        RecordingStore store = new RecordingStore(true);
+        ReactiveUserRepository repository = reactive(store);
+        repository.save(new User(1L, "ann")).block();
+        store.readers.clear();
+
+        assertThat(repository.findById(1L).block().getName()).isEqualTo("ann");
+        List<User> all = repository.findAll().collectList().block();
+        assertThat(all).extracting(User::getId).containsExactly(1L);
+
+        assertThat(store.readers).isNotEmpty()
+                .allSatisfy(thread -> assertThat(thread).startsWith("boundedElastic"));
+    }
+
+    @Test
+    void inMemoryStoreIsReadInline() {
+        RecordingStore store = new RecordingStore(false);
+        ReactiveUserRepository repository = reactive(store);
+        repository.save(new User(1L, "ann")).block();
+        store.readers.clear();
+
+        repository.findById(1L).block();
+        repository.findAll().collectList().block();
+
+        assertThat(store.readers).containsOnly(Thread.currentThread().getName());
+    }
+
+    @Test
+    void onlyTheShardedStoreCountsAsNonBlocking() throws Exception {
+        assertThat(new ShardedUserStore(4).readsMayBlock()).isFalse();
+        try (MappedUserStore mapped = new MappedUserStore(dir.resolve("users.db"), 16)) {
+            assertThat(mapped.readsMayBlock()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedUserStoreTests {
+
+    @Test
+    void storesAndReplacesAcrossGrowth() {
+        ShardedUserStore store = new ShardedUserStore(3);
+
+        for (long id = -1_000; id < 10_000; id++) {
+            store.put(id, new User(id, "user-" + id));
+        }
+        User replaced = store.put(0, new User(0L, "zero"));
+
+        assertThat(replaced.getName()).isEqualTo("user-0");
+        assertThat(store.get(0).getName()).isEqualTo("zero");
+        assertThat(store.get(-1_000).getName()).isEqualTo("user--1000");
+        assertThat(store.get(10_000)).isNull();
+
+        UserStoreStats stats = store.stats();
+        assertThat(stats.getShards()).isEqualTo(4);
+        assertThat(stats.getUsers()).isEqualTo(11_000);
+        assertThat(stats.getLoadFactor()).isLessThanOrEqualTo(0.625);
+    }
+
+    @Test
+    void batchesTouchEveryShardOnceAndKeepRequestOrder() {
+        ShardedUserStore store = new ShardedUserStore(4);
+        List<User> batch = new ArrayList<>();
+        for (long id = 0; id < 1_000; id++) {
+            batch.add(new User(id, "user-" + id));
+        }
+
+        store.putAll(batch);
+        User[] found = store.getAll(new long[] {999, 5_000, 0, 42});
+
+        assertThat(store.size()).isEqualTo(1_000);
+        assertThat(found[0].getName()).isEqualTo("user-999");
+        assertThat(found[1]).isNull();
+        assertThat(found[2].getName()).isEqualTo("user-0");
+        assertThat(found[3].getName()).isEqualTo("user-42");
+    }
+
+    @Test
+    void cursorSeesEveryUserEvenWhenShardsGrowMidScan() {
+        ShardedUserStore store = new ShardedUserStore(2);
+        for (long id = 0; id < 100; id++) {
+            store.put(id, new User(id, "before"));
+        }
+
+        UserCursor cursor = store.cursor();
+        User[] chunk = new User[7];
+        Set<Long> seen = new HashSet<>();
+        int count = cursor.next(chunk);
+        for (long id = 100; id < 5_000; id++) {
+            store.put(id, new User(id, "during")); // forces growth
+        }
+        while (count > 0) {
+            for (int i = 0; i < count; i++) {
+                seen.add(chunk[i].getId());
+            }
+            count = cursor.next(chunk);
+        }
+
+        for (long id = 0; id < 100; id++) {
+            assertThat(seen).contains(id);
+        }
+    }
+
+    @Test
+    void readersSeeEveryCompletedWriteWhileOthersWrite() throws Exception {
+        ShardedUserStore store = new ShardedUserStore(8);
+        int writers = 4;
+        int perWriter = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers * 2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long first = (long) w * perWriter;
+                futures.add(pool.submit(() -> {
+                    for (long id = first; id < first + perWriter; id++) {
+                        store.put(id, new User(id, "u"));
+                        // A reader on another thread must find it from now on
+                        assertThat(store.get(id)).isNotNull();
+                    }
+                }));
+                futures.add(pool.submit(() -> {
+                    for (long id = first; id < first + perWriter; id++) {
+                        User user = store.get(id);
+                        assertThat(user == null || user.getId() == id).isTrue();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(store.size()).isEqualTo(writers * perWriter);
+        for (long id = 0; id < (long) writers * perWriter; id++) {
+            assertThat(store.get(id).getId()).isEqualTo(id);
+        }
+    }
+}
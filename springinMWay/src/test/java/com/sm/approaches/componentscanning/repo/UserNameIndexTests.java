@@ -0,0 +1,79 @@
+package com.sm.approaches.componentscanning.repo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserNameIndexTests {
+
+    @Test
+    void findsOnlyNamesWithThePrefixInNameThenIdOrder() {
+        UserNameIndex index = new UserNameIndex();
+        index.add("bob", 1);
+        index.add("anna", 3);
+        index.add("andy", 2);
+        index.add("anna", 1);
+        index.add("amy", 4);
+        index.add(null, 5);
+
+        assertThat(index.find("an", null, 10))
+                .extracting(UserNameIndex.Entry::getName, UserNameIndex.Entry::getId)
+                .containsExactly(
+                        tuple("andy", 2L),
+                        tuple("anna", 1L),
+                        tuple("anna", 3L));
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void pagesThroughTokensWithoutGapsOrRepeats() {
+        UserNameIndex index = new UserNameIndex();
+        for (long id = 0; id < 250; id++) {
+            index.add("user-" + (id % 7), id);
+        }
+        index.add("other", 999);
+
+        int seen = 0;
+        UserNameIndex.Entry after = null;
+        UserNameIndex.Entry previous = null;
+        while (true) {
+            List<UserNameIndex.Entry> page = index.find("user-", after, 40);
+            for (UserNameIndex.Entry entry : page) {
+                if (previous != null) {
+                    assertThat(entry).isGreaterThan(previous);
+                }
+                previous = entry;
+                seen++;
+            }
+            if (page.size() < 40) {
+                break;
+            }
+            after = UserNameIndex.Entry.fromToken(page.get(page.size() - 1).toToken());
+        }
+        assertThat(seen).isEqualTo(250);
+    }
+
+    @Test
+    void renameMovesTheEntry() {
+        UserNameIndex index = new UserNameIndex();
+        index.add("alice", 7);
+        index.remove("alice", 7);
+        index.add("bella", 7);
+
+        assertThat(index.find("al", null, 10)).isEmpty();
+        assertThat(index.find("be", null, 10)).extracting(UserNameIndex.Entry::getId)
+                .containsExactly(7L);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> UserNameIndex.Entry.fromToken("no-dot"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UserNameIndex.Entry.fromToken("YWxpY2U.notanumber"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
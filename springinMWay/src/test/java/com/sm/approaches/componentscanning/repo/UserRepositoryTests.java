@@ -0,0 +1,133 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRepositoryTests {
+
+    private UserRepository newRepository() {
+        return new UserRepository(new ShardedUserStore(4),
+                new StaticListableBeanFactory().getBeanProvider(UserWriteAheadLog.class));
+    }
+
+    @Test
+    void concurrentRenamesLeaveOnlyTheCurrentNameIndexed() throws Exception {
+        UserRepository repository = newRepository();
+        String[] names = {"alpha", "bravo", "charlie", "delta"};
+        int users = 16;
+        for (long id = 0; id < users; id++) {
+            repository.save(new User(id, "alpha"));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] renamers = new Future<?>[4];
+            for (int t = 0; t < renamers.length; t++) {
+                int offset = t;
+                renamers[t] = pool.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < 20_000; round++) {
+                        long id = round % users;
+                        String name = names[(round + offset) % names.length];
+                        if (round % 5 == 0) {
+                            repository.saveAll(List.of(new User(id, name)));
+                        } else {
+                            repository.save(new User(id, name));
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> renamer : renamers) {
+                renamer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Every user is found under the name it has now, and only under that
+        int found = 0;
+        for (String name : names) {
+            for (User user : repository.searchByName(name, 100, null).getUsers()) {
+                assertThat(user.getName()).isEqualTo(name);
+                found++;
+            }
+        }
+        assertThat(found).isEqualTo(users);
+        for (long id = 0; id < users; id++) {
+            String name = repository.findById(id).getName();
+            assertThat(repository.searchByName(name, 100, null).getUsers())
+                    .extracting(User::getId).contains(id);
+        }
+    }
+
+    @Test
+    void renameThatLosesTheRaceDoesNotUnindexTheWinner() throws Exception {
+        // Holds the "delta" save between its store write and its reindex
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ShardedUserStore sharded = new ShardedUserStore(4);
+        UserStore pausing = new UserStore() {
+            public User get(long id) { return sharded.get(id); }
+            public User put(long id, User user) {
+                User previous = sharded.put(id, user);
+                if (user.getName().equals("delta")) {
+                    written.countDown();
+                    await(resume);
+                }
+                return previous;
+            }
+            public UserCursor cursor() { return sharded.cursor(); }
+            public int size() { return sharded.size(); }
+            public UserStoreStats stats() { return sharded.stats(); }
+        };
+        UserRepository repository = new UserRepository(pausing,
+                new StaticListableBeanFactory().getBeanProvider(UserWriteAheadLog.class));
+        repository.save(new User(1L, "charlie"));
+
+        // charlie -> delta is written, then charlie again wins before delta reindexes
+        Thread slow = new Thread(() -> repository.save(new User(1L, "delta")));
+        slow.start();
+        await(written);
+        repository.save(new User(1L, "charlie"));
+        resume.countDown();
+        slow.join(5000);
+
+        assertThat(repository.findById(1L).getName()).isEqualTo("charlie");
+        assertThat(repository.searchByName("charlie", 10, null).getUsers())
+                .extracting(User::getId).containsExactly(1L);
+        assertThat(repository.searchByName("delta", 10, null).getUsers()).isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void renameMovesTheUserBetweenSearches() {
+        UserRepository repository = newRepository();
+        repository.save(new User(1L, "alice"));
+        repository.save(new User(1L, "bella"));
+
+        assertThat(repository.searchByName("al", 10, null).getUsers()).isEmpty();
+        assertThat(repository.searchByName("be", 10, null).getUsers())
+                .extracting(User::getId).containsExactly(1L);
+    }
+}
@@ -0,0 +1,111 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PREFIX SEARCH latency, index vs scan - not a unit test, run by hand
+ *
+ * Loads `users` users named "<word>-<id>" (26 x 26 two-letter words) into
+ * a UserRepository, then times `queries` searches of one 20-user page for
+ * prefixes of growing selectivity and prints p50/p99/max per query:
+ *
+ *   index - repository.searchByName: skip-list seek + in-order walk
+ *   scan  - a full cursor scan with startsWith, what search cost before
+ *           the index (run on fewer queries, it is linear in users)
+ *
+ * A second line per prefix fetches pages 1 to 5 through the next tokens:
+ * five calls should cost about five first pages - a token seeks straight
+ * to its entry, it never re-walks the earlier pages.
+ *
+ *   java -Xmx2g -cp target/classes:target/test-classes:<dependencies> \
+ *        com.sm.approaches.componentscanning.repo.UserSearchLatencyHarness \
+ *        [users=1000000] [queries=20000]
+ */
+public class UserSearchLatencyHarness {
+
+    private static final int PAGE = 20;
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        UserRepository repository = new UserRepository(new ShardedUserStore(64),
+                new StaticListableBeanFactory().getBeanProvider(UserWriteAheadLog.class));
+        List<User> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < users; i++) {
+            batch.add(new User((long) i, word() + "-" + i));
+            if (batch.size() == 10_000 || i == users - 1) {
+                repository.saveAll(batch);
+                batch = new ArrayList<>(10_000);
+            }
+        }
+
+        System.out.printf("%d users, page of %d%n", users, PAGE);
+        System.out.printf("%-18s %10s %10s %10s%n", "query", "p50 us", "p99 us", "max us");
+        for (String prefix : new String[] {"q", "qx", "qx-1", "qx-12345"}) {
+            report("index " + prefix, measure(queries, () -> repository.searchByName(prefix, PAGE, null)));
+            report("index " + prefix + " p5", measure(queries, () -> page(repository, prefix, 5)));
+            report("scan  " + prefix, measure(Math.max(1, queries / 1000), () -> scan(repository, prefix)));
+        }
+    }
+
+    private static String word() {
+        int r = ThreadLocalRandom.current().nextInt(26 * 26);
+        return "" + (char) ('a' + r / 26) + (char) ('a' + r % 26);
+    }
+
+    private static Object page(UserRepository repository, String prefix, int page) {
+        UserSearchResult result = repository.searchByName(prefix, PAGE, null);
+        for (int i = 1; i < page && result.getNext() != null; i++) {
+            result = repository.searchByName(prefix, PAGE, result.getNext());
+        }
+        return result;
+    }
+
+    private static Object scan(UserRepository repository, String prefix) {
+        List<User> found = new ArrayList<>(PAGE);
+        UserCursor cursor = repository.scan();
+        User[] chunk = new User[1024];
+        int count;
+        while ((count = cursor.next(chunk)) > 0) {
+            for (int i = 0; i < count; i++) {
+                if (chunk[i].getName().startsWith(prefix)) {
+                    found.add(chunk[i]);
+                }
+            }
+        }
+        // The scan finds matches in store order: sort, then cut a page
+        found.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return found.subList(0, Math.min(PAGE, found.size()));
+    }
+
+    interface Query {
+        Object run();
+    }
+
+    private static long[] measure(int queries, Query query) {
+        for (int i = 0; i < Math.min(queries, 1000); i++) {
+            query.run(); // warm up
+        }
+        long[] micros = new long[queries];
+        int sink = 0;
+        for (int i = 0; i < queries; i++) {
+            long start = System.nanoTime();
+            sink += query.run().hashCode();
+            micros[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(micros);
+        return sink == 42 ? new long[] {0} : micros;
+    }
+
+    private static void report(String name, long[] sorted) {
+        System.out.printf("%-18s %10d %10d %10d%n", name, sorted[sorted.length / 2],
+                sorted[Math.min(sorted.length - 1, sorted.length * 99 / 100)], sorted[sorted.length - 1]);
+    }
+}
@@ -0,0 +1,125 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.Closeable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HEAP and GC PAUSES with users on-heap vs memory-mapped - not a unit test, run by hand
+ *
+ * Loads `users` users into one store, then keeps the application busy
+ * for `seconds`: random findById + getName (90%) and saves (10%), plus
+ * some request-like garbage per call, so the collector keeps running
+ * while the store is live. Prints:
+ * - heap used after a full GC once the users are loaded
+ * - every GC pause during the busy phase: count, p50, p99, max
+ *
+ *   sharded - ShardedUserStore: every user is a heap object the GC traces
+ *   mapped  - MappedUserStore: records in a mapped file, off-heap index
+ *
+ * One store per JVM, same heap settings for both:
+ *
+ *   java -Xmx3g -XX:+UseG1GC -cp target/classes:target/test-classes \
+ *        com.sm.approaches.componentscanning.repo.UserStoreGcHarness \
+ *        sharded|mapped [users=10000000] [seconds=20]
+ */
+public class UserStoreGcHarness {
+
+    private static final int BATCH = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "sharded";
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Path file = null;
+        UserStore store;
+        if (mode.equals("mapped")) {
+            file = Files.createTempFile("users", ".db");
+            Files.delete(file);
+            store = new MappedUserStore(file, 54);
+        } else if (mode.equals("sharded")) {
+            store = new ShardedUserStore(4 * Runtime.getRuntime().availableProcessors());
+        } else {
+            throw new IllegalArgumentException("mode must be sharded or mapped");
+        }
+
+        long loadStart = System.nanoTime();
+        List<User> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < users; i++) {
+            batch.add(new User((long) i, "user-" + i));
+            if (batch.size() == BATCH || i == users - 1) {
+                store.putAll(batch);
+                batch.clear();
+            }
+        }
+        System.out.printf("%s: loaded %d users in %d ms%n", mode, store.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart));
+        System.out.printf("  heap used after full GC: %d MB%n", usedHeapAfterGc() / (1024 * 1024));
+
+        List<Long> pauses = Collections.synchronizedList(new ArrayList<>());
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                    pauses.add(GarbageCollectionNotificationInfo
+                            .from((CompositeData) notification.getUserData()).getGcInfo().getDuration());
+                }
+            }, null, null);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long calls = 0;
+        long checksum = 0;
+        while (System.nanoTime() < deadline) {
+            long id = random.nextInt(users);
+            if (random.nextInt(10) == 0) {
+                store.put(id, new User(id, "renamed-" + random.nextInt(1000)));
+            } else {
+                User user = store.get(id);
+                // A response body's worth of short-lived garbage
+                checksum += ("{\"id\":" + id + ",\"name\":\"" + user.getName() + "\"}").length();
+            }
+            calls++;
+        }
+
+        List<Long> sorted = new ArrayList<>(pauses);
+        Collections.sort(sorted);
+        System.out.printf("  busy phase: %d calls, %d GCs, pause p50=%d ms p99=%d ms max=%d ms  (checksum %d)%n",
+                calls, sorted.size(), percentile(sorted, 50), percentile(sorted, 99),
+                sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1), checksum);
+
+        if (store instanceof Closeable) {
+            ((Closeable) store).close();
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.isEmpty() ? 0
+                : sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,141 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * READ/WRITE MIX from 1 to N threads - not a unit test, run by hand
+ *
+ * Each store is preloaded with `users` users, then every thread does
+ * random findById/save calls (writesPercent % saves) for `millis`.
+ * Prints total ops/s per thread count and the heap each store needs for
+ * the preload (table + boxed keys; the User objects are shared).
+ *
+ *   synchronized - Collections.synchronizedMap(HashMap): the old map,
+ *                  made thread-safe the simplest way
+ *   concurrent   - ConcurrentHashMap<Long, User>
+ *   sharded      - ShardedUserStore (4 x cores shards, app.users.shards=0)
+ *
+ * Scaling only shows with as many free cores as threads.
+ *
+ *   java -Xmx2g -cp target/classes:target/test-classes \
+ *        com.sm.approaches.componentscanning.repo.UserStoreScalingHarness \
+ *        [maxThreads=cores] [users=1000000] [writesPercent=10] [millis=2000]
+ */
+public class UserStoreScalingHarness {
+
+    interface Store {
+        User get(long id);
+        void put(long id, User user);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : cores;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int writesPercent = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long millis = args.length > 3 ? Long.parseLong(args[3]) : 2000;
+
+        User[] population = new User[users];
+        for (int i = 0; i < users; i++) {
+            population[i] = new User((long) i, "user-" + i);
+        }
+
+        Map<String, Supplier<Store>> stores = new LinkedHashMap<>();
+        stores.put("synchronized", () -> mapStore(Collections.synchronizedMap(new HashMap<>())));
+        stores.put("concurrent", () -> mapStore(new ConcurrentHashMap<>()));
+        stores.put("sharded", () -> {
+            ShardedUserStore sharded = new ShardedUserStore(4 * cores);
+            return new Store() {
+                public User get(long id) { return sharded.get(id); }
+                public void put(long id, User user) { sharded.put(id, user); }
+            };
+        });
+
+        System.out.printf("%d cores, %d users, %d%% writes%n", cores, users, writesPercent);
+        System.out.printf("%-13s %10s", "store", "heap MB");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.printf(" %11s", threads + "T ops/s");
+        }
+        System.out.println();
+
+        for (Map.Entry<String, Supplier<Store>> entry : stores.entrySet()) {
+            long heapBefore = usedHeap();
+            Store store = entry.getValue().get();
+            for (User user : population) {
+                store.put(user.getId(), user);
+            }
+            long heapBytes = usedHeap() - heapBefore;
+
+            System.out.printf("%-13s %10.1f", entry.getKey(), heapBytes / (1024.0 * 1024));
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                run(store, population, 1, writesPercent, millis / 4); // warm up
+                System.out.printf(" %11.0f", run(store, population, threads, writesPercent, millis));
+            }
+            System.out.println();
+        }
+    }
+
+    private static Store mapStore(Map<Long, User> map) {
+        return new Store() {
+            public User get(long id) { return map.get(id); }
+            public void put(long id, User user) { map.put(id, user); }
+        };
+    }
+
+    private static double run(Store store, User[] population, int threads, int writesPercent,
+                              long millis) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+                long count = 0;
+                long found = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                    User user = population[random.nextInt(population.length)];
+                    if (random.nextInt(100) < writesPercent) {
+                        store.put(user.getId(), user);
+                    } else if (store.get(user.getId()) != null) {
+                        found++;
+                    }
+                    count++;
+                }
+                ops.add(found >= 0 ? count : 0);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,195 @@
+package com.sm.approaches.componentscanning.repo;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserWriteAheadLogTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysGoodRecordsAndCutsACorruptTail() throws Exception {
+        Path file = dir.resolve("users.wal");
+        try (UserWriteAheadLog wal = new UserWriteAheadLog(file, UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            wal.append(1, "ann", () -> { });
+            wal.append(2, null, () -> { });
+            wal.append(1, "änne", () -> { });
+        }
+        long goodLength = Files.size(file);
+        Files.write(file, new byte[] {0, 0, 0, 20, 1, 2}, StandardOpenOption.APPEND);
+
+        Map<Long, String> replayed = new LinkedHashMap<>();
+        try (UserWriteAheadLog wal = new UserWriteAheadLog(file, UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            assertThat(wal.replay(replayed::put)).isEqualTo(3);
+            assertThat(Files.size(file)).isEqualTo(goodLength);
+            wal.append(3, "carl", () -> { });
+            wal.appendAll(List.of(new User(4L, "dora"), new User(5L, "emil")), () -> { });
+        }
+
+        replayed.clear();
+        try (UserWriteAheadLog wal = new UserWriteAheadLog(file, UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            wal.replay(replayed::put);
+        }
+        assertThat(replayed).containsEntry(1L, "änne").containsEntry(2L, null)
+                .containsEntry(3L, "carl").containsEntry(5L, "emil").hasSize(5);
+    }
+
+    @Test
+    void groupCommitSharesOneFsyncAcrossConcurrentWriters() throws Exception {
+        int writers = 8;
+        int perWriter = 200;
+        UserWriteAheadLog wal = new UserWriteAheadLog(dir.resolve("group.wal"),
+                UserWriteAheadLog.FsyncPolicy.GROUP, 2);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long first = (long) w * perWriter;
+                futures.add(pool.submit(() -> {
+                    for (long id = first; id < first + perWriter; id++) {
+                        wal.append(id, "user-" + id, () -> { });
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+            wal.close();
+        }
+
+        assertThat(wal.getRecordCount()).isEqualTo(writers * perWriter);
+        // Every append waited for durability, yet most of them shared an fsync
+        assertThat(wal.getSyncCount()).isLessThan(writers * perWriter / 2);
+    }
+
+    @Test
+    void nameTheStoreCannotHoldIsRejectedBeforeItIsLogged() throws Exception {
+        Path storeFile = dir.resolve("users.db");
+        Path walFile = dir.resolve("users.wal");
+        UserStoreConfig config = new UserStoreConfig();
+
+        try (MappedUserStore store = new MappedUserStore(storeFile, 8);
+             UserWriteAheadLog wal = config.userWriteAheadLog(store, walFile.toString(),
+                     UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            UserRepository repository = repository(store, wal);
+            repository.save(new User(1L, "ann"));
+            assertThatThrownBy(() -> repository.save(new User(2L, "much-too-long")))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> repository.saveAll(
+                    List.of(new User(3L, "bob"), new User(4L, "much-too-long"))))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(wal.getRecordCount()).isEqualTo(1);
+        }
+
+        // The restart that used to fail on the logged oversize name
+        try (MappedUserStore store = new MappedUserStore(storeFile, 8);
+             UserWriteAheadLog wal = config.userWriteAheadLog(store, walFile.toString(),
+                     UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            assertThat(wal.getSkippedCount()).isZero();
+            assertThat(store.get(1L).getName()).isEqualTo("ann");
+            assertThat(store.get(2L)).isNull();
+            assertThat(store.get(3L)).isNull();
+        }
+    }
+
+    @Test
+    void replaySkipsAndCountsRecordsTheStoreRejects() throws Exception {
+        Path walFile = dir.resolve("old.wal");
+        // A log written before saves were validated
+        try (UserWriteAheadLog wal = new UserWriteAheadLog(walFile, UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            wal.append(1, "ann", () -> { });
+            wal.append(2, "much-too-long", () -> { });
+            wal.append(3, "carl", () -> { });
+        }
+
+        try (MappedUserStore store = new MappedUserStore(dir.resolve("users.db"), 8);
+             UserWriteAheadLog wal = new UserStoreConfig().userWriteAheadLog(store,
+                     walFile.toString(), UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            assertThat(wal.getSkippedCount()).isEqualTo(1);
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get(3L).getName()).isEqualTo("carl");
+        }
+    }
+
+    @Test
+    void corruptRecordWithLaterRecordsIsNotTruncated() throws Exception {
+        Path file = dir.resolve("users.wal");
+        try (UserWriteAheadLog wal = new UserWriteAheadLog(file, UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            wal.append(1, "ann", () -> { });
+            wal.append(2, "bob", () -> { });
+            wal.append(3, "carl", () -> { });
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[8 + 8 + 2] ^= 1; // first letter of the first name
+        Files.write(file, bytes);
+
+        try (UserWriteAheadLog wal = new UserWriteAheadLog(file, UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            assertThatThrownBy(() -> wal.replay((id, name) -> { }))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("at byte 0");
+        }
+        assertThat(Files.readAllBytes(file)).isEqualTo(bytes);
+    }
+
+    @Test
+    void zeroFilledTailIsTruncatedLikeATornWrite() throws Exception {
+        Path file = dir.resolve("users.wal");
+        try (UserWriteAheadLog wal = new UserWriteAheadLog(file, UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            wal.append(1, "ann", () -> { });
+        }
+        long goodLength = Files.size(file);
+        Files.write(file, new byte[4096], StandardOpenOption.APPEND);
+
+        try (UserWriteAheadLog wal = new UserWriteAheadLog(file, UserWriteAheadLog.FsyncPolicy.NONE, 0)) {
+            assertThat(wal.replay((id, name) -> { })).isEqualTo(1);
+        }
+        assertThat(Files.size(file)).isEqualTo(goodLength);
+    }
+
+    @Test
+    void groupCommitAppliesTheSaveOnlyAfterItsFsync() throws Exception {
+        UserWriteAheadLog wal = new UserWriteAheadLog(dir.resolve("group.wal"),
+                UserWriteAheadLog.FsyncPolicy.GROUP, 500);
+        AtomicBoolean applied = new AtomicBoolean();
+        try {
+            Thread writer = new Thread(() -> wal.append(1, "ann", () -> applied.set(true)));
+            writer.start();
+            Thread.sleep(100);
+            // Written, but the group's fsync is still 400 ms away
+            assertThat(wal.getRecordCount()).isEqualTo(1);
+            assertThat(applied).isFalse();
+            writer.join(5000);
+            assertThat(applied).isTrue();
+            assertThat(wal.getSyncCount()).isEqualTo(1);
+        } finally {
+            wal.close();
+        }
+    }
+
+    private static UserRepository repository(UserStore store, UserWriteAheadLog wal) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("userWriteAheadLog", wal);
+        return new UserRepository(store, beans.getBeanProvider(UserWriteAheadLog.class));
+    }
+}
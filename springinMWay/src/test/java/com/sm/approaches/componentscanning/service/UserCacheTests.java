@@ -0,0 +1,89 @@
+package com.sm.approaches.componentscanning.service;
+
+import com.sm.approaches.componentscanning.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTests {
+
+    @Test
+    void coalescesConcurrentMissesIntoOneLoad() throws Exception {
+        UserCache cache = new UserCache(true, 100, 1, 1, TimeUnit.MINUTES);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<User>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get(7, id -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return new User(id, "slow");
+                })));
+            }
+            Thread.sleep(100); // let every caller reach the cache
+            release.countDown();
+            for (Future<User> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).getName()).isEqualTo("slow");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().getCoalescedLoads() + cache.stats().getHits()).isEqualTo(7);
+    }
+
+    @Test
+    void cachesMissingUsersUntilInvalidated() {
+        UserCache cache = new UserCache(true, 100, 1, 1, TimeUnit.MINUTES);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(1, id -> { loads.incrementAndGet(); return null; })).isNull();
+        assertThat(cache.get(1, id -> { loads.incrementAndGet(); return null; })).isNull();
+        cache.invalidate(1);
+        User created = cache.get(1, id -> { loads.incrementAndGet(); return new User(id, "new"); });
+
+        assertThat(created.getName()).isEqualTo("new");
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.stats().getNegativeHits()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsReusedEntriesWhileOneOffLookupsAreEvicted() {
+        UserCache cache = new UserCache(true, 160, 1, 1, TimeUnit.MINUTES);
+        for (long id = 0; id < 50; id++) {
+            cache.get(id, key -> new User(key, "hot"));
+            cache.get(id, key -> new User(key, "hot")); // promoted
+        }
+        for (long id = 1_000; id < 11_000; id++) {
+            cache.get(id, key -> new User(key, "scan"));
+        }
+
+        AtomicInteger reloads = new AtomicInteger();
+        for (long id = 0; id < 50; id++) {
+            cache.get(id, key -> { reloads.incrementAndGet(); return new User(key, "hot"); });
+        }
+        assertThat(cache.stats().getSize()).isLessThanOrEqualTo(160);
+        assertThat(cache.stats().getEvictions()).isGreaterThan(0);
+        assertThat(reloads.get()).isLessThan(5);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.sm.approaches.configurationclass;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ApiClient against a misbehaving upstream - not a unit test, run by hand
+ *
+ * A local stub upstream goes through five phases of phase-seconds each:
+ *
+ *   warm-up   - 5ms responses, while connections open and the JIT warms up
+ *   healthy   - 5ms responses
+ *   slow      - slow-ms responses (above app.api.limiter-latency-ms=100)
+ *   failing   - immediate 500s
+ *   recovered - 5ms responses again
+ *
+ * while `callers` threads call callApi(endpoint, fallback) in a loop,
+ * pausing think-ms after every call (so fast fallbacks do not spin), once
+ * with the circuit breaker and AIMD limiter on and once with both off.
+ * For each phase it prints calls/s, p99 caller latency, requests that
+ * reached the stub, fallbacks, and the breaker state and limit at the end.
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        com.sm.approaches.configurationclass.ApiClientFaultInjectionHarness \
+ *        [callers=200] [phase-seconds=3] [slow-ms=500] [think-ms=10]
+ */
+public class ApiClientFaultInjectionHarness {
+
+    private static volatile long delayMs;
+    private static volatile boolean failing;
+    private static long thinkMs;
+
+    public static void main(String[] args) throws Exception {
+        int callers = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int phaseSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        long slowMs = args.length > 2 ? Long.parseLong(args[2]) : 500;
+        thinkMs = args.length > 3 ? Long.parseLong(args[3]) : 10;
+
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HttpServer stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        ExecutorService stubThreads = Executors.newCachedThreadPool();
+        stub.setExecutor(stubThreads);
+        stub.createContext("/", exchange -> {
+            upstreamCalls.incrementAndGet();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(failing ? 500 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        stub.start();
+
+        try {
+            for (boolean protectedClient : new boolean[] {true, false}) {
+                AppProperties.ApiConfig config = new AppProperties.ApiConfig();
+                config.setBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+                config.setTimeout(2000);
+                config.setRetryCount(0);
+                config.setCoalesce(false);
+                config.setCacheMaxBytes(0);
+                config.setBreakerOpenMs(1000);
+                config.setLimiterLatencyMs(100);
+                if (!protectedClient) {
+                    config.setBreakerWindow(0);
+                    config.setLimiterLatencyMs(0);
+                }
+                ApiClient client = new ApiClient(config);
+                System.out.println(protectedClient
+                        ? "\nbreaker + AIMD limiter:" : "\nno breaker, no limiter:");
+                System.out.printf("%-10s %9s %9s %9s %9s %10s %6s%n",
+                        "phase", "calls/s", "p99 ms", "upstream", "fallbacks", "circuit", "limit");
+                phase("warm-up", 5, false, client, callers, phaseSeconds, upstreamCalls);
+                phase("healthy", 5, false, client, callers, phaseSeconds, upstreamCalls);
+                phase("slow", slowMs, false, client, callers, phaseSeconds, upstreamCalls);
+                phase("failing", 0, true, client, callers, phaseSeconds, upstreamCalls);
+                phase("recovered", 5, false, client, callers, phaseSeconds, upstreamCalls);
+            }
+        } finally {
+            stub.stop(0);
+            stubThreads.shutdownNow();
+        }
+    }
+
+    private static void phase(String name, long upstreamDelayMs, boolean upstreamFailing, ApiClient client,
+                              int callers, int seconds, AtomicInteger upstreamCalls) throws Exception {
+        delayMs = upstreamDelayMs;
+        failing = upstreamFailing;
+        upstreamCalls.set(0);
+        long fallbacksBefore = client.getFallbacks();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        List<List<Long>> latencies = new ArrayList<>();
+        Thread[] threads = new Thread[callers];
+        for (int c = 0; c < callers; c++) {
+            List<Long> own = new ArrayList<>();
+            latencies.add(own);
+            threads[c] = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    client.callApi("/users/1", e -> "{}");
+                    own.add(System.nanoTime() - start);
+                    try {
+                        Thread.sleep(thinkMs);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            threads[c].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] all = latencies.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+        Arrays.sort(all);
+        System.out.printf("%-10s %9.0f %9.1f %9d %9d %10s %6d%n", name, all.length / (double) seconds,
+                all.length == 0 ? 0 : all[(int) (all.length * 0.99)] / 1e6, upstreamCalls.get(),
+                client.getFallbacks() - fallbacksBefore, client.getCircuitState(),
+                client.getConcurrencyLimit());
+    }
+}
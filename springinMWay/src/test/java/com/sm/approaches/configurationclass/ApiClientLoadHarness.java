@@ -0,0 +1,135 @@
+package com.sm.approaches.configurationclass;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ApiClient under 1k concurrent callers - not a unit test, run by hand
+ *
+ * Starts a local stub upstream (com.sun.net.httpserver, HTTP/1.1 keep-alive,
+ * upstream-ms of latency per response), then lets `callers` threads each make
+ * calls-per-caller blocking callApi calls through ONE ApiClient, spread
+ * over `paths` distinct endpoints. Prints throughput, latency percentiles
+ * (including the wait for a pool slot), how many requests and connections
+ * the stub saw, and the client's cache/coalescing counters.
+ *
+ * With max-age-s > 0 the stub sends Cache-Control: max-age, so repeated
+ * paths are served from ApiClient's response cache; with fewer paths than
+ * callers, concurrent misses on one path are coalesced.
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        com.sm.approaches.configurationclass.ApiClientLoadHarness \
+ *        [callers=1000] [calls-per-caller=20] [max-connections=64] [upstream-ms=5] \
+ *        [paths=0 (every call distinct)] [max-age-s=0]
+ */
+public class ApiClientLoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        int callers = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int callsPerCaller = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int maxConnections = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        long upstreamMs = args.length > 3 ? Long.parseLong(args[3]) : 5;
+        int paths = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        int maxAgeSeconds = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+
+        Set<Integer> connections = ConcurrentHashMap.newKeySet();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HttpServer stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        ExecutorService stubThreads = Executors.newFixedThreadPool(maxConnections);
+        stub.setExecutor(stubThreads);
+        stub.createContext("/", exchange -> {
+            connections.add(exchange.getRemoteAddress().getPort());
+            upstreamCalls.incrementAndGet();
+            try {
+                Thread.sleep(upstreamMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (maxAgeSeconds > 0) {
+                exchange.getResponseHeaders().set("Cache-Control", "max-age=" + maxAgeSeconds);
+            }
+            byte[] body = "{\"id\":1,\"name\":\"stub\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        stub.start();
+
+        AppProperties.ApiConfig config = new AppProperties.ApiConfig();
+        config.setBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+        config.setTimeout(30_000);
+        config.setRetryCount(3);
+        config.setMaxConnections(maxConnections);
+        ApiClient client = new ApiClient(config);
+
+        try {
+            run(client, "/warmup/", Math.min(callers, 50), 10, 0);
+            connections.clear();
+            upstreamCalls.set(0);
+            ApiCacheStats before = client.stats();
+            int total = callers * callsPerCaller;
+            long start = System.nanoTime();
+            long[] latencies = run(client, "/users/", callers, callsPerCaller, paths);
+            ApiCacheStats after = client.stats();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long failed = Arrays.stream(latencies).filter(latency -> latency < 0).count();
+            Arrays.sort(latencies);
+            System.out.printf("%d callers x %d calls over %d paths, max %d connections, " +
+                            "%dms upstream, max-age %ds%n",
+                    callers, callsPerCaller, paths, maxConnections, upstreamMs, maxAgeSeconds);
+            System.out.printf("%8.0f calls/s  p50=%6.1fms  p99=%7.1fms  p99.9=%7.1fms  " +
+                            "failed=%d  retries=%d  connections=%d%n",
+                    total / seconds, latencies[total / 2] / 1e6, latencies[(int) (total * 0.99)] / 1e6,
+                    latencies[(int) (total * 0.999)] / 1e6, failed, client.getRetries(),
+                    connections.size());
+            System.out.printf("upstream requests=%d  cache hits=%d  coalesced=%d%n", upstreamCalls.get(),
+                    after.getHits() - before.getHits(), after.getCoalesced() - before.getCoalesced());
+        } finally {
+            stub.stop(0);
+            stubThreads.shutdownNow();
+        }
+    }
+
+    private static long[] run(ApiClient client, String prefix, int callers, int callsPerCaller, int paths)
+            throws InterruptedException {
+        long[] latencies = new long[callers * callsPerCaller];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[callers];
+        for (int c = 0; c < callers; c++) {
+            int caller = c;
+            threads[c] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < callsPerCaller; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        int path = paths == 0 ? caller * callsPerCaller + i : (caller + i) % paths;
+                        client.callApi(prefix + path);
+                        latencies[caller * callsPerCaller + i] = System.nanoTime() - begin;
+                    } catch (RuntimeException e) {
+                        latencies[caller * callsPerCaller + i] = -1;
+                    }
+                }
+            });
+            threads[c].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,324 @@
+package com.sm.approaches.configurationclass;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiClientTests {
+
+    private HttpServer stub;
+    private final ExecutorService stubThreads = Executors.newCachedThreadPool();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile int failFirst;
+    private volatile long delayMs;
+    private volatile String cacheControl;
+    private volatile String etag;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(stubThreads);
+        stub.createContext("/", this::handle);
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+        stubThreads.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int call = calls.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (cacheControl != null) {
+            exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+        }
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        int status = call <= failFirst ? 503 : 200;
+        byte[] body = ("hello " + exchange.getRequestURI().getPath()).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private AppProperties.ApiConfig config(int timeout, int retryCount) {
+        AppProperties.ApiConfig config = new AppProperties.ApiConfig();
+        config.setBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+        config.setTimeout(timeout);
+        config.setRetryCount(retryCount);
+        config.setRetryBackoffMs(1);
+        return config;
+    }
+
+    private ApiClient client(int timeout, int retryCount) {
+        return new ApiClient(config(timeout, retryCount));
+    }
+
+    @Test
+    void sequentialCallsReuseOneKeepAliveConnection() {
+        ApiClient client = client(2000, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(client.callApi("/users")).isEqualTo("hello /users");
+        }
+
+        assertThat(calls).hasValue(5);
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    void retriesUnavailableUpToRetryCount() {
+        failFirst = 2;
+        ApiClient client = client(2000, 3);
+
+        assertThat(client.callApi("/users")).isEqualTo("hello /users");
+        assertThat(calls).hasValue(3);
+        assertThat(client.getRetries()).isEqualTo(2);
+
+        failFirst = Integer.MAX_VALUE;
+        calls.set(0);
+        assertThatThrownBy(() -> client.callApi("/users"))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("503");
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    void slowResponseTimesOut() {
+        delayMs = 1000;
+        ApiClient client = client(100, 0);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.callApi("/slow"))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("failed after 1 attempt");
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(900);
+    }
+
+    @Test
+    void slotWaitAndResponseShareOneTimeout() throws Exception {
+        delayMs = 400;
+        AppProperties.ApiConfig config = config(600, 0);
+        config.setMaxConnections(1);
+        config.setLimiterLatencyMs(0); // queue for the slot, not rejected by the limiter
+        ApiClient client = new ApiClient(config);
+
+        // First caller holds the only slot for ~400 ms
+        Future<String> first = stubThreads.submit(() -> client.callApi("/first"));
+        Thread.sleep(50);
+
+        // Second caller waits ~350 ms for it, leaving ~250 ms for a 400 ms response
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.callApi("/second"))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("failed after 1 attempt");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("hello /first");
+        // Separate budgets would have let it succeed after ~750 ms
+        assertThat(elapsedMs).isLessThan(700);
+    }
+
+    @Test
+    void retryBudgetStopsRetryStorms() {
+        failFirst = Integer.MAX_VALUE;
+        AppProperties.ApiConfig config = config(2000, 3);
+        config.setBreakerWindow(0); // would stop the storm first
+        ApiClient client = new ApiClient(config);
+
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> client.callApi("/users")).isInstanceOf(UncheckedIOException.class);
+        }
+
+        // At most 10 banked tokens + 20% of 20 calls, instead of 3 retries per call
+        assertThat(client.getRetries()).isBetween(10L, 14L);
+        assertThat(client.getRetriesDenied()).isGreaterThanOrEqualTo(15);
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() throws Exception {
+        delayMs = 300;
+        ApiClient client = client(2000, 0);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[callers];
+            for (int i = 0; i < callers; i++) {
+                futures[i] = pool.submit(() -> {
+                    start.await();
+                    return client.callApi("/users/1");
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isEqualTo("hello /users/1");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(calls).hasValue(1);
+        assertThat(client.stats().getCoalesced()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void freshResponsesAreServedFromCache() {
+        cacheControl = "public, max-age=60";
+        ApiClient client = client(2000, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(client.callApi("/users/1")).isEqualTo("hello /users/1");
+        }
+        client.callApi("/users/2");
+
+        assertThat(calls).hasValue(2);
+        assertThat(client.stats().getHits()).isEqualTo(2);
+        assertThat(client.stats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void staleResponsesAreRevalidatedWithETag() {
+        cacheControl = "no-cache";
+        etag = "\"v1\"";
+        ApiClient client = client(2000, 0);
+
+        assertThat(client.callApi("/users/1")).isEqualTo("hello /users/1");
+        assertThat(client.callApi("/users/1")).isEqualTo("hello /users/1");
+
+        assertThat(calls).hasValue(2); // no-cache: always asks, but the second time gets a 304
+        assertThat(client.stats().getMisses()).isEqualTo(1);
+        assertThat(client.stats().getRevalidations()).isEqualTo(1);
+
+        cacheControl = "no-store";
+        etag = null;
+        client.callApi("/users/3");
+        client.callApi("/users/3");
+        assertThat(client.stats().getMisses()).isEqualTo(3);
+    }
+
+    @Test
+    void cacheEvictsLeastRecentlyUsedByBytes() {
+        HttpHeaders cacheable = HttpHeaders.of(Map.of("Cache-Control", List.of("max-age=60")), (n, v) -> true);
+        String body = "x".repeat(1000); // ~2.1 KB per entry
+        ApiResponseCache cache = new ApiResponseCache(5000);
+
+        cache.put("/a", body, cacheable);
+        cache.put("/b", body, cacheable);
+        cache.get("/a"); // /b is now the least recently used
+        cache.put("/c", body, cacheable);
+
+        assertThat(cache.get("/a")).isNotNull();
+        assertThat(cache.get("/b")).isNull();
+        assertThat(cache.get("/c")).isNotNull();
+        assertThat(cache.bytes()).isLessThanOrEqualTo(5000);
+        assertThat(cache.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void openCircuitFailsFastToFallbackAndRecovers() throws Exception {
+        failFirst = Integer.MAX_VALUE;
+        AppProperties.ApiConfig config = config(2000, 0);
+        config.setBreakerWindow(10);
+        config.setBreakerMinimumCalls(5);
+        config.setBreakerFailureRatePercent(50);
+        config.setBreakerOpenMs(300);
+        config.setBreakerHalfOpenCalls(2);
+        ApiClient client = new ApiClient(config);
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> client.callApi("/users")).hasMessageContaining("503");
+        }
+        assertThat(client.getCircuitState()).isEqualTo("OPEN");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(client.callApi("/users", e -> "fallback")).isEqualTo("fallback");
+        }
+        assertThat(calls).hasValue(5); // rejected without reaching the upstream
+        assertThat(client.getRejections()).isEqualTo(10);
+
+        failFirst = 0;
+        Thread.sleep(350);
+        assertThat(client.callApi("/users")).isEqualTo("hello /users");
+        assertThat(client.getCircuitState()).isEqualTo("HALF_OPEN");
+        assertThat(client.callApi("/users")).isEqualTo("hello /users");
+        assertThat(client.getCircuitState()).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void concurrencyLimitShrinksWhenUpstreamSlowsDownAndRegrows() throws Exception {
+        delayMs = 300;
+        AppProperties.ApiConfig config = config(2000, 0);
+        config.setMaxConnections(8);
+        config.setLimiterInitialLimit(8);
+        config.setLimiterLatencyMs(100);
+        config.setBreakerWindow(0);
+        config.setCoalesce(false);
+        ApiClient client = new ApiClient(config);
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            Future<?>[] futures = new Future<?>[callers];
+            for (int i = 0; i < callers; i++) {
+                futures[i] = pool.submit(() -> {
+                    for (int call = 0; call < 4; call++) {
+                        client.callApi("/slow", e -> "shed");
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(client.getConcurrencyLimit()).isLessThan(4);
+        assertThat(client.getRejections()).isPositive();
+        assertThat(calls.get()).isLessThan(callers * 4);
+
+        delayMs = 0;
+        for (int i = 0; i < 100; i++) {
+            client.callApi("/fast");
+        }
+        assertThat(client.getConcurrencyLimit()).isEqualTo(8);
+    }
+}
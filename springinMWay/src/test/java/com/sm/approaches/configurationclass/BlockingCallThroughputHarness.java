@@ -0,0 +1,100 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PLATFORM vs VIRTUAL THREADS for request handlers that block downstream
+ * - not a unit test, run by hand
+ *
+ * Every simulated request calls ApiClient.describe and then waits for the
+ * downstream round trip (a sleep of downstream-ms, which is what a real
+ * blocking HTTP call costs the handler thread). Requests run on:
+ *
+ *   platform: a fixed pool of platform-threads threads - Tomcat's default
+ *             server.tomcat.threads.max is 200, so throughput is capped at
+ *             threads / downstream latency and the rest queue
+ *   virtual:  one virtual thread per request, as with
+ *             spring.threads.virtual.enabled=true (Java 21+ only)
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        com.sm.approaches.configurationclass.BlockingCallThroughputHarness \
+ *        [requests=20000] [downstream-ms=50] [platform-threads=200]
+ */
+public class BlockingCallThroughputHarness {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long downstreamMs = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        int platformThreads = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        ApiClient apiClient = new ApiClient("https://api.example.com", 5000, 3);
+        System.out.printf("%d requests, %dms blocking downstream call each%n", requests, downstreamMs);
+
+        run("platform(" + platformThreads + ")", Executors.newFixedThreadPool(platformThreads),
+                apiClient, requests, downstreamMs);
+
+        ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+        if (virtual == null) {
+            System.out.println("virtual: not available on Java " + Runtime.version().feature() +
+                    " (needs 21+)");
+        } else {
+            run("virtual", virtual, apiClient, requests, downstreamMs);
+        }
+    }
+
+    private static void run(String mode, ExecutorService executor, ApiClient apiClient,
+                            int requests, long downstreamMs) throws Exception {
+        long[] latencies = new long[requests];
+        List<Future<?>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    apiClient.describe("/users/" + request);
+                    sleep(downstreamMs);
+                    latencies[request] = System.nanoTime() - submitted;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-14s %8.0f req/s   p50=%6.1fms   p99=%7.1fms%n", mode,
+                requests / seconds, latencies[requests / 2] / 1e6,
+                latencies[(int) (requests * 0.99)] / 1e6);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Looked up reflectively so this still compiles for Java 17
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.sm.approaches.configurationclass;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationPipelineTests {
+
+    private NotificationPipeline pipeline;
+
+    @AfterEach
+    void closePipeline() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    private NotificationPipeline pipeline(int queueCapacity, int batchSize, int maxAttempts) {
+        AppProperties.NotificationConfig config = new AppProperties.NotificationConfig();
+        config.setQueueCapacity(queueCapacity);
+        config.setBatchSize(batchSize);
+        config.setFlushMs(20);
+        config.setWorkers(1);
+        config.setMaxAttempts(maxAttempts);
+        config.setRetryBackoffMs(1);
+        pipeline = new NotificationPipeline(config);
+        return pipeline;
+    }
+
+    @Test
+    void slowGatewayDoesNotBlockProducersAndGetsBatches() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        NotificationGateway slowSmtp = messages -> {
+            Thread.sleep(50);
+            batchSizes.add(messages.size());
+        };
+        EmailService email = new EmailService("test", pipeline(1000, 25, 1), slowSmtp);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            sent.add(email.sendNotificationAsync("message " + i));
+        }
+        long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        CompletableFuture.allOf(sent.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertThat(submitMillis).isLessThan(50); // one gateway call would take longer
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(200);
+        assertThat(batchSizes).allMatch(size -> size <= 25);
+        assertThat(batchSizes.size()).isLessThan(20);
+        assertThat(pipeline.getDeliveredCount()).isEqualTo(200);
+    }
+
+    @Test
+    void failedBatchesAreRetriedThenDeadLetteredAndCanBeRedelivered() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger failuresLeft = new AtomicInteger(1);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        NotificationGateway flakySms = messages -> {
+            calls.incrementAndGet();
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("gateway down");
+            }
+            delivered.addAll(messages);
+        };
+        SmsService sms = new SmsService("test", pipeline(1000, 10, 2), flakySms);
+
+        sms.sendNotificationAsync("retried").get(5, TimeUnit.SECONDS);
+        assertThat(delivered).containsExactly("retried");
+        assertThat(pipeline.getRetryCount()).isEqualTo(1);
+
+        failuresLeft.set(2); // both attempts fail
+        CompletableFuture<Void> lost = sms.sendNotificationAsync("dead");
+        assertThatThrownBy(() -> lost.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("gateway down");
+        assertThat(pipeline.getDeadLetters().snapshot())
+                .singleElement()
+                .satisfies(letter -> {
+                    assertThat(letter.getChannel()).isEqualTo("SMS");
+                    assertThat(letter.getMessage()).isEqualTo("dead");
+                    assertThat(letter.getAttempts()).isEqualTo(2);
+                });
+
+        assertThat(pipeline.redeliverDeadLetters()).isEqualTo(1);
+        pipeline.close();
+        assertThat(delivered).containsExactly("retried", "dead");
+        assertThat(pipeline.getDeadLetters().size()).isZero();
+    }
+
+    @Test
+    void fullQueueRejectsAtOnceIntoDeadLetters() throws Exception {
+        CompletableFuture<Void> gatewayReleased = new CompletableFuture<>();
+        NotificationGateway stuck = messages -> gatewayReleased.get();
+        EmailService email = new EmailService("test", pipeline(4, 1, 1), stuck);
+
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sent.add(email.sendNotificationAsync("message " + i));
+        }
+
+        // One message is held by the stuck worker, 4 wait in the queue, the rest are refused
+        assertThat(pipeline.getRejectedCount()).isBetween(15L, 16L);
+        assertThat(sent).filteredOn(CompletableFuture::isCompletedExceptionally)
+                .hasSize((int) pipeline.getRejectedCount());
+        assertThatThrownBy(() -> sent.get(19).get())
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(pipeline.getDeadLetters().snapshot())
+                .allMatch(letter -> letter.getReason().startsWith("queue full"));
+
+        gatewayReleased.complete(null);
+    }
+
+    @Test
+    void withoutAPipelineGatewayFailuresReachTheCaller() {
+        NotificationGateway down = messages -> {
+            throw new IllegalStateException("gateway down");
+        };
+        SmsService sms = new SmsService("test", null, down);
+        EmailService email = new EmailService("test", null, messages -> {
+            throw new IOException("smtp refused");
+        });
+
+        assertThatThrownBy(() -> sms.sendNotification("hi")).hasMessage("gateway down");
+        assertThatThrownBy(() -> email.sendNotification("hi")).hasRootCauseMessage("smtp refused");
+        assertThat(sms.sendNotificationAsync("hi")).isCompletedExceptionally();
+    }
+}
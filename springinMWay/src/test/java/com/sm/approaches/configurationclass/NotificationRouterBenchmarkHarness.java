@@ -0,0 +1,77 @@
+package com.sm.approaches.configurationclass;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+/**
+ * Dispatch overhead of NotificationRouter - not a unit test, run by hand
+ *
+ * Behind the router: 4 EMAIL and 2 SMS beans that complete at once, so
+ * only the routing itself is measured. Prints ns and bytes allocated per
+ * send (from com.sun.management.ThreadMXBean) for:
+ *
+ *   direct            - one bean's sendNotificationAsync, no router
+ *   least-outstanding - router.send("EMAIL", ...)
+ *   weighted          - router.send("EMAIL", ...)
+ *   fan-out           - router.sendNotificationAsync (EMAIL + SMS)
+ *
+ *   java -cp target/classes:target/test-classes:<dependencies> \
+ *        com.sm.approaches.configurationclass.NotificationRouterBenchmarkHarness [sends=2000000]
+ */
+public class NotificationRouterBenchmarkHarness {
+
+    public static void main(String[] args) {
+        int sends = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        NotificationService direct = new NotificationRouterTests.StubService("EMAIL");
+        NotificationRouter leastOutstanding = router(RoutingStrategy.LEAST_OUTSTANDING);
+        NotificationRouter weighted = router(RoutingStrategy.WEIGHTED);
+
+        for (int round = 0; round < 2; round++) { // the first round warms up
+            boolean print = round == 1;
+            measure("direct", sends, print, i -> direct.sendNotificationAsync("m"));
+            measure("least-outstanding", sends, print, i -> leastOutstanding.send("EMAIL", "m"));
+            measure("weighted", sends, print, i -> weighted.send("EMAIL", "m"));
+            measure("fan-out", sends, print, i -> leastOutstanding.sendNotificationAsync("m"));
+        }
+    }
+
+    private static NotificationRouter router(RoutingStrategy strategy) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        for (int i = 0; i < 4; i++) {
+            beanFactory.addBean("email" + i, new NotificationRouterTests.StubService("EMAIL"));
+        }
+        for (int i = 0; i < 2; i++) {
+            beanFactory.addBean("sms" + i, new NotificationRouterTests.StubService("SMS"));
+        }
+        AppProperties.NotificationConfig config = new AppProperties.NotificationConfig();
+        config.setRouterBalancing(strategy);
+        NotificationRouter router = new NotificationRouter(beanFactory, config);
+        router.setBeanName("router");
+        router.getServiceTypes(); // discover now, not inside the measurement
+        return router;
+    }
+
+    private static void measure(String mode, int sends, boolean print,
+                                IntFunction<CompletableFuture<Void>> send) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long done = 0;
+        for (int i = 0; i < sends; i++) {
+            if (send.apply(i).isDone()) {
+                done++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (print) {
+            System.out.printf("%-18s %8.1f ns/send %6d B/send  (%d done)%n", mode,
+                    (double) elapsed / sends, allocated / sends, done);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.sm.approaches.configurationclass;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationRouterTests {
+
+    /**
+     * Stub channel: completes immediately unless told to hang
+     */
+    static class StubService implements NotificationService {
+        final String type;
+        final AtomicInteger sends = new AtomicInteger();
+        final List<CompletableFuture<Void>> hanging = new CopyOnWriteArrayList<>();
+        volatile boolean hang;
+
+        StubService(String type) {
+            this.type = type;
+        }
+
+        @Override
+        public void sendNotification(String message) {
+            sendNotificationAsync(message);
+        }
+
+        @Override
+        public CompletableFuture<Void> sendNotificationAsync(String message) {
+            sends.incrementAndGet();
+            if (hang) {
+                CompletableFuture<Void> pending = new CompletableFuture<>();
+                hanging.add(pending);
+                return pending;
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public String getServiceType() {
+            return type;
+        }
+    }
+
+    private final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    private final AppProperties.NotificationConfig config = new AppProperties.NotificationConfig();
+
+    private NotificationRouter router() {
+        NotificationRouter router = new NotificationRouter(beanFactory, config);
+        router.setBeanName("router");
+        beanFactory.addBean("router", router);
+        return router;
+    }
+
+    @Test
+    void fansOutToOneBeanPerTypeAndSkipsItself() throws Exception {
+        StubService email = new StubService("EMAIL");
+        StubService sms = new StubService("SMS");
+        beanFactory.addBean("email", email);
+        beanFactory.addBean("sms", sms);
+        NotificationRouter router = router();
+
+        router.sendNotificationAsync("hello").get(1, TimeUnit.SECONDS);
+
+        assertThat(router.getServiceTypes()).containsExactlyInAnyOrder("EMAIL", "SMS");
+        assertThat(email.sends).hasValue(1);
+        assertThat(sms.sends).hasValue(1);
+        assertThat(router.stats()).extracting(NotificationRouteStats::getBeanName)
+                .containsExactlyInAnyOrder("email", "sms");
+    }
+
+    @Test
+    void weightedSplitsTrafficByWeight() {
+        StubService heavy = new StubService("EMAIL");
+        StubService light = new StubService("EMAIL");
+        beanFactory.addBean("heavy", heavy);
+        beanFactory.addBean("light", light);
+        config.setRouterBalancing(RoutingStrategy.WEIGHTED);
+        config.setRouterWeights(Map.of("heavy", 3));
+        NotificationRouter router = router();
+
+        for (int i = 0; i < 400; i++) {
+            router.send("EMAIL", "m" + i);
+        }
+
+        assertThat(heavy.sends).hasValue(300);
+        assertThat(light.sends).hasValue(100);
+    }
+
+    @Test
+    void leastOutstandingAvoidsABackedUpBean() {
+        StubService stuck = new StubService("SMS");
+        StubService free = new StubService("SMS");
+        stuck.hang = true;
+        beanFactory.addBean("stuck", stuck);
+        beanFactory.addBean("free", free);
+        config.setRouterFailoverMs(60_000);
+        NotificationRouter router = router();
+
+        for (int i = 0; i < 100; i++) {
+            router.send("SMS", "m" + i);
+        }
+
+        // Only the first pick can land on the stuck bean; after that it has one outstanding send
+        assertThat(stuck.sends.get()).isLessThanOrEqualTo(1);
+        assertThat(free.sends.get()).isGreaterThanOrEqualTo(99);
+    }
+
+    @Test
+    void slowBeanFailsOverToTheNextOfTheSameType() throws Exception {
+        StubService slow = new StubService("EMAIL");
+        StubService backup = new StubService("EMAIL");
+        slow.hang = true;
+        beanFactory.addBean("slow", slow);
+        beanFactory.addBean("backup", backup);
+        config.setRouterBalancing(RoutingStrategy.WEIGHTED);
+        config.setRouterWeights(Map.of("slow", 100)); // always tried first
+        config.setRouterFailoverMs(50);
+        NotificationRouter router = router();
+
+        long start = System.nanoTime();
+        router.send("EMAIL", "important").get(2, TimeUnit.SECONDS);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(50);
+        assertThat(slow.sends).hasValue(1);
+        assertThat(backup.sends).hasValue(1);
+        Map<String, NotificationRouteStats> stats = router.stats().stream()
+                .collect(Collectors.toMap(NotificationRouteStats::getBeanName, s -> s));
+        assertThat(stats.get("slow").getTimeouts()).isEqualTo(1);
+        assertThat(stats.get("slow").getOutstanding()).isEqualTo(1);
+
+        slow.hanging.forEach(pending -> pending.complete(null)); // late delivery is still measured
+        assertThat(router.stats().stream()
+                .filter(s -> s.getBeanName().equals("slow"))
+                .findFirst().orElseThrow().getLatency().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deadLetteredSendIsNotFailedOverIntoTheSharedPipeline() throws Exception {
+        config.setQueueCapacity(1);
+        config.setBatchSize(1);
+        config.setWorkers(1);
+        config.setMaxAttempts(1);
+        NotificationPipeline pipeline = new NotificationPipeline(config);
+        CountDownLatch held = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        NotificationGateway smtp = messages -> {
+            held.countDown();
+            release.get();
+            delivered.addAll(messages);
+        };
+        beanFactory.addBean("email", new EmailService("a", pipeline, smtp));
+        beanFactory.addBean("emailBackup", new EmailService("b", pipeline, smtp));
+        NotificationRouter router = router();
+        try {
+            // The worker holds one message, one more fills the queue
+            CompletableFuture<Void> first = pipeline.submit("EMAIL", smtp, "held");
+            assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Void> second = pipeline.submit("EMAIL", smtp, "queued");
+
+            CompletableFuture<Void> sent = router.send("EMAIL", "routed");
+            assertThatThrownBy(() -> sent.get(1, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(NotificationPipeline.DeadLetteredException.class);
+            assertThat(pipeline.getRejectedCount()).isEqualTo(1);
+            assertThat(router.stats()).extracting(NotificationRouteStats::getSent).containsExactlyInAnyOrder(1L, 0L);
+
+            // One dead letter, so the message is redelivered once, not once per bean
+            release.complete(null);
+            CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+            assertThat(pipeline.redeliverDeadLetters()).isEqualTo(1);
+        } finally {
+            release.complete(null);
+            pipeline.close();
+        }
+        assertThat(delivered).containsExactly("held", "queued", "routed");
+    }
+
+    @Test
+    void slowGatewayOnOneBeanDoesNotHoldUpTheOther() throws Exception {
+        config.setWorkers(1);
+        config.setBatchSize(1);
+        config.setFlushMs(1);
+        config.setRouterFailoverMs(200);
+        NotificationPipeline pipeline = new NotificationPipeline(config);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        List<String> fastDelivered = new CopyOnWriteArrayList<>();
+        EmailService slow = new EmailService("slow", pipeline, messages -> release.get());
+        EmailService fast = new EmailService("fast", pipeline, fastDelivered::addAll);
+        slow.setBeanName("slow");
+        fast.setBeanName("fast");
+        beanFactory.addBean("slow", slow);
+        beanFactory.addBean("fast", fast);
+        NotificationRouter router = router();
+        try {
+            for (int i = 0; i < 4; i++) {
+                // Picked or failed over to within failoverMs, "fast" delivers at once
+                router.send("EMAIL", "m" + i).get(1, TimeUnit.SECONDS);
+            }
+            assertThat(fastDelivered).containsExactlyInAnyOrder("m0", "m1", "m2", "m3");
+        } finally {
+            release.complete(null);
+            pipeline.close();
+        }
+    }
+
+    @Test
+    void failoverAfterATimeoutRunsOffTheSharedDelayerThread() throws Exception {
+        StubService slow = new StubService("SMS");
+        slow.hang = true;
+        List<String> sendThreads = new CopyOnWriteArrayList<>();
+        NotificationService blocking = new NotificationService() {
+            // Uses the interface's synchronous sendNotificationAsync
+            @Override
+            public void sendNotification(String message) {
+                sendThreads.add(Thread.currentThread().getName());
+            }
+
+            @Override
+            public String getServiceType() {
+                return "SMS";
+            }
+        };
+        beanFactory.addBean("slow", slow);
+        beanFactory.addBean("blocking", blocking);
+        config.setRouterBalancing(RoutingStrategy.WEIGHTED);
+        config.setRouterWeights(Map.of("slow", 100)); // always tried first
+        config.setRouterFailoverMs(50);
+        NotificationRouter router = router();
+        try {
+            router.send("SMS", "hello").get(2, TimeUnit.SECONDS);
+        } finally {
+            router.destroy();
+        }
+
+        assertThat(sendThreads).singleElement().asString().startsWith("notify-router-");
+    }
+}
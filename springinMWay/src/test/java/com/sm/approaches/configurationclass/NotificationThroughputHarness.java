@@ -0,0 +1,96 @@
+package com.sm.approaches.configurationclass;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained throughput of NotificationPipeline - not a unit test, run by hand
+ *
+ * In-process stub gateways cost what a remote one does: round-trip-ms per
+ * gateway call (an SMTP session, an SMS API request) plus 20us per message.
+ * `producers` threads send email and SMS alternately for `seconds`, each
+ * keeping up to 200 messages in flight (waiting on the oldest future beyond
+ * that - the producer's choice, the pipeline itself never blocks).
+ *
+ * For batch sizes 1, 10 and 50 it prints delivered messages/s, gateway
+ * calls, and the p99 of submit() itself - the only cost a producer pays.
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        com.sm.approaches.configurationclass.NotificationThroughputHarness \
+ *        [producers=8] [seconds=5] [round-trip-ms=20] [workers=4]
+ */
+public class NotificationThroughputHarness {
+
+    private static final int IN_FLIGHT_PER_PRODUCER = 200;
+
+    public static void main(String[] args) throws Exception {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long roundTripMs = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        System.out.printf("%d producers, %ds, %dms gateway round trip, %d workers per channel%n",
+                producers, seconds, roundTripMs, workers);
+        System.out.printf("%-6s %12s %14s %16s%n", "batch", "messages/s", "gateway calls", "submit p99 us");
+        for (int batchSize : new int[] {1, 10, 50}) {
+            run(batchSize, producers, seconds, roundTripMs, workers);
+        }
+    }
+
+    private static void run(int batchSize, int producers, int seconds, long roundTripMs, int workers)
+            throws Exception {
+        AppProperties.NotificationConfig config = new AppProperties.NotificationConfig();
+        config.setBatchSize(batchSize);
+        config.setWorkers(workers);
+        config.setFlushMs(5);
+        NotificationPipeline pipeline = new NotificationPipeline(config);
+        NotificationGateway gateway = messages -> stubRoundTrip(roundTripMs, messages);
+        NotificationService email = new EmailService("bench", pipeline, gateway);
+        NotificationService sms = new SmsService("bench", pipeline, gateway);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long[][] submitNanos = new long[producers][];
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                ArrayDeque<CompletableFuture<Void>> inFlight = new ArrayDeque<>();
+                long[] samples = new long[1 << 20];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    if (inFlight.size() >= IN_FLIGHT_PER_PRODUCER) {
+                        inFlight.poll().exceptionally(e -> null).join();
+                    }
+                    NotificationService channel = (count & 1) == 0 ? email : sms;
+                    long start = System.nanoTime();
+                    inFlight.add(channel.sendNotificationAsync("message " + count));
+                    if (count < samples.length) {
+                        samples[count] = System.nanoTime() - start;
+                    }
+                    count++;
+                }
+                submitNanos[producer] = Arrays.copyOf(samples, Math.min(count, samples.length));
+            });
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long delivered = pipeline.getDeliveredCount();
+        long gatewayCalls = pipeline.getBatchCount();
+        pipeline.close();
+
+        long[] all = Arrays.stream(submitNanos).flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+        System.out.printf("%-6d %12.0f %14d %16.1f%n", batchSize, delivered / (double) seconds,
+                gatewayCalls, all[(int) (all.length * 0.99)] / 1e3);
+    }
+
+    private static void stubRoundTrip(long roundTripMs, List<String> messages) throws InterruptedException {
+        long micros = roundTripMs * 1000 + 20L * messages.size();
+        TimeUnit.MICROSECONDS.sleep(micros);
+    }
+}
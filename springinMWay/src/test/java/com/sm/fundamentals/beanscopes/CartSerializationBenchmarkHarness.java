@@ -0,0 +1,94 @@
+package com.sm.fundamentals.beanscopes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-request cart serialization cost - not a unit test, run by hand
+ *
+ * For carts of several sizes, compares what one request costs:
+ *
+ *   POST /cart/add   delta:    encode the new item only (CartCodec)
+ *                    rewrite:  Java-serialize the whole cart again
+ *   GET  /cart/items compact:  decode the CartCodec bytes
+ *                    java:     deserialize the whole cart
+ *
+ * and how many bytes each one sends to the store.
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        com.sm.fundamentals.beanscopes.CartSerializationBenchmarkHarness
+ */
+public class CartSerializationBenchmarkHarness {
+
+    private static final int ITERATIONS = 200_000;
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-6s %14s %14s %12s %12s %12s %12s%n", "items",
+                "delta ns/add", "rewrite ns/add", "delta B", "rewrite B", "decode ns", "java ns");
+        for (int size : new int[] {1, 10, 50, 200}) {
+            List<Item> items = new ArrayList<>();
+            ArrayList<String> names = new ArrayList<>();
+            InMemoryCartStore store = new InMemoryCartStore();
+            for (int i = 0; i < size; i++) {
+                Item item = new Item("product-" + i);
+                items.add(item);
+                names.add(item.getName());
+                store.addItem("cart", item);
+            }
+            Item added = new Item("product-new");
+            byte[] compact = store.load("cart");
+            byte[] java = serialize(names);
+
+            // Warm up, then measure
+            for (int round = 0; round < 2; round++) {
+                long deltaNanos = time(() -> sink = CartCodec.encodeItem(added));
+                long rewriteNanos = time(() -> {
+                    names.add(added.getName());
+                    sink = serialize(names);
+                    names.remove(names.size() - 1);
+                });
+                long decodeNanos = time(() -> sink = CartCodec.decode(compact));
+                long javaNanos = time(() -> sink = deserialize(java));
+                if (round == 1) {
+                    names.add(added.getName());
+                    System.out.printf("%-6d %14d %14d %12d %12d %12d %12d%n", size,
+                            deltaNanos, rewriteNanos, CartCodec.encodeItem(added).length,
+                            serialize(names).length, decodeNanos, javaNanos);
+                }
+            }
+        }
+    }
+
+    private static long time(ThrowingRunnable body) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            body.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static byte[] serialize(ArrayList<String> names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(names);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
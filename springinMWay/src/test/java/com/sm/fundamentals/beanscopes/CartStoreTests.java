@@ -0,0 +1,165 @@
+package com.sm.fundamentals.beanscopes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CartStoreTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void itemsRoundTripThroughTheCompactEncoding() {
+        String longName = "x".repeat(300); // two-byte length prefix
+        CartStore store = new InMemoryCartStore();
+        store.addItem("cart", new Item("apple"));
+        store.addItem("cart", new Item("bröt"));
+        store.addItem("cart", new Item(longName));
+
+        assertThat(store.getItems("cart")).extracting(Item::getName)
+                .containsExactly("apple", "bröt", longName);
+        assertThat(store.load("cart")).hasSize((2 + 5) + (2 + 5) + (3 + 300));
+        assertThat(store.getItems("unknown")).isEmpty();
+    }
+
+    @Test
+    void rejectsUnknownItemTags() {
+        assertThatThrownBy(() -> CartCodec.decode(new byte[] {0x7F, 1, 'a'}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CartCodec.decode(new byte[] {0x01, 5, 'a'}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fileStoreReplaysDeltasAndCutsACorruptTail() throws Exception {
+        Path file = dir.resolve("carts.log");
+        try (FileCartStore store = new FileCartStore(file)) {
+            store.addItem("a", new Item("apple"));
+            store.addItem("b", new Item("banana"));
+            store.addItem("a", new Item("avocado"));
+        }
+        long goodLength = Files.size(file);
+        Files.write(file, new byte[] {0, 0, 0, 30, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (FileCartStore store = new FileCartStore(file)) {
+            assertThat(Files.size(file)).isEqualTo(goodLength);
+            assertThat(store.getItems("a")).extracting(Item::getName).containsExactly("apple", "avocado");
+            store.addItem("b", new Item("blueberry"));
+        }
+
+        try (FileCartStore store = new FileCartStore(file)) {
+            assertThat(store.getItems("b")).extracting(Item::getName).containsExactly("banana", "blueberry");
+        }
+    }
+
+    @Test
+    void growingCartKeepsEveryItemInOrder() {
+        InMemoryCartStore store = new InMemoryCartStore();
+        for (int i = 0; i < 1_000; i++) {
+            store.addItem("cart", new Item("item-" + i));
+        }
+        store.addItem("other", new Item("solo"));
+
+        List<Item> items = store.getItems("cart");
+        assertThat(items).hasSize(1_000);
+        assertThat(items.get(0).getName()).isEqualTo("item-0");
+        assertThat(items.get(999).getName()).isEqualTo("item-999");
+        assertThat(store.getItems("other")).extracting(Item::getName).containsExactly("solo");
+    }
+
+    @Test
+    void fileStoreCompactsToOneRecordPerCartAndReplaysTheSameItems() throws Exception {
+        Path file = dir.resolve("carts.log");
+        int itemsPerCart = 300;
+        String[] carts = {"session-a", "session-b", "session-c"};
+        long uncompacted = 0;
+        long compacted = 0;
+        for (String cart : carts) {
+            compacted += 8 + 2 + cart.length() + 8;
+        }
+        try (FileCartStore store = new FileCartStore(file, 4096)) {
+            for (int i = 0; i < itemsPerCart; i++) {
+                for (String cart : carts) {
+                    int item = CartCodec.encodeItem(new Item("item-" + i)).length;
+                    store.addItem(cart, new Item("item-" + i));
+                    uncompacted += 8 + 2 + cart.length() + 8 + item;
+                    compacted += item;
+                }
+            }
+            assertThat(store.getCompactionCount()).isPositive();
+        }
+        // Compacted, plus whatever was appended since: never 2x the carts it holds
+        assertThat(Files.size(file)).isLessThan(2 * compacted).isLessThan(uncompacted);
+        assertThat(Files.exists(dir.resolve("carts.log.compact"))).isFalse();
+
+        try (FileCartStore store = new FileCartStore(file, 4096)) {
+            List<Item> items = store.getItems("session-b");
+            assertThat(items).hasSize(itemsPerCart);
+            assertThat(items.get(itemsPerCart - 1).getName()).isEqualTo("item-" + (itemsPerCart - 1));
+            store.addItem("session-b", new Item("after-restart"));
+        }
+        try (FileCartStore store = new FileCartStore(file, 4096)) {
+            assertThat(store.getItems("session-b")).hasSize(itemsPerCart + 1);
+        }
+    }
+
+    @Test
+    void idleCartsExpireAfterTheTtlButReadCartsStay() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        InMemoryCartStore store = new InMemoryCartStore(Duration.ofDays(30), clock::get);
+        store.addItem("idle", new Item("apple"));
+        store.addItem("read", new Item("pear"));
+
+        clock.addAndGet(TimeUnit.DAYS.toMillis(20));
+        assertThat(store.getItems("read")).hasSize(1); // a read counts as access
+        clock.addAndGet(TimeUnit.DAYS.toMillis(11));
+
+        assertThat(store.getItems("idle")).isEmpty();
+        assertThat(store.getItems("read")).hasSize(1);
+        store.addItem("new", new Item("plum")); // appends sweep the map
+        assertThat(store.size()).isEqualTo(2);
+        store.addItem("idle", new Item("fresh"));
+        assertThat(store.getItems("idle")).extracting(Item::getName).containsExactly("fresh");
+    }
+
+    @Test
+    void fileStoreDropsExpiredCartsAndKeepsTheirAgeAcrossRestarts() throws Exception {
+        Path file = dir.resolve("carts.log");
+        AtomicLong clock = new AtomicLong(1_000_000);
+        Duration ttl = Duration.ofDays(30);
+        try (FileCartStore store = new FileCartStore(file, 1 << 20, ttl, clock::get)) {
+            for (int i = 0; i < 10; i++) {
+                store.addItem("old", new Item("apple-" + i));
+            }
+            clock.addAndGet(TimeUnit.DAYS.toMillis(10));
+            store.addItem("young", new Item("pear"));
+        }
+
+        // 25 days later: a restart must not make "old" young again
+        clock.addAndGet(TimeUnit.DAYS.toMillis(25));
+        long uncompacted = Files.size(file);
+        try (FileCartStore store = new FileCartStore(file, 0, ttl, clock::get)) {
+            assertThat(store.getItems("old")).isEmpty();
+            assertThat(store.getItems("young")).extracting(Item::getName).containsExactly("pear");
+            assertThat(store.getCompactionCount()).isEqualTo(1);
+        }
+        assertThat(Files.size(file)).isLessThan(uncompacted);
+
+        // The compacted record keeps the cart's time: 21 more days and it is gone too
+        clock.addAndGet(TimeUnit.DAYS.toMillis(21));
+        try (FileCartStore store = new FileCartStore(file, 1 << 20, ttl, clock::get)) {
+            assertThat(store.getItems("young")).isEmpty();
+        }
+    }
+}
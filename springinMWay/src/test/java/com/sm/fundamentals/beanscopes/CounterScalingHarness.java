@@ -0,0 +1,86 @@
+package com.sm.fundamentals.beanscopes;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * COUNTER SCALING from 1 to N threads - not a unit test, run by hand
+ *
+ * Every thread increments as fast as it can for `millis`; prints total
+ * increments per second for:
+ *
+ *   atomic   - one AtomicInteger, every increment CASes the same cache line
+ *   striped  - SingletonBean (app.counters.adaptive=false): LongAdder cells
+ *   adaptive - SingletonBean (app.counters.adaptive=true): AtomicLong until contended
+ *
+ * and checks that the final count equals the increments made (no lost updates).
+ * Scaling only shows with as many free cores as threads.
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        com.sm.fundamentals.beanscopes.CounterScalingHarness [maxThreads=cores] [millis=2000]
+ */
+public class CounterScalingHarness {
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+
+        System.out.printf("%d cores available%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %16s %16s %16s%n", "threads", "atomic ops/s", "striped ops/s", "adaptive ops/s");
+        for (int threads = 1; threads <= Math.max(1, maxThreads); threads *= 2) {
+            AtomicInteger atomic = new AtomicInteger();
+            SingletonBean striped = new SingletonBean(false);
+            SingletonBean adaptive = new SingletonBean(true);
+
+            double atomicRate = run(threads, millis, atomic::incrementAndGet, atomic::get);
+            double stripedRate = run(threads, millis, striped::increment,
+                    () -> striped.getCount(SingletonBean.DEFAULT_COUNTER));
+            double adaptiveRate = run(threads, millis, adaptive::increment,
+                    () -> adaptive.getCount(SingletonBean.DEFAULT_COUNTER));
+            System.out.printf("%-8d %16.0f %16.0f %16.0f%n", threads, atomicRate, stripedRate, adaptiveRate);
+        }
+    }
+
+    interface Total {
+        long get();
+    }
+
+    private static double run(int threads, long millis, Runnable increment, Total total)
+            throws InterruptedException {
+        LongAdder made = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+                long count = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                    increment.run();
+                    count++;
+                }
+                made.add(count);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        if (total.get() != made.sum()) {
+            throw new IllegalStateException("Lost updates: counted " + total.get() +
+                    " of " + made.sum());
+        }
+        return made.sum() / (elapsed / 1e9);
+    }
+}
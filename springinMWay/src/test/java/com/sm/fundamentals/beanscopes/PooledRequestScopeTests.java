@@ -0,0 +1,184 @@
+package com.sm.fundamentals.beanscopes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledRequestScopeTests {
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void recyclesTheInstanceForTheNextRequestOnTheThread() {
+        DefaultListableBeanFactory beanFactory = beanFactory(true, 4);
+
+        ServletRequestAttributes first = startRequest();
+        Counted firstBean = beanFactory.getBean(Counted.class);
+        assertThat(beanFactory.getBean(Counted.class)).isSameAs(firstBean);
+        int firstRequest = firstBean.request;
+        first.requestCompleted();
+
+        startRequest().requestCompleted(); // no lookup - nothing taken from the pool
+
+        ServletRequestAttributes second = startRequest();
+        Counted secondBean = beanFactory.getBean(Counted.class);
+        second.requestCompleted();
+
+        assertThat(secondBean).isSameAs(firstBean);
+        assertThat(secondBean.request).isNotEqualTo(firstRequest);
+        assertThat(Counted.created.get()).isEqualTo(1);
+        assertThat(Counted.destroyed.get()).isZero();
+    }
+
+    @Test
+    void destroysWhatDoesNotFitInThePool() {
+        DefaultListableBeanFactory beanFactory = beanFactory(true, 1);
+
+        // Two requests in flight on one thread (e.g. an async dispatch)
+        ServletRequestAttributes first = startRequest();
+        Counted firstBean = beanFactory.getBean(Counted.class);
+        ServletRequestAttributes second = startRequest();
+        Counted secondBean = beanFactory.getBean(Counted.class);
+        first.requestCompleted();
+        second.requestCompleted();
+
+        assertThat(secondBean).isNotSameAs(firstBean);
+        assertThat(Counted.created.get()).isEqualTo(2);
+        assertThat(Counted.destroyed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void aRequestOnAnotherThreadReusesTheInstance() throws Exception {
+        DefaultListableBeanFactory beanFactory = beanFactory(true, 4);
+
+        ServletRequestAttributes first = startRequest();
+        Counted firstBean = beanFactory.getBean(Counted.class);
+        first.requestCompleted();
+
+        // A fresh thread per request, as with virtual threads
+        AtomicReference<Counted> secondBean = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            ServletRequestAttributes second = startRequest();
+            secondBean.set(beanFactory.getBean(Counted.class));
+            second.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+        });
+        other.start();
+        other.join();
+
+        assertThat(secondBean.get()).isSameAs(firstBean);
+        assertThat(Counted.created.get()).isEqualTo(1);
+    }
+
+    @Test
+    void removedAndIdleInstancesAreDestroyed() {
+        PooledRequestScope scope = new PooledRequestScope(true, 4);
+        DefaultListableBeanFactory beanFactory = beanFactory(scope);
+
+        ServletRequestAttributes first = startRequest();
+        beanFactory.getBean(Counted.class);
+        // Returns null: already destroyed, destroyScopedBean must not do it again
+        beanFactory.destroyScopedBean("counted");
+        assertThat(Counted.destroyed.get()).isEqualTo(1);
+        first.requestCompleted();
+        assertThat(scope.idleCount("counted")).isZero();
+
+        ServletRequestAttributes second = startRequest();
+        beanFactory.getBean(Counted.class);
+        second.requestCompleted();
+        assertThat(scope.idleCount("counted")).isEqualTo(1);
+
+        beanFactory.destroySingletons(); // context close
+        assertThat(Counted.created.get()).isEqualTo(2);
+        assertThat(Counted.destroyed.get()).isEqualTo(2);
+        assertThat(scope.idleCount("counted")).isZero();
+    }
+
+    @Test
+    void withoutPoolingBehavesLikeTheStockRequestScope() {
+        DefaultListableBeanFactory beanFactory = beanFactory(false, 4);
+
+        for (int i = 0; i < 3; i++) {
+            ServletRequestAttributes request = startRequest();
+            beanFactory.getBean(Counted.class);
+            request.requestCompleted();
+        }
+
+        assertThat(Counted.created.get()).isEqualTo(3);
+        assertThat(Counted.destroyed.get()).isEqualTo(3);
+    }
+
+    @Test
+    void requestIdsAreUniqueAndTimeOrdered() {
+        String previous = RequestIdGenerator.next();
+        for (int i = 0; i < 100_000; i++) {
+            String next = RequestIdGenerator.next();
+            assertThat(next).hasSize(36).isGreaterThan(previous);
+            previous = next;
+        }
+        UUID id = UUID.fromString(previous);
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // The first 48 bits are the creation time, as UUIDv7 readers expect
+        assertThat(id.getMostSignificantBits() >>> 16)
+                .isBetween(System.currentTimeMillis() - 60_000, System.currentTimeMillis() + 60_000);
+    }
+
+    private static DefaultListableBeanFactory beanFactory(boolean pooled, int poolSize) {
+        return beanFactory(new PooledRequestScope(pooled, poolSize));
+    }
+
+    private static DefaultListableBeanFactory beanFactory(PooledRequestScope scope) {
+        Counted.created.set(0);
+        Counted.destroyed.set(0);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerScope(PooledRequestScope.NAME, scope);
+        beanFactory.registerDisposableBean(PooledRequestScope.class.getName(), scope);
+        RootBeanDefinition definition = new RootBeanDefinition(Counted.class);
+        definition.setScope(PooledRequestScope.NAME);
+        beanFactory.registerBeanDefinition("counted", definition);
+        return beanFactory;
+    }
+
+    private static ServletRequestAttributes startRequest() {
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        return attributes;
+    }
+
+    static class Counted implements PooledRequestScope.Recyclable, DisposableBean {
+        static final AtomicInteger created = new AtomicInteger();
+        static final AtomicInteger destroyed = new AtomicInteger();
+        static final AtomicInteger requests = new AtomicInteger();
+
+        int request = requests.incrementAndGet();
+
+        Counted() {
+            created.incrementAndGet();
+        }
+
+        @Override
+        public void recycle() {
+            request = requests.incrementAndGet();
+        }
+
+        @Override
+        public void destroy() {
+            destroyed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.sm.fundamentals.beanscopes;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.CommonAnnotationBeanPostProcessor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * STOCK vs POOLED request scope - not a unit test, run by hand
+ *
+ * Replays what GET /request-scope does to the scope on one thread:
+ * bind request attributes, look up the request-scoped bean, read its id,
+ * complete the request. The HTTP stack is left out so the difference is
+ * not drowned by it. Prints throughput and bytes allocated per request
+ * (from com.sun.management.ThreadMXBean).
+ *
+ *   stock+uuid       - request scope, UUID.randomUUID() (the old bean)
+ *   stock+generator  - request scope, RequestIdGenerator
+ *   pooled+generator - PooledRequestScope, RequestIdGenerator (current bean)
+ *
+ * The beans' System.out lines go to a discarding stream while measuring.
+ *
+ *   java -cp target/classes:target/test-classes:<dependencies> \
+ *        com.sm.fundamentals.beanscopes.RequestScopeBenchmarkHarness [requests=1000000]
+ */
+public class RequestScopeBenchmarkHarness {
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        measure("stock+uuid", requests, () ->
+                beanFactory(WebApplicationContext.SCOPE_REQUEST, new RequestScope(), UuidBean.class));
+        measure("stock+generator", requests, () ->
+                beanFactory(WebApplicationContext.SCOPE_REQUEST, new RequestScope(), GeneratorBean.class));
+        measure("pooled+generator", requests, () ->
+                beanFactory(PooledRequestScope.NAME, new PooledRequestScope(true, 4), GeneratorBean.class));
+    }
+
+    private static void measure(String mode, int requests, Supplier<DefaultListableBeanFactory> setup) {
+        DefaultListableBeanFactory beanFactory = setup.get();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            run(beanFactory, requests / 4); // warm up
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            run(beanFactory, requests);
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            out.printf("%-18s %10.0f req/s %8d B/request%n", mode,
+                    requests / (elapsed / 1e9), allocated / requests);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static long run(DefaultListableBeanFactory beanFactory, int requests) {
+        long checksum = 0;
+        for (int i = 0; i < requests; i++) {
+            ServletRequestAttributes attributes =
+                    new ServletRequestAttributes(new MockHttpServletRequest());
+            RequestContextHolder.setRequestAttributes(attributes);
+            checksum += ((IdSource) beanFactory.getBean("bean")).id().length();
+            attributes.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+        }
+        return checksum;
+    }
+
+    private static DefaultListableBeanFactory beanFactory(String scopeName, Scope scope,
+                                                          Class<?> beanClass) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        CommonAnnotationBeanPostProcessor lifecycle = new CommonAnnotationBeanPostProcessor();
+        lifecycle.setBeanFactory(beanFactory);
+        beanFactory.addBeanPostProcessor(lifecycle);
+        beanFactory.registerScope(scopeName, scope);
+        RootBeanDefinition definition = new RootBeanDefinition(beanClass);
+        definition.setScope(scopeName);
+        beanFactory.registerBeanDefinition("bean", definition);
+        return beanFactory;
+    }
+
+    interface IdSource {
+        String id();
+    }
+
+    /**
+     * The current RequestScopedBean
+     */
+    static class GeneratorBean extends RequestScopedBean implements IdSource {
+        @Override
+        public String id() {
+            return getRequestId();
+        }
+    }
+
+    /**
+     * RequestScopedBean as it was before RequestIdGenerator
+     */
+    static class UuidBean implements IdSource {
+        private String requestId;
+
+        @PostConstruct
+        public void init() {
+            requestId = UUID.randomUUID().toString();
+            System.out.println("New request scope bean created: " + requestId);
+        }
+
+        @Override
+        public String id() {
+            return requestId;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            System.out.println("Request scope bean destroyed: " + requestId);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sm.fundamentals.beanscopes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionScopedBeanTests {
+
+    @Test
+    void concurrentRequestsOfOneSessionKeepEveryItem() throws Exception {
+        SessionScopedBean cart = new SessionScopedBean(new InMemoryCartStore(), "cart-1");
+        int threads = 8;
+        int itemsPerThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < itemsPerThread; i++) {
+                        cart.addItem(new Item("item-" + i));
+                        if (i % 100 == 0) {
+                            cart.getItems(); // readers racing with writers
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(cart.getItems()).hasSize(threads * itemsPerThread);
+    }
+
+    @Test
+    void itemsAreASnapshot() {
+        SessionScopedBean cart = new SessionScopedBean(new InMemoryCartStore(), "cart-1");
+        cart.addItem(new Item("apple"));
+        List<Item> items = cart.getItems();
+
+        cart.addItem(new Item("banana"));
+
+        assertThat(items).extracting(Item::getName).containsExactly("apple");
+    }
+}
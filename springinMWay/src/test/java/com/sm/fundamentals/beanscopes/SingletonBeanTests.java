@@ -0,0 +1,83 @@
+package com.sm.fundamentals.beanscopes;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingletonBeanTests {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS = 100_000;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void losesNoUpdatesUnderContention(boolean adaptive) throws Exception {
+        SingletonBean bean = new SingletonBean(adaptive);
+
+        runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS; i++) {
+                bean.increment();
+                bean.increment("hits");
+            }
+        });
+
+        assertThat(bean.getCounter()).isEqualTo(THREADS * INCREMENTS);
+        assertThat(bean.getCount("hits")).isEqualTo((long) THREADS * INCREMENTS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void resetsWithoutLosingRacingIncrements(boolean adaptive) throws Exception {
+        SingletonBean bean = new SingletonBean(adaptive);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong collected = new AtomicLong();
+
+        Thread reporter = new Thread(() -> {
+            while (!done.get()) {
+                collected.addAndGet(bean.snapshotAndReset().getOrDefault("hits", 0L));
+            }
+        });
+        reporter.start();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS; i++) {
+                bean.increment("hits");
+            }
+        });
+        done.set(true);
+        reporter.join();
+
+        assertThat(collected.get() + bean.getCount("hits"))
+                .isEqualTo((long) THREADS * INCREMENTS);
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[THREADS];
+            for (int i = 0; i < THREADS; i++) {
+                futures[i] = pool.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}